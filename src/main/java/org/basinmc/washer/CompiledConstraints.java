@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.ComponentDefinition;
+import org.basinmc.washer.component.constraint.ComponentConstraint;
+import org.basinmc.washer.component.constraint.ConstraintInput;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Represents a compiled conjunction of component constraints.<br>
+ * <br>
+ * Constraints which declare their inputs (see {@link ComponentConstraint#getInputs(Annotation)})
+ * are memoized and only re-evaluated when the value of one of their inputs changes. Constraints
+ * without any inputs are evaluated exactly once. Constraints are evaluated in ascending order of
+ * their cost (e.g. constant and memoized constraints are evaluated before constraints with
+ * unknown inputs) and evaluation stops with the first constraint which does not match.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@ThreadSafe
+final class CompiledConstraints {
+    private final Node<?>[] nodes;
+
+    private CompiledConstraints(@Nonnull Node<?>[] nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * Compiles a set of constraints and their respective annotations.
+     *
+     * @param constraints a map of annotations and their constraints.
+     * @return a compiled set of constraints.
+     */
+    @Nonnull
+    static CompiledConstraints compile(@Nonnull Map<Annotation, ComponentConstraint<?>> constraints) {
+        List<Node<?>> nodes = new ArrayList<>(constraints.size());
+        constraints.forEach((annotation, constraint) -> nodes.add(compile(annotation, constraint)));
+
+        nodes.sort(Comparator.comparingInt(Node::getCost));
+        return new CompiledConstraints(nodes.toArray(new Node<?>[nodes.size()]));
+    }
+
+    /**
+     * Compiles a single constraint and its respective annotation.<br>
+     * <br>
+     * Constraints are resolved through the {@link org.basinmc.washer.component.constraint.Constraint}
+     * meta-annotation of their annotation type and thus always accept the annotation they are
+     * paired with.
+     *
+     * @param annotation a constraint annotation.
+     * @param constraint a constraint.
+     * @return a compiled node.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private static <A extends Annotation> Node<A> compile(@Nonnull Annotation annotation, @Nonnull ComponentConstraint<A> constraint) {
+        A typedAnnotation = (A) annotation;
+        Set<ConstraintInput> inputs = constraint.getInputs(typedAnnotation).orElse(null);
+
+        return new Node<>(typedAnnotation, constraint, inputs != null ? inputs.toArray(new ConstraintInput[inputs.size()]) : null);
+    }
+
+    /**
+     * Checks whether a definition matches all constraints.
+     *
+     * @param context    the evaluating context.
+     * @param definition a definition.
+     * @return true if matches, false otherwise.
+     */
+    boolean matches(@Nonnull Context context, @Nonnull ComponentDefinition<?> definition) {
+        for (Node<?> node : this.nodes) {
+            if (!node.matches(context, definition)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Represents a single constraint along with its memoized result.
+     */
+    @ThreadSafe
+    private static final class Node<A extends Annotation> {
+        private final A annotation;
+        private final ComponentConstraint<A> constraint;
+        private final ConstraintInput[] inputs;
+        private volatile Memo memo;
+
+        private Node(@Nonnull A annotation, @Nonnull ComponentConstraint<A> constraint, @Nullable ConstraintInput[] inputs) {
+            this.annotation = annotation;
+            this.constraint = constraint;
+            this.inputs = inputs;
+        }
+
+        /**
+         * Retrieves the relative cost of evaluating this node.
+         */
+        private int getCost() {
+            return this.inputs == null ? Integer.MAX_VALUE : this.inputs.length;
+        }
+
+        /**
+         * Evaluates this node or returns its memoized result when its inputs remain unchanged.
+         *
+         * @param context    the evaluating context.
+         * @param definition a definition.
+         * @return true if matches, false otherwise.
+         */
+        private boolean matches(@Nonnull Context context, @Nonnull ComponentDefinition<?> definition) {
+            if (this.inputs == null) {
+                return this.constraint.matches(this.annotation, definition);
+            }
+
+            Object[] values = new Object[this.inputs.length];
+
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = this.inputs[i].getValue(context);
+            }
+
+            Memo memo = this.memo;
+
+            if (memo != null && Arrays.equals(memo.values, values)) {
+                return memo.result;
+            }
+
+            boolean result = this.constraint.matches(this.annotation, definition);
+            this.memo = new Memo(values, result);
+            return result;
+        }
+    }
+
+    /**
+     * Represents the result of a constraint along with the input values it was computed from.
+     */
+    @Immutable
+    private static final class Memo {
+        private final Object[] values;
+        private final boolean result;
+
+        private Memo(@Nonnull Object[] values, boolean result) {
+            this.values = values;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,2845 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.annotation.ComponentType;
+import org.basinmc.washer.annotation.ProvidedBy;
+import org.basinmc.washer.component.ComponentDefinition;
+import org.basinmc.washer.component.ComponentIndex;
+import org.basinmc.washer.component.ComponentTypeScanner;
+import org.basinmc.washer.component.InitializationStrategy;
+import org.basinmc.washer.component.constraint.ComponentConstraint;
+import org.basinmc.washer.component.constraint.Constraint;
+import org.basinmc.washer.metrics.ContextMetrics;
+
+import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * Provides a context implementation which is optimized for highly concurrent access.<br>
+ * <br>
+ * All bindings, provider bindings and instances are stored as immutable entries within a {@link
+ * ConcurrentHashMap}. As a result, read operations such as {@link #get(Class, String)}, {@link
+ * #hasLocalInstance(Class, String)} or {@link #getProvider(Class, String)} never acquire a lock
+ * while write operations only lock the hash bin of the key they modify (e.g. writes to unrelated
+ * keys will generally not contend with each other).<br>
+ * <br>
+ * Types which are neither bound nor stored within any context of a hierarchy are constructed by
+ * the root context (e.g. the context without a parent) when they provide a viable constructor
+ * (either a constructor annotated with {@link Inject} or a no-argument constructor) or declare
+ * their implementation via {@link ProvidedBy}. Instances of types annotated with {@link Singleton}
+ * are stored within the context which produced them.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@ThreadSafe
+public class ConcurrentContext implements Context {
+    private static final ClassValue<String> defaultQualifiers = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            Named named = type.getAnnotation(Named.class);
+            return named != null ? named.value() : type.getName();
+        }
+    };
+    private static final ClassValue<Key<?>> defaultKeys = new ClassValue<Key<?>>() {
+        @Override
+        protected Key<?> computeValue(Class<?> type) {
+            return new Key<>(type, defaultQualifiers.get(type));
+        }
+    };
+
+    private static final AtomicLongFieldUpdater<ConcurrentContext> VERSION = AtomicLongFieldUpdater.newUpdater(ConcurrentContext.class, "version");
+    private static final AtomicReferenceFieldUpdater<ConcurrentContext, LocalState> STATE = AtomicReferenceFieldUpdater.newUpdater(ConcurrentContext.class, LocalState.class, "state");
+    private static final AtomicIntegerFieldUpdater<ConcurrentContext> FILTER_REBUILDING = AtomicIntegerFieldUpdater.newUpdater(ConcurrentContext.class, "filterRebuilding");
+    private static final AtomicReferenceFieldUpdater<ConcurrentContext, Storage> STORAGE = AtomicReferenceFieldUpdater.newUpdater(ConcurrentContext.class, Storage.class, "storage");
+    private static final AtomicIntegerFieldUpdater<ConcurrentContext> RELEASED = AtomicIntegerFieldUpdater.newUpdater(ConcurrentContext.class, "released");
+    private static final AtomicLongFieldUpdater<ConcurrentContext> INSTANCE_SEQUENCE = AtomicLongFieldUpdater.newUpdater(ConcurrentContext.class, "instanceSequence");
+
+    private volatile Storage storage;
+    private volatile ConcurrentMap<Key<?>, Resolution> resolutions;
+    private volatile int released;
+    private volatile long version;
+    private volatile long batchSequence;
+    private volatile long instanceSequence;
+    private volatile LocalState state;
+    private volatile KeyFilter filter;
+    private volatile int filterRebuilding;
+    private final Context parent;
+    private final Optional<Context> parentReference;
+    private final ContextMetrics metrics;
+    private final boolean measured;
+
+    public ConcurrentContext() {
+        this(null);
+    }
+
+    /**
+     * Creates a new context which inherits the metrics listener of its parent (when the parent is
+     * a {@link ConcurrentContext}).
+     *
+     * @param parent a parent context.
+     */
+    public ConcurrentContext(@Nullable Context parent) {
+        this(parent, parent instanceof ConcurrentContext ? ((ConcurrentContext) parent).metrics : ContextMetrics.NONE);
+    }
+
+    /**
+     * Creates a new context which reports its resolutions, constructions, injections and lock waits
+     * to a metrics listener.
+     *
+     * @param parent  a parent context.
+     * @param metrics a metrics listener.
+     */
+    public ConcurrentContext(@Nullable Context parent, @Nonnull ContextMetrics metrics) {
+        this.parent = parent;
+        this.parentReference = Optional.ofNullable(parent);
+        this.metrics = metrics;
+        this.measured = metrics != ContextMetrics.NONE;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> This implementation verifies the construction plan of the binding
+     * before it is applied.
+     *
+     * @throws InjectionException when the binding would (directly or transitively) depend on
+     *                            itself.
+     */
+    @Override
+    public <C> void bind(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Class<C> binding) {
+        this.bind(new Key<>(base, qualifier), (e) -> e.withBinding(binding));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> This implementation verifies the construction plan of the provider
+     * before it is applied.
+     *
+     * @throws InjectionException when the provider would (directly or transitively) depend on
+     *                            itself.
+     */
+    @Override
+    public <C> void bindProvider(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Class<Provider<C>> providerBinding) {
+        this.bind(new Key<>(base, qualifier), (e) -> e.withProviderBinding(providerBinding));
+    }
+
+    /**
+     * Records a set of bindings, provider bindings and instances and applies them to this context
+     * as a single atomic operation.<br>
+     * <br>
+     * Readers will observe either none or all of the operations within a batch and the resolution
+     * caches of child contexts are invalidated only once per batch. Instances which are replaced
+     * by the batch are destructed once the batch has been applied. When the passed function fails
+     * or the resulting bindings depend on themselves, none of its operations are applied.<br>
+     * <br>
+     * Batches (as well as bindings and registrations) are verified and applied while holding the
+     * same lock and are thus always verified against the state they are applied to.
+     *
+     * @param operations a function which records the operations of the batch.
+     * @throws IllegalArgumentException when an instance is not compatible with its type.
+     * @throws InjectionException       when a binding of the batch would (directly or transitively)
+     *                                  depend on itself.
+     */
+    public void batch(@Nonnull Consumer<ContextBatch> operations) {
+        RecordingBatch batch = new RecordingBatch();
+        operations.accept(batch);
+
+        if (batch.operations.isEmpty()) {
+            return;
+        }
+
+        List<Entry> replaced = new ArrayList<>();
+        ReentrantLock batchLock = this.state().batchLock;
+        batchLock.lock();
+
+        try {
+            Map<Key<?>, Entry> pending = new HashMap<>();
+            batch.operations.forEach((k, o) -> pending.put(k, o.apply(Entry.of(this.getEntry(k)))));
+            this.verify(pending);
+
+            Storage storage = this.storage();
+            KeyFilter filter = this.track(batch.operations.keySet());
+            this.batchSequence++;
+
+            try {
+                batch.operations.forEach((key, operation) -> storage.entries.compute(key, (k, e) -> {
+                    Entry current = Entry.of(e);
+                    Entry updated = operation.apply(current);
+
+                    if (current.expiration != updated.expiration || (current.instance != null && current.instance != updated.instance)) {
+                        replaced.add(current);
+                    }
+
+                    return this.index(storage, k, e, updated.orNull());
+                }));
+            } finally {
+                this.batchSequence++;
+                this.advance(filter);
+            }
+        } finally {
+            batchLock.unlock();
+        }
+
+        replaced.forEach((e) -> {
+            Object instance = e.getInstance();
+            this.cancel(e.expiration);
+
+            if (instance != null) {
+                this.destroy(instance);
+            }
+        });
+    }
+
+    @Override
+    public boolean canProduceInstance(@Nonnull Class<?> type, @Nonnull String qualifier) {
+        return this.canProduceInstance(new Key<>(type, qualifier));
+    }
+
+    @Override
+    public boolean canProduceInstance(@Nonnull Key<?> key) {
+        if (this.canProduceInstanceLocally(key)) {
+            return true;
+        }
+
+        if (this.parent == null) {
+            return false;
+        }
+
+        Resolution resolution = this.resolveAncestors(key);
+        return resolution.producible || (resolution.delegate != null && resolution.delegate.canProduceInstance(key));
+    }
+
+    @Override
+    public boolean canProduceInstanceLocally(@Nonnull Class<?> type, @Nonnull String qualifier) {
+        return this.canProduceInstanceLocally(new Key<>(type, qualifier));
+    }
+
+    @Override
+    public boolean canProduceInstanceLocally(@Nonnull Key<?> key) {
+        Entry entry = this.lookup(key);
+
+        if (entry != null && (entry.binding != null || entry.providerBinding != null)) {
+            return true;
+        }
+
+        Class<?> type = key.getType();
+        return this.parent == null && (type.isAnnotationPresent(ProvidedBy.class) || isConstructible(type));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> This implementation notifies scanners using the common fork join
+     * pool.
+     *
+     * @see #clear(Executor) for more information on the destruction process.
+     */
+    @Override
+    public void clear() {
+        this.clear(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Removes all instances from this context and notifies their scanners in reverse order of
+     * their dependencies.<br>
+     * <br>
+     * Instances are destructed in stages: Each stage consists of the instances which no remaining
+     * instance depends on (e.g. an instance is destructed only after all instances which received
+     * it as a non-deferred dependency have been destructed). The dependencies of an instance are
+     * recorded when it is constructed as a singleton by this context. Instances whose dependencies
+     * are unknown (such as explicitly registered instances or instances which have been retrieved
+     * from a provider) are assumed to depend on all singletons which have been stored within this
+     * context prior to them (e.g. these singletons are retained until all such instances have been
+     * destructed) while they are destructed alongside each other. Within a stage, the instances of
+     * each scanner are passed to {@link ComponentTypeScanner#onDestruct(List, List)} as a single
+     * batch and the batches of different scanners are dispatched concurrently using the supplied
+     * executor. This method blocks until all instances have been destructed.<br>
+     * <br>
+     * When a scanner fails, the remaining instances are destructed regardless and the first
+     * failure is rethrown once all stages have completed.
+     *
+     * @param executor an executor to notify scanners on.
+     */
+    public void clear(@Nonnull Executor executor) {
+        Map<Key<?>, DestructionNode> removed = new LinkedHashMap<>();
+        Map<Object, DestructionNode> nodes = new IdentityHashMap<>();
+
+        this.getLocalKeys().forEach((k) -> {
+            Entry[] entry = new Entry[1];
+            Object instance = this.detach(k, (i) -> true, entry);
+
+            if (instance != null) {
+                removed.put(k, nodes.computeIfAbsent(instance, DestructionNode::new).merge(entry[0]));
+            }
+        });
+
+        if (nodes.isEmpty()) {
+            return;
+        }
+
+        for (DestructionNode node : nodes.values()) {
+            for (Key<?> key : node.dependencyKeys) {
+                DestructionNode target = removed.get(key);
+
+                if (target != null && target != node && !node.dependencies.contains(target)) {
+                    node.dependencies.add(target);
+                    target.dependents++;
+                }
+            }
+        }
+
+        List<DestructionNode> remaining = new ArrayList<>(nodes.values());
+        remaining.sort(Comparator.comparingLong((DestructionNode n) -> n.sequence).reversed());
+
+        List<Throwable> failures = new ArrayList<>();
+
+        while (!remaining.isEmpty()) {
+            // singletons which have been stored prior to the most recent instance with unknown
+            // dependencies may have been passed to it and are thus retained until it has been
+            // destructed
+            long barrier = Long.MIN_VALUE;
+
+            for (DestructionNode node : remaining) {
+                if (!node.recorded) {
+                    barrier = node.sequence;
+                    break;
+                }
+            }
+
+            List<Object> stage = new ArrayList<>();
+
+            for (DestructionNode node : remaining) {
+                if (node.dependents == 0 && (!node.recorded || node.sequence > barrier)) {
+                    node.destructed = true;
+                    stage.add(node.instance);
+                }
+            }
+
+            if (stage.isEmpty()) {
+                // recorded dependencies may contradict the construction order when an instance has
+                // been replaced after its dependants have been constructed in which case the most
+                // recently stored instance is destructed first
+                DestructionNode node = remaining.stream()
+                        .filter((n) -> n.dependents == 0)
+                        .findFirst()
+                        .orElse(remaining.get(0));
+
+                node.destructed = true;
+                stage.add(node.instance);
+            }
+
+            this.destroy(stage, executor, failures);
+
+            remaining.removeIf((n) -> {
+                if (!n.destructed) {
+                    return false;
+                }
+
+                n.dependencies.forEach((d) -> d.dependents--);
+                return true;
+            });
+        }
+
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        Throwable failure = failures.get(0);
+        failures.subList(1, failures.size()).forEach(failure::addSuppressed);
+
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+
+        throw new InjectionException("Cannot destruct instances", failure);
+    }
+
+    @Override
+    public void clearAllBindings() {
+        this.getLocalKeys().forEach((k) -> this.updateIfPresent(k, (key, e) -> e.withBinding(null).withProviderBinding(null).orNull()));
+    }
+
+    @Override
+    public void clearAllBindings(@Nonnull Class<?> base) {
+        this.getLocalKeys(base).forEach((k) -> this.updateIfPresent(k, (key, e) -> e.withBinding(null).withProviderBinding(null).orNull()));
+    }
+
+    @Override
+    public <C> void clearBinding(@Nonnull Class<C> base, @Nonnull Predicate<Class<? extends C>> filterPredicate) {
+        this.clearBinding(base, (q, b) -> filterPredicate.test(b));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C> void clearBinding(@Nonnull Class<C> base, @Nonnull BiPredicate<String, Class<? extends C>> filterPredicate) {
+        this.getLocalKeys(base).forEach((k) -> {
+            Entry e = this.getEntry(k);
+            Class<?> binding = e != null ? e.binding : null;
+
+            if (binding == null || !filterPredicate.test(k.getQualifier(), (Class<? extends C>) binding)) {
+                return;
+            }
+
+            this.updateIfPresent(k, (key, current) -> current.binding == binding ? current.withBinding(null).orNull() : current);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> This implementation clears provider bindings of the specified type
+     * and qualifier as well.
+     */
+    @Override
+    public void clearBinding(@Nonnull Class<?> base, @Nonnull String qualifier) {
+        this.updateIfPresent(new Key<>(base, qualifier), (k, e) -> e.withBinding(null).withProviderBinding(null).orNull());
+    }
+
+    @Override
+    public <C> void clearProviderBinding(@Nonnull Class<C> base, @Nonnull Predicate<Class<Provider<? extends C>>> filterPredicate) {
+        this.clearProviderBinding(base, (q, b) -> filterPredicate.test(b));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C> void clearProviderBinding(@Nonnull Class<C> base, @Nonnull BiPredicate<String, Class<Provider<? extends C>>> filterPredicate) {
+        this.getLocalKeys(base).forEach((k) -> {
+            Entry e = this.getEntry(k);
+            Class<?> binding = e != null ? e.providerBinding : null;
+
+            if (binding == null || !filterPredicate.test(k.getQualifier(), (Class<Provider<? extends C>>) binding)) {
+                return;
+            }
+
+            this.updateIfPresent(k, (key, current) -> current.providerBinding == binding ? current.withProviderBinding(null).orNull() : current);
+        });
+    }
+
+    /**
+     * Discovers all components which have been recorded within the component indices visible to a
+     * class loader and registers their definitions with this context.<br>
+     * <br>
+     * Component types are looked up through the index generated at compile time (see {@link
+     * ComponentIndex}) and thus only the indexed types are loaded (without being initialized). The
+     * scanners of all component type annotations are notified of each discovered type while
+     * constraint annotations are attached to the resulting definition. Components which request
+     * eager initialization will be constructed once {@link #initialize()} is invoked.
+     *
+     * @param classLoader a class loader.
+     * @throws InjectionException when an indexed type cannot be loaded or does not implement the
+     *                            type required by its component type annotation.
+     */
+    public void discover(@Nonnull ClassLoader classLoader) {
+        ComponentIndex index = ComponentIndex.load(classLoader);
+
+        for (String componentName : index.getComponentNames()) {
+            long start = this.measured ? System.nanoTime() : 0;
+            Class<?> type = loadIndexedType(componentName, classLoader);
+            InitializationStrategy initializationStrategy = InitializationStrategy.LAZY;
+            Map<Annotation, ComponentConstraint<?>> constraints = new LinkedHashMap<>();
+
+            for (ComponentIndex.Entry entry : index.getEntries(componentName)) {
+                Class<? extends Annotation> annotationType = loadIndexedType(entry.getAnnotationName(), classLoader).asSubclass(Annotation.class);
+                Annotation annotation = type.getAnnotation(annotationType);
+
+                if (annotation == null) {
+                    continue;
+                }
+
+                if (entry.getKind() == ComponentIndex.Kind.CONSTRAINT) {
+                    Constraint constraint = annotationType.getAnnotation(Constraint.class);
+                    constraints.put(annotation, this.get(constraint.value()).orElseThrow(() -> new InjectionException("Cannot resolve component constraint " + constraint.value().getName())));
+                    continue;
+                }
+
+                ComponentType componentType = annotationType.getAnnotation(ComponentType.class);
+
+                if (!componentType.type().isAssignableFrom(type)) {
+                    throw new InjectionException("Component " + type.getName() + " does not implement " + componentType.type().getName() + " as required by @" + annotationType.getName());
+                }
+
+                if (componentType.initialization() == InitializationStrategy.EAGER) {
+                    initializationStrategy = InitializationStrategy.EAGER;
+                }
+
+                this.getScanner(componentType.scanner()).onDiscovery(annotation, type);
+            }
+
+            this.register(new DiscoveredComponentDefinition<>(this, type, this.getDefaultQualifier(type), initializationStrategy, constraints));
+
+            if (this.measured) {
+                this.metrics.onDiscover(type, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> Bindings of singleton types which have yet to be constructed are
+     * constructed and bound providers are resolved as part of this operation. The parent context
+     * is frozen as well and resolves all keys which are not part of the snapshot itself. Unbound
+     * dependencies of non-singleton bindings are resolved ahead of time (e.g. implicit singletons
+     * are constructed within this context) as the snapshot does not resolve them on demand.
+     *
+     * @throws InjectionException            when a singleton or bound provider cannot be
+     *                                       constructed.
+     * @throws UnsupportedOperationException when the parent context does not support snapshots.
+     */
+    @Nonnull
+    @Override
+    public FrozenContext freeze() {
+        Context parent = this.parent != null ? this.parent.freeze() : null;
+        Map<Key<?>, Object> instances = new HashMap<>();
+        Map<Key<?>, Provider<?>> providers = new HashMap<>();
+        Map<Key<?>, Class<?>> implementations = new HashMap<>();
+
+        this.getLocalEntries().forEach((key, entry) -> {
+            Object instance = entry.getInstance();
+
+            if (instance != null) {
+                instances.put(key, instance);
+            } else if (entry.providerBinding != null) {
+                providers.put(key, this.getBoundProvider(key, entry));
+            } else if (entry.binding != null && entry.binding.isAnnotationPresent(Singleton.class)) {
+                instances.put(key, this.produce(key, entry.binding));
+            } else if (entry.binding != null) {
+                implementations.put(key, entry.binding);
+            }
+        });
+
+        Deque<Class<?>> pending = new ArrayDeque<>(implementations.values());
+        Set<Class<?>> visited = new HashSet<>();
+
+        while (!pending.isEmpty()) {
+            Class<?> implementation = pending.poll();
+
+            if (!visited.add(implementation)) {
+                continue;
+            }
+
+            for (Dependency dependency : ConstructionPlan.of(implementation).getDependencies()) {
+                Key<?> key = dependency.getKey(this);
+
+                if (instances.containsKey(key) || providers.containsKey(key) || implementations.containsKey(key) || (parent != null && parent.canProduceInstance(key))) {
+                    continue;
+                }
+
+                Class<?> type = key.getType();
+
+                if (!type.isAnnotationPresent(ProvidedBy.class) && !type.isAnnotationPresent(Singleton.class) && isConstructible(type)) {
+                    implementations.put(key, type);
+                    pending.add(type);
+                    continue;
+                }
+
+                Object instance = this.getOrNull(key);
+
+                if (instance != null) {
+                    instances.put(key, instance);
+                }
+            }
+        }
+
+        Map<Class<?>, Key<?>[]> indexedKeys = new HashMap<>();
+        Context current = this;
+
+        while (current instanceof ConcurrentContext) {
+            ConcurrentContext context = (ConcurrentContext) current;
+            context.getLocalKeys().forEach((k) -> indexedKeys.computeIfAbsent(k.getType(), this::getAllKeys));
+            current = context.parent;
+        }
+
+        return new FrozenContext(this, parent, instances, providers, implementations, indexedKeys);
+    }
+
+    @Nonnull
+    @Override
+    public <T> Optional<T> get(@Nonnull Class<T> type, @Nonnull String qualifier) {
+        return Optional.ofNullable(this.getOrNull(new Key<>(type, qualifier)));
+    }
+
+    @Nonnull
+    @Override
+    public <T> Optional<T> get(@Nonnull Key<T> key) {
+        return Optional.ofNullable(this.getOrNull(key));
+    }
+
+    @Nonnull
+    @Override
+    public <T> List<T> getAll(@Nonnull Class<T> type) {
+        Key<?>[] keys = this.getAllKeys(type);
+        List<T> instances = new ArrayList<>(keys.length);
+
+        for (Key<?> key : keys) {
+            Object instance = this.getOrNull(key);
+
+            if (instance != null) {
+                instances.add(type.cast(instance));
+            }
+        }
+
+        return instances;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> This implementation completes immediately when an instance has
+     * already been stored locally. Otherwise, the singletons and providers which the component
+     * (directly or through its other dependencies) depends on are resolved in parallel before the
+     * component itself is resolved. Concurrent requests for the same key share a single future.
+     */
+    @Nonnull
+    @Override
+    public <T> CompletableFuture<Optional<T>> getAsync(@Nonnull Key<T> key, @Nonnull Executor executor) {
+        Entry entry = this.lookup(key);
+
+        if (entry != null && entry.getInstance() != null) {
+            return CompletableFuture.completedFuture(Optional.ofNullable(this.getInstance(key, entry)));
+        }
+
+        return this.resolveAsync(this.state().asyncResolutions, key, executor, true, () -> this.get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> This implementation will use the value of {@link Named} when the type
+     * is annotated with it and fall back to the fully qualified name of the type otherwise.
+     */
+    @Nonnull
+    @Override
+    public String getDefaultQualifier(@Nonnull Class<?> type) {
+        return defaultQualifiers.get(type);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> This implementation creates a single key per type and returns it
+     * for all subsequent invocations.
+     */
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Key<T> getKey(@Nonnull Class<T> type) {
+        return (Key<T>) defaultKeys.get(type);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> When a key can neither be resolved nor produced, this implementation
+     * falls back to the instances which have been stored under a subtype of the requested type
+     * (for instance when an instance has been stored using its concrete type but is requested
+     * through one of its interfaces). Requests which use the default qualifier of their type
+     * consider all such instances while other requests only consider instances with the same
+     * qualifier.
+     *
+     * @throws InjectionException when multiple instances within the same context match.
+     */
+    @Nullable
+    @Override
+    public <T> T getOrNull(@Nonnull Key<T> key) {
+        T instance = this.resolve(key);
+        return instance != null ? instance : this.getAssignableInstance(key);
+    }
+
+    /**
+     * Retrieves an instance which has been stored under a subtype of the requested type within this
+     * context or one of its parents.<br>
+     * <br>
+     * Contexts are searched in order of their proximity and the search ends with the first context
+     * which contains a matching instance.
+     *
+     * @param key a key.
+     * @return an instance or, if no matching instance is stored, null.
+     *
+     * @throws InjectionException when multiple instances within the same context match.
+     */
+    @Nullable
+    private <T> T getAssignableInstance(@Nonnull Key<T> key) {
+        Class<T> type = key.getType();
+        boolean qualified = !key.getQualifier().equals(this.getDefaultQualifier(type));
+        Context current = this;
+
+        while (current instanceof ConcurrentContext) {
+            ConcurrentContext context = (ConcurrentContext) current;
+            Key<?> match = null;
+            Entry matchEntry = null;
+            Object matchInstance = null;
+
+            Storage storage = context.storage;
+
+            for (Key<?> candidate : storage != null ? storage.types.getSubtypeKeys(type) : Collections.<Key<?>>emptySet()) {
+                if (qualified && !candidate.getQualifier().equals(key.getQualifier())) {
+                    continue;
+                }
+
+                Entry entry = context.lookup(candidate);
+                Object instance = entry != null ? entry.getInstance() : null;
+
+                if (instance == null || instance == matchInstance) {
+                    continue;
+                }
+
+                if (match != null) {
+                    throw new InjectionException("Ambiguous dependency " + key + ": Instances are stored as " + match + " and " + candidate);
+                }
+
+                match = candidate;
+                matchEntry = entry;
+                matchInstance = instance;
+            }
+
+            if (match != null) {
+                if (matchEntry.expiration != null) {
+                    matchEntry.expiration.touch();
+                }
+
+                return type.cast(matchInstance);
+            }
+
+            current = context.parent;
+        }
+
+        return null;
+    }
+
+    /**
+     * Resolves a key within this context and its parents (including the implicit production of
+     * unbound types) without considering instances of subtypes.
+     *
+     * @param key a key.
+     * @return an instance or, if the key cannot be resolved, null.
+     */
+    @Nullable
+    private <T> T resolve(@Nonnull Key<T> key) {
+        Entry entry = this.lookup(key);
+
+        if (entry != null || this.parent == null) {
+            if (this.measured) {
+                this.metrics.onResolution(key, 0, false);
+            }
+
+            return entry != null ? this.getInstance(key, entry) : this.produceImplicitly(key);
+        }
+
+        Resolution resolution = this.resolveAncestors(key);
+
+        if (resolution.owner != null) {
+            return resolution.owner.getInstance(key, resolution.entry);
+        }
+
+        if (resolution.delegate != null) {
+            return resolution.delegate.getOrNull(key);
+        }
+
+        return resolution.root.produceImplicitly(key);
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Context> getParent() {
+        return this.parentReference;
+    }
+
+    @Nonnull
+    @Override
+    public <C> Optional<Provider<C>> getProvider(@Nonnull Class<C> type, @Nonnull String qualifier) {
+        return this.getProvider(new Key<>(type, qualifier));
+    }
+
+    @Nonnull
+    @Override
+    public <C> Optional<Provider<C>> getProvider(@Nonnull Key<C> key) {
+        Entry entry = this.lookup(key);
+
+        if (this.measured && (entry != null || this.parent == null)) {
+            this.metrics.onResolution(key, 0, false);
+        }
+
+        if (entry != null) {
+            return Optional.of(this.getProvider(key, entry));
+        }
+
+        if (this.parent == null) {
+            return this.canProduceInstanceLocally(key) ? Optional.of(new ContextProvider<>(this, key)) : Optional.empty();
+        }
+
+        Resolution resolution = this.resolveAncestors(key);
+
+        if (resolution.owner != null) {
+            return Optional.of(resolution.owner.getProvider(key, resolution.entry));
+        }
+
+        if (resolution.delegate != null) {
+            return resolution.delegate.getProvider(key);
+        }
+
+        return resolution.producible ? Optional.of(new ContextProvider<>(resolution.root, key)) : Optional.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> This implementation completes immediately unless a bound provider
+     * has yet to be constructed in which case its dependencies are resolved in parallel before the
+     * provider itself is constructed. Concurrent requests for the same key share a single future.
+     */
+    @Nonnull
+    @Override
+    public <C> CompletableFuture<Optional<Provider<C>>> getProviderAsync(@Nonnull Key<C> key, @Nonnull Executor executor) {
+        Entry entry = this.lookup(key);
+
+        if ((entry != null && entry.provider != null) || !Provider.class.isAssignableFrom(this.getImplementation(key))) {
+            return CompletableFuture.completedFuture(this.getProvider(key));
+        }
+
+        return this.resolveAsync(this.state().asyncProviderResolutions, key, executor, true, () -> this.getProvider(key));
+    }
+
+    @Override
+    public boolean hasInstance(@Nonnull Class<?> type, @Nonnull String qualifier) {
+        return this.hasInstance(new Key<>(type, qualifier));
+    }
+
+    @Override
+    public boolean hasInstance(@Nonnull Key<?> key) {
+        if (this.hasLocalInstance(key)) {
+            return true;
+        }
+
+        if (this.parent == null) {
+            return false;
+        }
+
+        Resolution resolution = this.resolveAncestors(key);
+        return resolution.instance || (resolution.delegate != null && resolution.delegate.hasInstance(key));
+    }
+
+    @Override
+    public boolean hasLocalInstance(@Nonnull Class<?> type, @Nonnull String qualifier) {
+        return this.hasLocalInstance(new Key<>(type, qualifier));
+    }
+
+    @Override
+    public boolean hasLocalInstance(@Nonnull Key<?> key) {
+        Entry entry = this.lookup(key);
+        return entry != null && entry.getInstance() != null;
+    }
+
+    /**
+     * Initializes all registered component definitions which request eager initialization using
+     * the common fork join pool.
+     *
+     * @throws InjectionException when one or more bindings cannot be satisfied or components fail
+     *                            to initialize.
+     * @see #initialize(Executor) for more information on the initialization process.
+     */
+    public void initialize() {
+        this.initialize(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Initializes all registered component definitions which request eager initialization.<br>
+     * <br>
+     * Definitions are initialized in descending order of priority. Definitions which share the
+     * same priority and do not depend on each other (either directly or through one of their
+     * dependencies) are constructed concurrently using the supplied executor. This method blocks
+     * until all eager components have been initialized.<br>
+     * <br>
+     * Prior to the initialization of any component, all bindings of this context are verified
+     * through {@link #verify()}.
+     *
+     * @param executor an executor to construct components on.
+     * @throws InjectionException when one or more bindings cannot be satisfied or components fail
+     *                            to initialize or depend on each other in a circular fashion.
+     */
+    public void initialize(@Nonnull Executor executor) {
+        this.verify();
+        LocalState state = this.state;
+
+        if (state != null) {
+            new EagerInitializer(this, new HashMap<>(state.definitions), executor).initialize();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> This implementation will use the injectors generated at compile time
+     * when available and fall back to a cached set of field setters otherwise.
+     */
+    @Override
+    public void inject(@Nonnull Object object) {
+        if (!this.measured) {
+            InjectionPlan.of(object.getClass()).inject(this, object);
+            return;
+        }
+
+        long start = System.nanoTime();
+        InjectionPlan.of(object.getClass()).inject(this, object);
+        this.metrics.onInject(object.getClass(), System.nanoTime() - start);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> This implementation only visits instances which are actually due for
+     * eviction (e.g. instances which have been reclaimed, instances whose owner has been collected
+     * or instances whose timing wheel bucket has passed since the previous refresh). Instances
+     * which have been stored without a lifecycle are retained until they are explicitly removed or
+     * the context is cleared.
+     */
+    @Override
+    public void refresh() {
+        LocalState state = this.state;
+
+        if (state == null) {
+            return;
+        }
+
+        List<Expiration> expired = new ArrayList<>();
+        Reference<?> reference;
+
+        while ((reference = state.owners.poll()) != null) {
+            expired.add(((Expiration.TrackingReference) reference).getExpiration());
+        }
+
+        if (state.wheel != null) {
+            state.lifecycleLock.lock();
+
+            try {
+                long nanos = System.nanoTime();
+                List<Expiration> pending = new ArrayList<>();
+
+                state.wheel.advance(nanos, (n) -> {
+                    Expiration expiration = (Expiration) n;
+                    long time = expiration.getDueTime();
+
+                    if (time - nanos > 0) {
+                        expiration.time = time;
+                        pending.add(expiration);
+                    } else {
+                        expired.add(expiration);
+                    }
+                });
+
+                pending.forEach(state.wheel::schedule);
+            } finally {
+                state.lifecycleLock.unlock();
+            }
+        }
+
+        expired.forEach(this::expire);
+    }
+
+    /**
+     * Registers a component definition with this context.<br>
+     * <br>
+     * The provider or implementation declared by the definition is bound to its type and
+     * qualifier. Definitions which request eager initialization will be constructed once {@link
+     * #initialize()} is invoked.
+     *
+     * @param definition a definition.
+     * @throws InjectionException when the definition would (directly or transitively) depend on
+     *                            itself.
+     */
+    public void register(@Nonnull ComponentDefinition<?> definition) {
+        Key<?> key = new Key<>(definition.getType(), definition.getQualifier());
+        Class<?> providerType = definition.getProviderType().orElse(null);
+        Class<?> implementationType = definition.getImplementationType().orElse(null);
+
+        if (providerType != null) {
+            this.bind(key, (e) -> e.withProviderBinding(providerType));
+        } else if (implementationType != null) {
+            this.bind(key, (e) -> e.withBinding(implementationType));
+        }
+
+        this.state().definitions.put(key, definition);
+    }
+
+    @Override
+    public void removeAllInstances(@Nonnull Class<?> type) {
+        this.getLocalKeys(type).forEach((k) -> this.evict(k, (i) -> true));
+    }
+
+    @Override
+    public <C> void removeInstance(@Nonnull Class<C> type, @Nonnull Predicate<C> filterPredicate) {
+        this.removeInstance(type, (BiPredicate<String, C>) (q, i) -> filterPredicate.test(i));
+    }
+
+    @Override
+    public <C> void removeInstance(@Nonnull Class<C> type, @Nonnull BiPredicate<String, C> filterPredicate) {
+        this.getLocalKeys(type).forEach((k) -> this.evict(k, (i) -> filterPredicate.test(k.getQualifier(), type.cast(i))));
+    }
+
+    @Override
+    public void removeInstance(@Nonnull Class<?> type, @Nonnull String qualifier) {
+        this.evict(new Key<>(type, qualifier), (i) -> true);
+    }
+
+    @Override
+    public void removeInstance(@Nonnull Key<?> key) {
+        this.evict(key, (i) -> true);
+    }
+
+    @Override
+    public <C> void removeInstance(@Nonnull Class<? super C> type, @Nonnull C instance) {
+        this.getLocalKeys(type).forEach((k) -> this.evict(k, (i) -> i == instance));
+    }
+
+    @Override
+    public <C> void setInstance(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Object instance) {
+        this.store(new Key<>(base, qualifier), instance, Lifecycle.PERMANENT);
+    }
+
+    @Override
+    public <C> void setInstance(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Object instance, @Nonnull Lifecycle lifecycle) {
+        this.store(new Key<>(base, qualifier), instance, lifecycle);
+    }
+
+    @Override
+    public <C> void setInstance(@Nonnull Key<C> key, @Nonnull C instance) {
+        this.store(key, instance, Lifecycle.PERMANENT);
+    }
+
+    @Override
+    public <C> void setInstance(@Nonnull Key<C> key, @Nonnull C instance, @Nonnull Lifecycle lifecycle) {
+        this.store(key, instance, lifecycle);
+    }
+
+    /**
+     * Verifies the construction plans of all bindings within this context.<br>
+     * <br>
+     * Cycles are already rejected when a binding is registered. As bindings may be registered in
+     * any order, however, dependencies which cannot be satisfied (e.g. types which are neither
+     * bound, stored nor constructible) can only be reported once all bindings are in place.
+     * Bindings which stem from definitions whose constraints do not match are ignored.
+     *
+     * @throws InjectionException when one or more dependencies cannot be satisfied or a binding
+     *                            depends on itself.
+     */
+    public void verify() {
+        LocalState state = this.state;
+        Set<Key<?>> verified = new HashSet<>();
+        List<String> unsatisfied = new ArrayList<>();
+
+        this.getLocalEntries().forEach((k, e) -> {
+            if (e.binding == null && e.providerBinding == null) {
+                return;
+            }
+
+            ComponentDefinition<?> definition = state != null ? state.definitions.get(k) : null;
+
+            if (definition == null || definition.matchesConstraints()) {
+                this.verify(k, null, Collections.emptyMap(), new LinkedHashSet<>(), verified, unsatisfied);
+            }
+        });
+
+        if (!unsatisfied.isEmpty()) {
+            throw new InjectionException("Unsatisfied dependencies: " + String.join(", ", unsatisfied));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> This implementation locates the matching keys through the type
+     * indices of this context and its parents. The ordered set of keys is cached per type until
+     * this context or one of its parents is modified. Parents which are not {@link
+     * ConcurrentContext} instances are not considered.
+     */
+    @Nonnull
+    @Override
+    public <T> Stream<T> streamAll(@Nonnull Class<T> type) {
+        return Arrays.stream(this.getAllKeys(type))
+                .map(this::getOrNull)
+                .filter(Objects::nonNull)
+                .map(type::cast);
+    }
+
+    /**
+     * Constructs a new instance of the specified type (including the injection of its fields and the
+     * notification of all relevant component type scanners).
+     *
+     * @param type an implementation type.
+     * @return an instance.
+     *
+     * @throws InjectionException when the type provides no viable constructor or one of its
+     *                            dependencies cannot be resolved.
+     */
+    @Nonnull
+    private <C> C construct(@Nonnull Class<C> type) {
+        return this.construct(type, this);
+    }
+
+    /**
+     * Constructs a new instance of the specified type while resolving its dependencies through an
+     * arbitrary context (such as a snapshot of this context).
+     *
+     * @param type    an implementation type.
+     * @param context a context which resolves the dependencies of the instance.
+     * @return an instance.
+     *
+     * @throws InjectionException when the type provides no viable constructor or one of its
+     *                            dependencies cannot be resolved.
+     */
+    @Nonnull
+    <C> C construct(@Nonnull Class<C> type, @Nonnull Context context) {
+        if (!this.measured) {
+            return this.instantiate(type, context);
+        }
+
+        long start = System.nanoTime();
+        C instance = this.instantiate(type, context);
+        this.metrics.onConstruct(type, System.nanoTime() - start);
+        return instance;
+    }
+
+    /**
+     * Constructs and injects a new instance of a certain type without reporting the construction
+     * to the metrics listener (e.g. the actual implementation of {@link #construct(Class,
+     * Context)}).
+     *
+     * @param type    a type.
+     * @param context a context which resolves the dependencies of the instance.
+     * @return an instance.
+     *
+     * @throws InjectionException when the type cannot be constructed.
+     */
+    @Nonnull
+    private <C> C instantiate(@Nonnull Class<C> type, @Nonnull Context context) {
+        ConstructionPlan plan = ConstructionPlan.of(type);
+
+        if (!plan.isConstructible()) {
+            throw new InjectionException("Type " + type.getName() + " does not provide a viable constructor");
+        }
+
+        if (!this.measured) {
+            this.dispatch(type, (s, a) -> s.onPreConstruct(a, type));
+
+            C instance = type.cast(plan.newInstance(context));
+
+            context.inject(instance);
+            this.dispatch(type, (s, a) -> s.onConstruct(a, instance));
+            return instance;
+        }
+
+        long start = System.nanoTime();
+        this.dispatch(type, (s, a) -> s.onPreConstruct(a, type));
+        this.metrics.onPreConstructScan(type, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        C instance = type.cast(plan.newInstance(context));
+        this.metrics.onInstantiate(type, System.nanoTime() - start);
+
+        context.inject(instance);
+
+        start = System.nanoTime();
+        this.dispatch(type, (s, a) -> s.onConstruct(a, instance));
+        this.metrics.onConstructScan(type, System.nanoTime() - start);
+        return instance;
+    }
+
+    /**
+     * Executes a construction unless another thread is already executing a construction for the
+     * same key in which case the result of the in-flight construction is awaited instead.<br>
+     * <br>
+     * Only threads which request the same key are blocked while constructions of unrelated keys
+     * proceed concurrently. The in-flight construction is discarded once it completes and thus
+     * its supplier is expected to check for previously stored results. Waits which would close a
+     * cycle between the constructions of multiple threads are rejected (see {@link
+     * Construction}).
+     *
+     * @param constructions a map of in-flight constructions.
+     * @param key           a key.
+     * @param supplier      a supplier which executes the construction.
+     * @return the constructed instance.
+     *
+     * @throws InjectionException when a construction (transitively) requires its own result or
+     *                            fails.
+     */
+    @Nonnull
+    private Object constructOnce(@Nonnull ConcurrentMap<Key<?>, Construction> constructions, @Nonnull Key<?> key, @Nonnull Supplier<Object> supplier) {
+        Construction construction = new Construction();
+        Construction existing = constructions.putIfAbsent(key, construction);
+
+        if (existing != null) {
+            long start = this.measured ? System.nanoTime() : 0;
+
+            try {
+                return existing.await(key);
+            } finally {
+                if (this.measured) {
+                    this.metrics.onLockWait(key, System.nanoTime() - start);
+                }
+            }
+        }
+
+        try {
+            Object instance = supplier.get();
+            construction.complete(instance);
+            return instance;
+        } catch (RuntimeException | Error ex) {
+            construction.fail(ex);
+            throw ex;
+        } finally {
+            constructions.remove(key, construction);
+        }
+    }
+
+    /**
+     * Notifies all component type scanners which have been declared on a certain type through an
+     * annotation.
+     *
+     * @param type   a component type.
+     * @param action an action which is executed for every scanner and its respective annotation.
+     */
+    private void dispatch(@Nonnull Class<?> type, @Nonnull BiConsumer<ComponentTypeScanner<Annotation, Object>, Annotation> action) {
+        for (Annotation annotation : type.getAnnotations()) {
+            ComponentType componentType = annotation.annotationType().getAnnotation(ComponentType.class);
+
+            if (componentType == null) {
+                continue;
+            }
+
+            if (!componentType.type().isAssignableFrom(type)) {
+                throw new InjectionException("Component " + type.getName() + " does not implement " + componentType.type().getName() + " as required by @" + annotation.annotationType().getName());
+            }
+
+            action.accept(this.getScanner(componentType.scanner()), annotation);
+        }
+    }
+
+    /**
+     * Dispatches a destruction batch on the calling thread.
+     *
+     * @param batch    a batch.
+     * @param failures a list to which a failed notification is added.
+     */
+    private void dispatch(@Nonnull DestructionBatch batch, @Nonnull List<Throwable> failures) {
+        try {
+            batch.dispatch();
+        } catch (RuntimeException | Error ex) {
+            failures.add(ex);
+        }
+    }
+
+    /**
+     * Cancels the expiration of an instance which has been removed or replaced.
+     *
+     * @param expiration an expiration.
+     */
+    private void cancel(@Nullable Expiration expiration) {
+        if (expiration == null) {
+            return;
+        }
+
+        expiration.release();
+        LocalState state = this.state;
+
+        if (expiration.isTimed() && state != null && state.wheel != null) {
+            state.lifecycleLock.lock();
+
+            try {
+                state.wheel.deschedule(expiration);
+            } finally {
+                state.lifecycleLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Notifies all component type scanners of the destruction of a previously stored instance.
+     *
+     * @param instance an instance.
+     */
+    private void destroy(@Nonnull Object instance) {
+        Class<?> type = instance.getClass();
+
+        this.dispatch(type, (s, a) -> {
+            s.onDestruct(a, instance);
+            s.onPostDestruct(a, type);
+        });
+    }
+
+    /**
+     * Notifies the scanners of a set of independent instances of their destruction.<br>
+     * <br>
+     * Instances are grouped by scanner. The batches of all but one scanner are dispatched using
+     * the supplied executor while the remaining batch is dispatched on the calling thread.
+     *
+     * @param instances a list of instances.
+     * @param executor  an executor to notify scanners on.
+     * @param failures  a list to which failed notifications are added.
+     */
+    private void destroy(@Nonnull List<Object> instances, @Nonnull Executor executor, @Nonnull List<Throwable> failures) {
+        Map<ComponentTypeScanner<Annotation, Object>, DestructionBatch> batches = new LinkedHashMap<>();
+
+        for (Object instance : instances) {
+            try {
+                this.dispatch(instance.getClass(), (s, a) -> batches.computeIfAbsent(s, DestructionBatch::new).add(a, instance));
+            } catch (RuntimeException ex) {
+                failures.add(ex);
+            }
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        DestructionBatch local = null;
+
+        for (DestructionBatch batch : batches.values()) {
+            if (local == null) {
+                local = batch;
+                continue;
+            }
+
+            try {
+                futures.add(CompletableFuture.runAsync(batch::dispatch, executor));
+            } catch (RejectedExecutionException ex) {
+                this.dispatch(batch, failures);
+            }
+        }
+
+        if (local != null) {
+            this.dispatch(local, failures);
+        }
+
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException ex) {
+                failures.add(ex.getCause() != null ? ex.getCause() : ex);
+            }
+        }
+    }
+
+    /**
+     * Removes the instance stored with a certain key when it matches the supplied filter and notifies
+     * the responsible scanners of its destruction.
+     *
+     * @param key             a key.
+     * @param filterPredicate a filter predicate which accepts the stored instance.
+     */
+    private void evict(@Nonnull Key<?> key, @Nonnull Predicate<Object> filterPredicate) {
+        Object instance = this.detach(key, filterPredicate);
+
+        if (instance != null) {
+            this.destroy(instance);
+        }
+    }
+
+    /**
+     * Removes the instance of a certain key from this context (provided that it matches a filter)
+     * without notifying its scanners.
+     *
+     * @param key             a key.
+     * @param filterPredicate a filter which decides whether the instance is to be removed.
+     * @return the removed instance or, if no instance has been removed, null.
+     */
+    @Nullable
+    private Object detach(@Nonnull Key<?> key, @Nonnull Predicate<Object> filterPredicate) {
+        return this.detach(key, filterPredicate, new Entry[1]);
+    }
+
+    /**
+     * Removes the instance of a certain key from this context (provided that it matches a filter)
+     * without notifying its scanners.
+     *
+     * @param key             a key.
+     * @param filterPredicate a filter which decides whether the instance is to be removed.
+     * @param removed         an array to which the removed entry is written.
+     * @return the removed instance or, if no instance has been removed, null.
+     */
+    @Nullable
+    private Object detach(@Nonnull Key<?> key, @Nonnull Predicate<Object> filterPredicate, @Nonnull Entry[] removed) {
+        Entry entry = this.getEntry(key);
+
+        Object instance = entry != null ? entry.getInstance() : null;
+
+        if (instance == null || !filterPredicate.test(instance)) {
+            return null;
+        }
+
+        this.updateIfPresent(key, (k, e) -> {
+            if (e.getInstance() != instance) {
+                return e;
+            }
+
+            removed[0] = e;
+            return e.withoutInstance().orNull();
+        });
+
+        if (removed[0] == null) {
+            return null;
+        }
+
+        this.cancel(removed[0].expiration);
+        return instance;
+    }
+
+    /**
+     * Removes the instance tracked by an expiration (if it has not been removed or replaced in the
+     * meantime) and notifies the responsible scanners of its destruction.<br>
+     * <br>
+     * When the instance has already been reclaimed by the garbage collector, only its
+     * post-destruction is reported as the instance itself is no longer available.
+     *
+     * @param expiration an expiration.
+     */
+    private void expire(@Nonnull Expiration expiration) {
+        Entry[] removed = new Entry[1];
+
+        this.updateIfPresent(expiration.getKey(), (k, e) -> {
+            if (e.expiration != expiration) {
+                return e;
+            }
+
+            removed[0] = e;
+            return e.withoutInstance().orNull();
+        });
+
+        if (removed[0] != null) {
+            Object instance = removed[0].getInstance();
+            this.cancel(expiration);
+
+            if (instance != null) {
+                this.destroy(instance);
+            } else {
+                this.dispatch(expiration.getType(), (s, a) -> s.onPostDestruct(a, expiration.getType()));
+            }
+        }
+    }
+
+    /**
+     * Marks this context as acquired from a {@link ContextPool}.
+     */
+    void markAcquired() {
+        this.released = 0;
+    }
+
+    /**
+     * Marks this context as released into a {@link ContextPool}.
+     *
+     * @return true if marked, false if this context has already been released.
+     */
+    boolean markReleased() {
+        return RELEASED.compareAndSet(this, 0, 1);
+    }
+
+    /**
+     * Resets this context to its initial state in order to permit its re-use by a {@link
+     * ContextPool}.<br>
+     * <br>
+     * All instances are removed (and their responsible scanners notified of their destruction)
+     * while bindings, definitions and all lazily allocated state are discarded. Cached resolutions
+     * only depend on the parent hierarchy and are thus retained for the next user of the context.
+     */
+    void recycle() {
+        this.clear();
+        this.storage = null;
+        this.state = null;
+        this.filter = null;
+        VERSION.incrementAndGet(this);
+    }
+
+    /**
+     * Initializes an eager component definition and stores the resulting instance within this
+     * context.
+     *
+     * @param definition    a definition.
+     * @param prerequisites the keys of all eager definitions which have been initialized prior to
+     *                      this definition due to its dependencies.
+     * @throws InjectionException when the component cannot be constructed.
+     */
+    void initializeEagerly(@Nonnull ComponentDefinition<?> definition, @Nonnull Set<Key<?>> prerequisites) {
+        Key<?> key = new Key<>(definition.getType(), definition.getQualifier());
+
+        if (!this.measured) {
+            this.initializeEagerly(key, definition);
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            this.initializeEagerly(key, definition);
+        } finally {
+            this.metrics.onInitialize(key, prerequisites, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Initializes an eager component definition without reporting the initialization to the
+     * metrics listener (e.g. the actual implementation of {@link #initializeEagerly(
+     * ComponentDefinition, Set)}).
+     *
+     * @param key        the key of the definition.
+     * @param definition a definition.
+     * @throws InjectionException when the component cannot be constructed.
+     */
+    private void initializeEagerly(@Nonnull Key<?> key, @Nonnull ComponentDefinition<?> definition) {
+        if (!this.matchesConstraints(key, definition)) {
+            return;
+        }
+
+        Object instance = this.getOrNull(key);
+
+        if (instance == null) {
+            throw new InjectionException("Cannot initialize eager component " + key);
+        }
+
+        this.update(key, (k, e) -> {
+            Entry entry = Entry.of(e);
+            return entry.instance != null ? entry : entry.withInstance(instance, this.nextInstanceSequence(), null);
+        });
+    }
+
+    /**
+     * Evaluates the constraints of a definition and reports the evaluation to the metrics
+     * listener.
+     *
+     * @param key        the key of the definition.
+     * @param definition a definition.
+     * @return true if the definition matches its constraints, false otherwise.
+     */
+    private boolean matchesConstraints(@Nonnull Key<?> key, @Nonnull ComponentDefinition<?> definition) {
+        if (!this.measured) {
+            return definition.matchesConstraints();
+        }
+
+        long start = System.nanoTime();
+        boolean matched = definition.matchesConstraints();
+        this.metrics.onEvaluateConstraints(key, matched, System.nanoTime() - start);
+        return matched;
+    }
+
+    /**
+     * Locates the constructor which is to be used when constructing instances of a certain type.
+     *
+     * @param type a type.
+     * @return a constructor or, if the type cannot be constructed, null.
+     *
+     * @throws InjectionException when more than one constructor has been annotated with {@link
+     *                            Inject}.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static <C> Constructor<C> findConstructor(@Nonnull Class<C> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+
+        if (type.isMemberClass() && !Modifier.isStatic(type.getModifiers())) {
+            return null;
+        }
+
+        Constructor<C> candidate = null;
+
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(Inject.class)) {
+                if (candidate != null && candidate.isAnnotationPresent(Inject.class)) {
+                    throw new InjectionException("Type " + type.getName() + " declares more than one constructor annotated with @Inject");
+                }
+
+                candidate = (Constructor<C>) constructor;
+            } else if (candidate == null && constructor.getParameterCount() == 0) {
+                candidate = (Constructor<C>) constructor;
+            }
+        }
+
+        return candidate;
+    }
+
+    /**
+     * Retrieves the type which will be constructed in order to produce an instance for a certain
+     * key (e.g. a bound implementation or provider type or the type itself).
+     *
+     * @param key a key.
+     * @return an implementation or provider type.
+     */
+    @Nonnull
+    Class<?> getImplementation(@Nonnull Key<?> key) {
+        Entry entry = this.lookup(key);
+
+        if (entry == null && this.parent != null) {
+            entry = this.resolveAncestors(key).entry;
+        }
+
+        if (entry != null && entry.providerBinding != null) {
+            return entry.providerBinding;
+        }
+
+        if (entry != null && entry.binding != null) {
+            return entry.binding;
+        }
+
+        ProvidedBy providedBy = key.getType().getAnnotation(ProvidedBy.class);
+        return providedBy != null ? providedBy.value() : key.getType();
+    }
+
+    /**
+     * Retrieves (and, if necessary, constructs) the provider which has been bound to a certain
+     * entry.
+     *
+     * @param key   a key.
+     * @param entry an entry with a provider binding.
+     * @return a provider.
+     */
+    @Nonnull
+    private Provider<?> getBoundProvider(@Nonnull Key<?> key, @Nonnull Entry entry) {
+        Provider<?> provider = entry.provider;
+
+        if (provider != null) {
+            return provider;
+        }
+
+        Class<? extends Provider<?>> providerBinding = entry.providerBinding;
+
+        return (Provider<?>) this.constructOnce(this.state().providerConstructions, key, () -> {
+            Entry current = this.getEntry(key);
+
+            if (current != null && current.providerBinding == providerBinding && current.provider != null) {
+                return current.provider;
+            }
+
+            Provider<?> constructed = this.construct(providerBinding);
+            Entry updated = this.updateIfPresent(key, (k, e) -> e.providerBinding == providerBinding && e.provider == null ? e.withProvider(constructed) : e);
+
+            if (updated != null && updated.providerBinding == providerBinding && updated.provider != null) {
+                return updated.provider;
+            }
+
+            return constructed;
+        });
+    }
+
+    /**
+     * Retrieves the keys of all components which have been registered for a certain type within
+     * this context or one of its parents.<br>
+     * <br>
+     * Keys are ordered by the priority of their respective definitions (in descending order) while
+     * keys of the same priority retain the order of their contexts (starting with this context).
+     * Keys which are registered with multiple contexts are only included once.
+     *
+     * @param type a type.
+     * @return an array of keys.
+     */
+    @Nonnull
+    Key<?>[] getAllKeys(@Nonnull Class<?> type) {
+        Storage storage = this.storage;
+
+        if (storage == null) {
+            return this.parent instanceof ConcurrentContext ? ((ConcurrentContext) this.parent).getAllKeys(type) : new Key<?>[0];
+        }
+
+        long version = this.version + this.getAncestorVersion();
+        ConcurrentMap<Class<?>, IndexedKeys> cache = storage.indexedKeys;
+        IndexedKeys indexedKeys = cache.get(type);
+
+        if (indexedKeys != null && indexedKeys.version == version) {
+            return indexedKeys.keys;
+        }
+
+        Map<Key<?>, Integer> orders = new LinkedHashMap<>();
+        Context current = this;
+
+        while (current instanceof ConcurrentContext) {
+            ConcurrentContext context = (ConcurrentContext) current;
+            LocalState state = context.state;
+
+            for (Key<?> key : context.getLocalKeys(type)) {
+                if (!orders.containsKey(key)) {
+                    ComponentDefinition<?> definition = state != null ? state.definitions.get(key) : null;
+                    orders.put(key, definition != null ? definition.getOrder() : 0);
+                }
+            }
+
+            current = context.parent;
+        }
+
+        List<Key<?>> keys = new ArrayList<>(orders.keySet());
+        keys.sort((a, b) -> Integer.compare(orders.get(b), orders.get(a)));
+
+        indexedKeys = new IndexedKeys(version, keys.toArray(new Key<?>[keys.size()]));
+        cache.put(type, indexedKeys);
+        return indexedKeys.keys;
+    }
+
+    /**
+     * Retrieves the sum of all modification counters within the parent hierarchy of this context.
+     *
+     * Since all counters are strictly increasing, this value changes whenever one of the parent
+     * contexts is modified.
+     *
+     * @return a version.
+     */
+    private long getAncestorVersion() {
+        long version = 0;
+        Context current = this.parent;
+
+        while (current instanceof ConcurrentContext) {
+            ConcurrentContext context = (ConcurrentContext) current;
+
+            version += context.version;
+            current = context.parent;
+        }
+
+        return version;
+    }
+
+    /**
+     * Retrieves or produces the instance represented by an entry within this context.<br>
+     * <br>
+     * When the entry refers to an instance which has been reclaimed by the garbage collector, the
+     * entry is expired immediately and the key is resolved again.
+     *
+     * @param key   a key.
+     * @param entry an entry.
+     * @return an instance or, if the key cannot be resolved after its instance has been reclaimed,
+     * null.
+     */
+    @Nullable
+    private <T> T getInstance(@Nonnull Key<T> key, @Nonnull Entry entry) {
+        Object instance = entry.getInstance();
+
+        if (instance != null) {
+            if (entry.expiration != null) {
+                entry.expiration.touch();
+            }
+
+            return key.getType().cast(instance);
+        }
+
+        if (entry.expiration != null && entry.expiration.isReclaimable()) {
+            this.expire(entry.expiration);
+            return this.getOrNull(key);
+        }
+
+        if (entry.providerBinding != null) {
+            return key.getType().cast(this.provide(key, this.getBoundProvider(key, entry)));
+        }
+
+        return this.produce(key, entry.binding);
+    }
+
+    /**
+     * Retrieves a provider for the instance represented by an entry within this context.
+     *
+     * @param key   a key.
+     * @param entry an entry.
+     * @return a provider.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private <C> Provider<C> getProvider(@Nonnull Key<C> key, @Nonnull Entry entry) {
+        if (entry.providerBinding != null) {
+            return (Provider<C>) this.getBoundProvider(key, entry);
+        }
+
+        return new ContextProvider<>(this, key);
+    }
+
+    /**
+     * Retrieves (or constructs) the instance of a component type scanner.<br>
+     * <br>
+     * Scanners are only ever passed the annotation they have been declared by as well as
+     * components which have been verified to implement the type required by the annotation.
+     *
+     * @param type a scanner type.
+     * @return a scanner.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private ComponentTypeScanner<Annotation, Object> getScanner(@Nonnull Class<?> type) {
+        ConcurrentMap<Class<?>, ComponentTypeScanner<Annotation, Object>> scanners = this.state().scanners;
+        ComponentTypeScanner<Annotation, Object> scanner = scanners.get(type);
+
+        if (scanner != null) {
+            return scanner;
+        }
+
+        ComponentTypeScanner<Annotation, Object> constructed = (ComponentTypeScanner<Annotation, Object>) this.get(type).orElseThrow(() -> new InjectionException("Cannot resolve component type scanner " + type.getName()));
+        scanner = scanners.putIfAbsent(type, constructed);
+        return scanner != null ? scanner : constructed;
+    }
+
+    /**
+     * Checks whether instances of a certain type can be constructed (either through a generated
+     * factory or a viable constructor).
+     *
+     * @param type a type.
+     * @return true if constructible, false otherwise.
+     */
+    static boolean isConstructible(@Nonnull Class<?> type) {
+        return ConstructionPlan.of(type).isConstructible();
+    }
+
+    /**
+     * Loads a type which has been referenced by the component index without initializing it.
+     *
+     * @param name        a binary type name.
+     * @param classLoader a class loader.
+     * @return a type.
+     *
+     * @throws InjectionException when the type cannot be located.
+     */
+    @Nonnull
+    private static Class<?> loadIndexedType(@Nonnull String name, @Nonnull ClassLoader classLoader) {
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException ex) {
+            throw new InjectionException("Cannot load indexed type " + name, ex);
+        }
+    }
+
+    /**
+     * Checks whether a key may be present within this context without accessing its entries.<br>
+     * <br>
+     * Filters are only ever rebuilt by writers (see {@link #advance(KeyFilter)}). While the
+     * filter of this context is outdated (or has yet to be built), the key is assumed to be
+     * present.
+     *
+     * @param key a key.
+     * @return true if the key may be present, false if it is definitely absent.
+     */
+    private boolean mayContain(@Nonnull Key<?> key) {
+        KeyFilter filter = this.filter;
+        return filter == null || filter.getVersion() != this.version || filter.mightContain(key);
+    }
+
+    /**
+     * Retrieves the entry of a certain key within this context.<br>
+     * <br>
+     * Lookups which overlap with the application of a batch are repeated once the batch has been
+     * fully applied in order to guarantee that readers never observe partially applied batches.
+     * All other lookups do not acquire any locks.
+     *
+     * @param key a key.
+     * @return an entry or, if no entry exists, null.
+     */
+    @Nullable
+    private Entry lookup(@Nonnull Key<?> key) {
+        long sequence = this.batchSequence;
+        Entry entry = this.getEntry(key);
+
+        if ((sequence & 1) == 0 && sequence == this.batchSequence) {
+            return entry;
+        }
+
+        // batches are only ever applied while holding the lock of the (thus allocated) state
+        long start = this.measured ? System.nanoTime() : 0;
+        ReentrantLock batchLock = this.state.batchLock;
+        batchLock.lock();
+
+        try {
+            if (this.measured) {
+                this.metrics.onLockWait(key, System.nanoTime() - start);
+            }
+
+            return this.getEntry(key);
+        } finally {
+            batchLock.unlock();
+        }
+    }
+
+    /**
+     * Produces an instance of a bound implementation and stores it in the context when the
+     * implementation has been marked as a singleton.<br>
+     * <br>
+     * Singletons are constructed at most once per context even when they are requested by multiple
+     * threads at the same time (see {@link #constructOnce(ConcurrentMap, Key, Supplier)}).
+     *
+     * @param key            a key.
+     * @param implementation an implementation type.
+     * @return an instance.
+     */
+    @Nonnull
+    private <T> T produce(@Nonnull Key<T> key, @Nonnull Class<?> implementation) {
+        Class<T> type = key.getType();
+
+        if (!implementation.isAnnotationPresent(Singleton.class)) {
+            return type.cast(this.construct(implementation));
+        }
+
+        return type.cast(this.constructOnce(this.state().constructions, key, () -> {
+            Entry current = this.getEntry(key);
+
+            Object existing = current != null ? current.getInstance() : null;
+
+            if (existing != null) {
+                return existing;
+            }
+
+            Object instance = type.cast(this.construct(implementation));
+            Key<?>[] dependencies = this.getDependencyKeys(implementation);
+
+            return this.update(key, (k, e) -> {
+                Entry entry = Entry.of(e);
+                return entry.getInstance() != null ? entry : entry.withInstance(instance, this.nextInstanceSequence(), dependencies);
+            }).getInstance();
+        }));
+    }
+
+    /**
+     * Retrieves the keys of the non-deferred dependencies which are passed to an implementation
+     * upon construction within this context.
+     *
+     * @param implementation an implementation type.
+     * @return an array of keys.
+     */
+    @Nonnull
+    private Key<?>[] getDependencyKeys(@Nonnull Class<?> implementation) {
+        return ConstructionPlan.of(implementation).getDependencies().stream()
+                .filter((d) -> !d.isDeferred())
+                .map((d) -> d.getKey(this))
+                .distinct()
+                .toArray(Key<?>[]::new);
+    }
+
+    /**
+     * Allocates the position of a newly stored instance within the construction order of this
+     * context.
+     *
+     * @return a sequence number.
+     */
+    private long nextInstanceSequence() {
+        return INSTANCE_SEQUENCE.incrementAndGet(this);
+    }
+
+    /**
+     * Produces an instance of a type which has not been explicitly bound.
+     *
+     * @param key a key.
+     * @return an instance or, if the type cannot be produced, null.
+     */
+    @Nullable
+    private <T> T produceImplicitly(@Nonnull Key<T> key) {
+        Class<T> type = key.getType();
+        ProvidedBy providedBy = type.getAnnotation(ProvidedBy.class);
+
+        if (providedBy != null) {
+            Class<?> implementation = providedBy.value();
+
+            if (Provider.class.isAssignableFrom(implementation)) {
+                Provider<?> provider = (Provider<?>) this.get(implementation).orElseThrow(() -> new InjectionException("Cannot resolve provider " + implementation.getName()));
+                return type.cast(this.provide(key, provider));
+            }
+
+            return this.produce(key, implementation);
+        }
+
+        if (!isConstructible(type)) {
+            return null;
+        }
+
+        return this.produce(key, type);
+    }
+
+    /**
+     * Retrieves an instance from a provider and reports the time spent within the provider to the
+     * metrics listener.
+     *
+     * @param key      the key which is being resolved.
+     * @param provider a provider.
+     * @return an instance.
+     */
+    private Object provide(@Nonnull Key<?> key, @Nonnull Provider<?> provider) {
+        if (!this.measured) {
+            return provider.get();
+        }
+
+        long start = System.nanoTime();
+        Object instance = provider.get();
+        this.metrics.onProvide(key, provider.getClass(), System.nanoTime() - start);
+        return instance;
+    }
+
+    /**
+     * Resolves a key on an executor once the singletons and providers which its implementation
+     * depends on have been resolved in parallel.<br>
+     * <br>
+     * Concurrent requests for the same key share a single future which is discarded once the
+     * resolution completes.
+     *
+     * @param resolutions the futures of all resolutions which are currently in progress.
+     * @param key         a key.
+     * @param executor    an executor to resolve the key and its dependencies on.
+     * @param verify      true if the dependency graph of the key is to be checked for cycles
+     *                    prior to its resolution, false otherwise.
+     * @param resolver    a function which resolves the key once its dependencies are available.
+     * @return a future.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private <R> CompletableFuture<R> resolveAsync(@Nonnull ConcurrentMap<Key<?>, CompletableFuture<?>> resolutions, @Nonnull Key<?> key, @Nonnull Executor executor, boolean verify, @Nonnull Supplier<R> resolver) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        CompletableFuture<?> existing = resolutions.putIfAbsent(key, future);
+
+        if (existing != null) {
+            return (CompletableFuture<R>) existing;
+        }
+
+        try {
+            CompletableFuture.supplyAsync(() -> {
+                if (verify) {
+                    this.verify(key, null, Collections.emptyMap(), new LinkedHashSet<>(), new HashSet<>(), null);
+                }
+
+                List<CompletableFuture<?>> prerequisites = new ArrayList<>();
+                this.collectPrerequisites(this.getImplementation(key), executor, prerequisites, new HashSet<>());
+                return CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture<?>[prerequisites.size()]));
+            }, executor)
+                    .thenCompose((p) -> p)
+                    .thenApplyAsync((v) -> resolver.get(), executor)
+                    .whenComplete((r, ex) -> {
+                        resolutions.remove(key, future);
+
+                        if (ex != null) {
+                            future.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                        } else {
+                            future.complete(r);
+                        }
+                    });
+        } catch (RuntimeException ex) {
+            resolutions.remove(key, future);
+            future.completeExceptionally(ex);
+        }
+
+        return future;
+    }
+
+    /**
+     * Collects the asynchronous resolutions of all singletons and providers which a type depends
+     * on either directly or through one of its other (non-deferred) dependencies.
+     *
+     * @param type          a type.
+     * @param executor      an executor to resolve the dependencies on.
+     * @param prerequisites a list to which the resolutions are added.
+     * @param visited       a set of already visited types.
+     */
+    private void collectPrerequisites(@Nonnull Class<?> type, @Nonnull Executor executor, @Nonnull List<CompletableFuture<?>> prerequisites, @Nonnull Set<Class<?>> visited) {
+        if (!visited.add(type)) {
+            return;
+        }
+
+        for (Dependency dependency : ConstructionPlan.of(type).getDependencies()) {
+            if (dependency.isDeferred()) {
+                continue;
+            }
+
+            Key<?> key = dependency.getKey(this);
+
+            if (this.hasInstance(key)) {
+                continue;
+            }
+
+            Class<?> implementation = this.getImplementation(key);
+
+            if (Provider.class.isAssignableFrom(implementation)) {
+                prerequisites.add(this.resolveAsync(this.state().asyncProviderResolutions, key, executor, false, () -> this.getProvider(key)));
+            } else if (implementation.isAnnotationPresent(Singleton.class)) {
+                prerequisites.add(this.resolveAsync(this.state().asyncResolutions, key, executor, false, () -> this.get(key)));
+            } else {
+                this.collectPrerequisites(implementation, executor, prerequisites, visited);
+            }
+        }
+    }
+
+    /**
+     * Resolves a key within the parent hierarchy of this context.
+     *
+     * Resolutions are cached until one of the parent contexts is modified and thus permit repeated
+     * lookups of the same key without walking the entire hierarchy.
+     *
+     * @param key a key.
+     * @return a resolution.
+     */
+    @Nonnull
+    private Resolution resolveAncestors(@Nonnull Key<?> key) {
+        long version = this.getAncestorVersion();
+        ConcurrentMap<Key<?>, Resolution> resolutions = this.resolutions;
+        Resolution resolution = resolutions != null ? resolutions.get(key) : null;
+
+        if (resolution != null && resolution.version == version) {
+            if (this.measured) {
+                this.metrics.onResolution(key, 0, true);
+            }
+
+            return resolution;
+        }
+
+        resolution = new Resolution(version, key, this.parent);
+
+        // the cache is published without synchronization as losing a concurrently allocated cache
+        // merely discards the resolutions which have been cached in the meantime
+        if (resolutions == null) {
+            resolutions = new ConcurrentHashMap<>();
+            this.resolutions = resolutions;
+        }
+
+        resolutions.put(key, resolution);
+
+        if (this.measured) {
+            this.metrics.onResolution(key, resolution.hops, false);
+        }
+
+        return resolution;
+    }
+
+    /**
+     * Retrieves the entry of a certain key without considering batches which are currently being
+     * applied.
+     *
+     * @param key a key.
+     * @return an entry or, if no entry exists, null.
+     */
+    @Nullable
+    private Entry getEntry(@Nonnull Key<?> key) {
+        Storage storage = this.storage;
+        return storage != null ? storage.entries.get(key) : null;
+    }
+
+    /**
+     * Retrieves all entries which are stored within this context.
+     *
+     * @return a map of keys and entries.
+     */
+    @Nonnull
+    private Map<Key<?>, Entry> getLocalEntries() {
+        Storage storage = this.storage;
+        return storage != null ? storage.entries : Collections.emptyMap();
+    }
+
+    /**
+     * Retrieves the keys of all entries which are stored within this context.
+     *
+     * @return a set of keys.
+     */
+    @Nonnull
+    private Set<Key<?>> getLocalKeys() {
+        Storage storage = this.storage;
+        return storage != null ? storage.entries.keySet() : Collections.emptySet();
+    }
+
+    /**
+     * Retrieves the keys of all entries which are stored for a certain type within this context.
+     *
+     * @param type a type.
+     * @return a set of keys.
+     */
+    @Nonnull
+    private Set<Key<?>> getLocalKeys(@Nonnull Class<?> type) {
+        Storage storage = this.storage;
+        return storage != null ? storage.types.getKeys(type) : Collections.emptySet();
+    }
+
+    /**
+     * Retrieves the lazily allocated storage of this context.
+     *
+     * @return a storage.
+     */
+    @Nonnull
+    private Storage storage() {
+        Storage storage = this.storage;
+
+        if (storage == null) {
+            STORAGE.compareAndSet(this, null, new Storage());
+            storage = this.storage;
+        }
+
+        return storage;
+    }
+
+    /**
+     * Retrieves the lazily allocated state of this context.
+     *
+     * @return a state.
+     */
+    @Nonnull
+    private LocalState state() {
+        LocalState state = this.state;
+
+        if (state == null) {
+            STATE.compareAndSet(this, null, new LocalState());
+            state = this.state;
+        }
+
+        return state;
+    }
+
+    /**
+     * Stores an instance within this context and notifies all responsible scanners of the
+     * destruction of a replaced instance.
+     *
+     * @param key       a key.
+     * @param instance  an instance.
+     * @param lifecycle a lifecycle.
+     */
+    private void store(@Nonnull Key<?> key, @Nonnull Object instance, @Nonnull Lifecycle lifecycle) {
+        if (!key.getType().isInstance(instance)) {
+            throw new IllegalArgumentException("Instance of type " + instance.getClass().getName() + " is not compatible with " + key.getType().getName());
+        }
+
+        LocalState state = lifecycle != Lifecycle.PERMANENT ? this.state() : null;
+        Expiration expiration = state != null ? new Expiration(key, instance, lifecycle, state.owners, System.nanoTime()) : null;
+        Entry[] previous = new Entry[1];
+
+        this.update(key, (k, e) -> {
+            Entry entry = Entry.of(e);
+            previous[0] = entry;
+            return entry.withInstance(expiration != null && expiration.isReclaimable() ? null : instance, expiration, this.nextInstanceSequence(), null);
+        });
+
+        Object replaced = previous[0].getInstance();
+        this.cancel(previous[0].expiration);
+
+        if (expiration != null && expiration.isTimed()) {
+            state.lifecycleLock.lock();
+
+            try {
+                if (state.wheel == null) {
+                    state.wheel = new TimerWheel(System.nanoTime());
+                }
+
+                state.wheel.schedule(expiration);
+            } finally {
+                state.lifecycleLock.unlock();
+            }
+        }
+
+        if (replaced != null && replaced != instance) {
+            this.destroy(replaced);
+        }
+    }
+
+    /**
+     * Updates the type index based on the previous and new entry of a key.
+     *
+     * This method is expected to be invoked from within a compute function in order to ensure that
+     * updates of the index are ordered in the same way as the updates of the entry itself.
+     *
+     * @param storage  the storage which contains the entry.
+     * @param key      a key.
+     * @param previous the previous entry.
+     * @param entry    the new entry.
+     * @return the new entry.
+     */
+    @Nullable
+    private Entry index(@Nonnull Storage storage, @Nonnull Key<?> key, @Nullable Entry previous, @Nullable Entry entry) {
+        storage.types.update(key, previous != null, entry != null);
+        return entry;
+    }
+
+    /**
+     * Replaces the entry of a certain key and marks the context as modified.
+     *
+     * @param key      a key.
+     * @param function a function which computes the new entry based on the current entry.
+     * @return the new entry.
+     */
+    @Nullable
+    private Entry update(@Nonnull Key<?> key, @Nonnull BiFunction<Key<?>, Entry, Entry> function) {
+        Storage storage = this.storage();
+        KeyFilter filter = this.track(Collections.singleton(key));
+        Entry entry = storage.entries.compute(key, (k, e) -> this.index(storage, k, e, function.apply(k, e)));
+        this.advance(filter);
+        return entry;
+    }
+
+    /**
+     * Replaces the entry of a certain key (if present) and marks the context as modified.
+     *
+     * @param key      a key.
+     * @param function a function which computes the new entry based on the current entry.
+     * @return the new entry.
+     */
+    @Nullable
+    private Entry updateIfPresent(@Nonnull Key<?> key, @Nonnull BiFunction<Key<?>, Entry, Entry> function) {
+        Storage storage = this.storage;
+
+        if (storage == null) {
+            return null;
+        }
+
+        KeyFilter filter = this.track(Collections.singleton(key));
+        Entry entry = storage.entries.computeIfPresent(key, (k, e) -> this.index(storage, k, e, function.apply(k, e)));
+        this.advance(filter);
+        return entry;
+    }
+
+    /**
+     * Adds a set of keys which are about to be modified to the filter of this context.
+     *
+     * @param keys a set of keys.
+     * @return the filter to advance once the modification has completed or, if the filter of this
+     * context is outdated or has exceeded its capacity, null.
+     */
+    @Nullable
+    private KeyFilter track(@Nonnull Collection<Key<?>> keys) {
+        KeyFilter filter = this.filter;
+
+        if (filter == null) {
+            return null;
+        }
+
+        boolean tracked = true;
+
+        for (Key<?> key : keys) {
+            tracked &= filter.add(key);
+        }
+
+        return tracked ? filter : null;
+    }
+
+    /**
+     * Marks this context as modified and advances its filter when it reflected the state of the
+     * context prior to the modification. Otherwise, the filter is rebuilt from the current set of
+     * keys.
+     *
+     * @param filter a filter as returned by {@link #track(Collection)}.
+     */
+    private void advance(@Nullable KeyFilter filter) {
+        long version = VERSION.incrementAndGet(this);
+
+        if (filter == null || !filter.advance(version - 1, version)) {
+            this.rebuildFilter();
+        }
+    }
+
+    /**
+     * Rebuilds and publishes the filter of this context unless another writer is already doing
+     * so.<br>
+     * <br>
+     * Writers which fail to claim the rebuild rely on the current owner to re-check the version of
+     * the context once it has published its filter. As such, the rebuild is repeated until the
+     * published filter reflects the current version or another writer claims the rebuild.
+     */
+    private void rebuildFilter() {
+        while (FILTER_REBUILDING.compareAndSet(this, 0, 1)) {
+            try {
+                long version = this.version;
+                this.filter = KeyFilter.of(version, this.getLocalKeys());
+            } finally {
+                this.filterRebuilding = 0;
+            }
+
+            if (this.filter.getVersion() == this.version) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Verifies and applies a binding while holding the batch lock in order to ensure that the
+     * binding is verified against the state it is applied to.
+     *
+     * @param key       a key.
+     * @param operation an operation which applies the binding to the entry of the key.
+     * @throws InjectionException when the binding would (directly or transitively) depend on
+     *                            itself.
+     */
+    private void bind(@Nonnull Key<?> key, @Nonnull UnaryOperator<Entry> operation) {
+        ReentrantLock batchLock = this.state().batchLock;
+        batchLock.lock();
+
+        try {
+            this.verify(Collections.singletonMap(key, operation.apply(Entry.of(this.getEntry(key)))));
+            this.update(key, (k, e) -> operation.apply(Entry.of(e)));
+        } finally {
+            batchLock.unlock();
+        }
+    }
+
+    /**
+     * Verifies that the construction plans of a set of entries which are about to be stored do
+     * not (directly or transitively) depend on themselves.
+     *
+     * @param pending a map of keys and the entries which are about to be stored for them.
+     * @throws InjectionException when one of the entries depends on itself.
+     */
+    private void verify(@Nonnull Map<Key<?>, Entry> pending) {
+        Set<Key<?>> verified = new HashSet<>();
+        pending.keySet().forEach((k) -> this.verify(k, null, pending, new LinkedHashSet<>(), verified, null));
+    }
+
+    /**
+     * Walks the construction plan of a key along with the plans of all of its non-deferred
+     * dependencies.<br>
+     * <br>
+     * The walk ends at keys which resolve to a stored instance. Keys which are resolved through a
+     * parent context are verified by the respective parent as their instances are produced
+     * without considering the bindings of this context.
+     *
+     * @param key         a key.
+     * @param requirer    the key which depends on the key or, if the key is being verified
+     *                    directly, null.
+     * @param pending     a map of keys and the entries which are about to be stored for them.
+     * @param path        the keys which are currently being visited.
+     * @param verified    the keys which have already been verified within this context.
+     * @param unsatisfied a list to which unsatisfiable dependencies are added or, if such
+     *                    dependencies are to be ignored, null.
+     * @throws InjectionException when the key depends on itself.
+     */
+    private void verify(@Nonnull Key<?> key, @Nullable Key<?> requirer, @Nonnull Map<Key<?>, Entry> pending, @Nonnull Set<Key<?>> path, @Nonnull Set<Key<?>> verified, @Nullable List<String> unsatisfied) {
+        if (verified.contains(key)) {
+            return;
+        }
+
+        if (!path.add(key)) {
+            List<Key<?>> cycle = new ArrayList<>(path);
+            throw new InjectionException("Circular dependency: " + cycle.subList(cycle.indexOf(key), cycle.size()) + " -> " + key);
+        }
+
+        Entry entry = pending.containsKey(key) ? pending.get(key) : this.lookup(key);
+
+        if (entry == null && this.parent != null) {
+            Resolution resolution = this.resolveAncestors(key);
+
+            if (resolution.owner != null) {
+                resolution.owner.verify(key, requirer, Collections.emptyMap(), new LinkedHashSet<>(), new HashSet<>(), unsatisfied);
+            } else if (resolution.delegate != null) {
+                if (unsatisfied != null && !resolution.delegate.canProduceInstance(key)) {
+                    unsatisfied.add(key + (requirer != null ? " (required by " + requirer + ")" : ""));
+                }
+            } else {
+                resolution.root.verify(key, requirer, Collections.emptyMap(), new LinkedHashSet<>(), new HashSet<>(), unsatisfied);
+            }
+        } else if (entry == null || entry.getInstance() == null) {
+            Class<?> implementation;
+
+            if (entry != null && entry.providerBinding != null) {
+                implementation = entry.providerBinding;
+            } else if (entry != null && entry.binding != null) {
+                implementation = entry.binding;
+            } else {
+                ProvidedBy providedBy = key.getType().getAnnotation(ProvidedBy.class);
+                implementation = providedBy != null ? providedBy.value() : key.getType();
+            }
+
+            ConstructionPlan plan = ConstructionPlan.of(implementation);
+
+            if (plan.isConstructible()) {
+                for (Dependency dependency : plan.getDependencies()) {
+                    if (!dependency.isDeferred()) {
+                        this.verify(dependency.getKey(this), key, pending, path, verified, unsatisfied);
+                    }
+                }
+            } else if (unsatisfied != null && this.getAssignableInstance(key) == null) {
+                unsatisfied.add(key + (requirer != null ? " (required by " + requirer + ")" : ""));
+            }
+        }
+
+        path.remove(key);
+        verified.add(key);
+    }
+
+    /**
+     * Represents the instances of a single scanner which are destructed at once.
+     */
+    private static final class DestructionBatch {
+        private final ComponentTypeScanner<Annotation, Object> scanner;
+        private final List<Annotation> annotations = new ArrayList<>();
+        private final List<Object> instances = new ArrayList<>();
+
+        private DestructionBatch(@Nonnull ComponentTypeScanner<Annotation, Object> scanner) {
+            this.scanner = scanner;
+        }
+
+        /**
+         * Appends an instance to this batch.
+         *
+         * @param annotation the annotation which caused the scanner to be notified.
+         * @param instance   an instance.
+         */
+        private void add(@Nonnull Annotation annotation, @Nonnull Object instance) {
+            this.annotations.add(annotation);
+            this.instances.add(instance);
+        }
+
+        /**
+         * Notifies the scanner of the destruction of all instances within this batch.
+         */
+        private void dispatch() {
+            this.scanner.onDestruct(this.annotations, this.instances);
+        }
+    }
+
+    /**
+     * Represents an instance which is being destructed along with the instances it depends on.
+     */
+    private static final class DestructionNode {
+        private final Object instance;
+        private final Set<Key<?>> dependencyKeys = new LinkedHashSet<>();
+        private final List<DestructionNode> dependencies = new ArrayList<>();
+        private long sequence;
+        private boolean recorded = true;
+        private boolean destructed;
+        private int dependents;
+
+        private DestructionNode(@Nonnull Object instance) {
+            this.instance = instance;
+        }
+
+        /**
+         * Merges the construction order and dependencies of an entry which referenced this
+         * instance.
+         *
+         * @param entry an entry.
+         * @return this node.
+         */
+        @Nonnull
+        private DestructionNode merge(@Nonnull Entry entry) {
+            this.sequence = Math.max(this.sequence, entry.sequence);
+
+            if (entry.dependencies != null) {
+                Collections.addAll(this.dependencyKeys, entry.dependencies);
+            } else {
+                this.recorded = false;
+            }
+
+            return this;
+        }
+    }
+
+    /**
+     * Represents the immutable state of a single key within the context.
+     *
+     * Entries are replaced as a whole whenever one of their values changes and are thus safe to
+     * read without synchronization.
+     */
+    @Immutable
+    private static final class Entry {
+        private static final Entry EMPTY = new Entry(null, null, null, null, null, 0, null);
+
+        private final Class<?> binding;
+        private final Class<? extends Provider<?>> providerBinding;
+        private final Provider<?> provider;
+        private final Object instance;
+        private final Expiration expiration;
+        private final long sequence;
+        private final Key<?>[] dependencies;
+
+        private Entry(@Nullable Class<?> binding, @Nullable Class<? extends Provider<?>> providerBinding, @Nullable Provider<?> provider, @Nullable Object instance, @Nullable Expiration expiration, long sequence, @Nullable Key<?>[] dependencies) {
+            this.binding = binding;
+            this.providerBinding = providerBinding;
+            this.provider = provider;
+            this.instance = instance;
+            this.expiration = expiration;
+            this.sequence = sequence;
+            this.dependencies = dependencies;
+        }
+
+        @Nonnull
+        private static Entry of(@Nullable Entry entry) {
+            return entry != null ? entry : EMPTY;
+        }
+
+        /**
+         * Returns this entry or, if no values remain within it, null (which causes the entry to be
+         * removed from its map).
+         */
+        @Nullable
+        private Entry orNull() {
+            return this.binding == null && this.providerBinding == null && this.instance == null && this.expiration == null ? null : this;
+        }
+
+        /**
+         * Retrieves the instance which is stored within this entry (either directly or through the
+         * reference of its expiration).
+         *
+         * @return an instance or, if no instance is stored or the instance has been reclaimed,
+         * null.
+         */
+        @Nullable
+        private Object getInstance() {
+            return this.instance == null && this.expiration != null ? this.expiration.getInstance() : this.instance;
+        }
+
+        @Nonnull
+        private Entry withBinding(@Nullable Class<?> binding) {
+            return new Entry(binding, null, null, this.instance, this.expiration, this.sequence, this.dependencies);
+        }
+
+        @Nonnull
+        @SuppressWarnings("unchecked")
+        private Entry withProviderBinding(@Nullable Class<?> providerBinding) {
+            return new Entry(providerBinding != null ? null : this.binding, (Class<? extends Provider<?>>) providerBinding, null, this.instance, this.expiration, this.sequence, this.dependencies);
+        }
+
+        @Nonnull
+        private Entry withProvider(@Nonnull Provider<?> provider) {
+            return new Entry(this.binding, this.providerBinding, provider, this.instance, this.expiration, this.sequence, this.dependencies);
+        }
+
+        @Nonnull
+        private Entry withoutInstance() {
+            return new Entry(this.binding, this.providerBinding, this.provider, null, null, 0, null);
+        }
+
+        @Nonnull
+        private Entry withInstance(@Nonnull Object instance, long sequence, @Nullable Key<?>[] dependencies) {
+            return this.withInstance(instance, null, sequence, dependencies);
+        }
+
+        /**
+         * Creates a copy of this entry which stores a certain instance.
+         *
+         * @param instance     an instance or, if the instance is solely referenced through its
+         *                     expiration, null.
+         * @param expiration   an expiration.
+         * @param sequence     the position of the instance within the construction order of the
+         *                     context.
+         * @param dependencies the keys of the non-deferred dependencies which have been passed to
+         *                     the instance upon construction or, if its dependencies are unknown,
+         *                     null.
+         * @return an entry.
+         */
+        @Nonnull
+        private Entry withInstance(@Nullable Object instance, @Nullable Expiration expiration, long sequence, @Nullable Key<?>[] dependencies) {
+            return new Entry(this.binding, this.providerBinding, this.provider, instance, expiration, sequence, dependencies);
+        }
+    }
+
+    /**
+     * Holds the entries of a context along with their indices.
+     *
+     * Storage is allocated upon the first write to a context and thus keeps contexts which only
+     * resolve components from their parents (such as most contexts within a {@link ContextPool})
+     * free of any per-key state.
+     */
+    private static final class Storage {
+        private final ConcurrentMap<Key<?>, Entry> entries = new ConcurrentHashMap<>();
+        private final TypeIndex types = new TypeIndex();
+        private final ConcurrentMap<Class<?>, IndexedKeys> indexedKeys = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Holds the state which is only required by contexts which register definitions, construct
+     * singletons, notify scanners, apply batches or track lifecycles.
+     *
+     * This state is allocated upon first use and thus keeps short-lived child contexts (which
+     * usually store a handful of instances at most) cheap to create.
+     */
+    private static final class LocalState {
+        private final ConcurrentMap<Key<?>, ComponentDefinition<?>> definitions = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Class<?>, ComponentTypeScanner<Annotation, Object>> scanners = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Key<?>, Construction> constructions = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Key<?>, Construction> providerConstructions = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Key<?>, CompletableFuture<?>> asyncResolutions = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Key<?>, CompletableFuture<?>> asyncProviderResolutions = new ConcurrentHashMap<>();
+        private final ReentrantLock batchLock = new ReentrantLock();
+        private final ReentrantLock lifecycleLock = new ReentrantLock();
+        private final ReferenceQueue<Object> owners = new ReferenceQueue<>();
+        private volatile TimerWheel wheel;
+    }
+
+    /**
+     * Records the operations of a batch in the order of their respective keys.
+     */
+    private final class RecordingBatch implements ContextBatch {
+        private final Map<Key<?>, UnaryOperator<Entry>> operations = new LinkedHashMap<>();
+
+        @Override
+        public <C> void bind(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Class<C> binding) {
+            this.record(new Key<>(base, qualifier), (e) -> e.withBinding(binding));
+        }
+
+        @Override
+        public <C> void bindProvider(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Class<Provider<C>> providerBinding) {
+            this.record(new Key<>(base, qualifier), (e) -> e.withProviderBinding(providerBinding));
+        }
+
+        @Nonnull
+        @Override
+        public String getDefaultQualifier(@Nonnull Class<?> type) {
+            return ConcurrentContext.this.getDefaultQualifier(type);
+        }
+
+        @Override
+        public <C> void setInstance(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Object instance) {
+            if (!base.isInstance(instance)) {
+                throw new IllegalArgumentException("Instance of type " + instance.getClass().getName() + " is not compatible with " + base.getName());
+            }
+
+            this.record(new Key<>(base, qualifier), (e) -> e.withInstance(instance, ConcurrentContext.this.nextInstanceSequence(), null));
+        }
+
+        /**
+         * Appends an operation to the operations which have previously been recorded for the
+         * same key.
+         *
+         * @param key       a key.
+         * @param operation an operation.
+         */
+        private void record(@Nonnull Key<?> key, @Nonnull UnaryOperator<Entry> operation) {
+            this.operations.merge(key, operation, (a, b) -> (e) -> b.apply(a.apply(e)));
+        }
+    }
+
+    /**
+     * Represents the cached set of keys which have been registered for a certain type within a
+     * context and its parents.
+     */
+    @Immutable
+    private static final class IndexedKeys {
+        private final long version;
+        private final Key<?>[] keys;
+
+        private IndexedKeys(long version, @Nonnull Key<?>[] keys) {
+            this.version = version;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * Represents the cached result of resolving a key within the parent hierarchy of a context.
+     */
+    @Immutable
+    private static final class Resolution {
+        private final long version;
+        private final ConcurrentContext owner;
+        private final Entry entry;
+        private final ConcurrentContext root;
+        private final Context delegate;
+        private final boolean instance;
+        private final boolean producible;
+        private final int hops;
+
+        private Resolution(long version, @Nonnull Key<?> key, @Nonnull Context parent) {
+            ConcurrentContext owner = null;
+            Entry entry = null;
+            boolean instance = false;
+            boolean producible = false;
+            int hops = 0;
+            Context current = parent;
+
+            while (current instanceof ConcurrentContext) {
+                ConcurrentContext context = (ConcurrentContext) current;
+                Entry e = context.mayContain(key) ? context.lookup(key) : null;
+                ++hops;
+
+                if (e != null) {
+                    if (owner == null) {
+                        owner = context;
+                        entry = e;
+                    }
+
+                    instance |= e.getInstance() != null;
+                    producible |= e.binding != null || e.providerBinding != null;
+                }
+
+                if (context.parent == null) {
+                    producible = producible || context.canProduceInstanceLocally(key);
+                    break;
+                }
+
+                current = context.parent;
+            }
+
+            this.version = version;
+            this.owner = owner;
+            this.entry = entry;
+            this.root = current instanceof ConcurrentContext ? (ConcurrentContext) current : null;
+            this.delegate = current instanceof ConcurrentContext ? null : current;
+            this.instance = instance;
+            this.producible = producible;
+            this.hops = current instanceof ConcurrentContext ? hops : hops + 1;
+        }
+    }
+
+    /**
+     * Provides a provider implementation which resolves its instances through a context.
+     */
+    @Immutable
+    private static final class ContextProvider<C> implements Provider<C> {
+        private final Context context;
+        private final Key<C> key;
+
+        private ContextProvider(@Nonnull Context context, @Nonnull Key<C> key) {
+            this.context = context;
+            this.key = key;
+        }
+
+        @Override
+        public C get() {
+            C instance = this.context.getOrNull(this.key);
+
+            if (instance == null) {
+                throw new InjectionException("Cannot resolve " + this.key);
+            }
+
+            return instance;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Represents a construction which is currently in progress on a certain thread.<br>
+ * <br>
+ * Threads which await the result of a construction owned by another thread record the
+ * construction they are waiting for. Before a thread begins to wait, the chain of owners and the
+ * constructions they are waiting for is followed in order to detect constructions which would
+ * (possibly through several other threads) wait for their own result and thus never complete.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@ThreadSafe
+final class Construction {
+    private static final ConcurrentMap<Thread, Construction> waits = new ConcurrentHashMap<>();
+
+    private final Thread owner = Thread.currentThread();
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+    /**
+     * Awaits the result of this construction.
+     *
+     * @param subject the subject of this construction (used within error messages).
+     * @return the constructed instance.
+     *
+     * @throws InjectionException when waiting would close a cycle of constructions or when the
+     *                            construction fails.
+     */
+    @Nonnull
+    Object await(@Nonnull Object subject) {
+        Thread current = Thread.currentThread();
+
+        if (this.owner == current) {
+            throw new InjectionException("Circular dependency while constructing " + subject);
+        }
+
+        waits.put(current, this);
+
+        try {
+            if (this.isWaitingFor(current)) {
+                throw new InjectionException("Circular dependency while constructing " + subject);
+            }
+
+            return this.result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+
+            throw new InjectionException("Cannot construct " + subject, ex.getCause());
+        } finally {
+            waits.remove(current, this);
+        }
+    }
+
+    /**
+     * Completes this construction and releases all waiting threads.
+     *
+     * @param instance the constructed instance.
+     */
+    void complete(@Nonnull Object instance) {
+        this.result.complete(instance);
+    }
+
+    /**
+     * Fails this construction and propagates the failure to all waiting threads.
+     *
+     * @param ex the cause of the failure.
+     */
+    void fail(@Nonnull Throwable ex) {
+        this.result.completeExceptionally(ex);
+    }
+
+    /**
+     * Checks whether the owner of this construction (transitively) waits for a construction which
+     * is owned by a certain thread.
+     *
+     * @param thread a thread.
+     * @return true if waiting, false otherwise.
+     */
+    private boolean isWaitingFor(@Nonnull Thread thread) {
+        Construction construction = this;
+
+        // every thread waits for at most one construction at a time and thus the chain cannot be
+        // longer than the amount of waiting threads unless it loops without reaching this thread
+        for (int i = waits.size(); construction != null && i >= 0; --i) {
+            if (construction.owner == thread) {
+                return true;
+            }
+
+            construction = waits.get(construction.owner);
+        }
+
+        return false;
+    }
+}
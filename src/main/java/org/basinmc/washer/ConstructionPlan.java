@@ -0,0 +1,192 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.ComponentDependency;
+import org.basinmc.washer.component.ComponentFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Represents the pre-computed means of constructing instances of a certain type.<br>
+ * <br>
+ * Plans are computed once per type and cached for the lifetime of the respective class. Each plan
+ * either refers to the factory which has been generated for its type or to its viable constructor
+ * along with the pre-resolved dependencies of its parameters. Additionally, plans expose the
+ * complete list of dependencies (including injectable fields) of their type in order to permit the
+ * verification of dependency graphs without reflectively inspecting each type again. Types whose
+ * generated factory records their dependencies take them from this metadata instead and are thus
+ * never inspected reflectively.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Immutable
+final class ConstructionPlan {
+    private static final ClassValue<ConstructionPlan> plans = new ClassValue<ConstructionPlan>() {
+        @Override
+        protected ConstructionPlan computeValue(Class<?> type) {
+            return compute(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final ComponentFactory<?> factory;
+    private final Constructor<?> constructor;
+    private final Dependency[] parameters;
+    private final List<Dependency> dependencies;
+
+    private ConstructionPlan(@Nonnull Class<?> type, @Nullable ComponentFactory<?> factory, @Nullable Constructor<?> constructor, @Nonnull Dependency[] parameters, @Nonnull List<Dependency> dependencies) {
+        this.type = type;
+        this.factory = factory;
+        this.constructor = constructor;
+        this.parameters = parameters;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Retrieves the construction plan for a certain type.
+     *
+     * @param type a type.
+     * @return a plan.
+     */
+    @Nonnull
+    static ConstructionPlan of(@Nonnull Class<?> type) {
+        return plans.get(type);
+    }
+
+    /**
+     * Computes the construction plan for a type.
+     *
+     * @param type a type.
+     * @return a plan.
+     *
+     * @throws InjectionException when the type declares more than one injectable constructor.
+     */
+    @Nonnull
+    private static ConstructionPlan compute(@Nonnull Class<?> type) {
+        ComponentFactory<?> factory = GeneratedComponents.getFactory(type);
+        Constructor<?> constructor = factory == null ? ConcurrentContext.findConstructor(type) : null;
+
+        if (factory == null && constructor == null) {
+            return new ConstructionPlan(type, null, null, new Dependency[0], Collections.emptyList());
+        }
+
+        Dependency[] parameters = new Dependency[0];
+
+        if (constructor != null) {
+            Parameter[] constructorParameters = constructor.getParameters();
+            parameters = new Dependency[constructorParameters.length];
+
+            for (int i = 0; i < constructorParameters.length; ++i) {
+                parameters[i] = Dependency.of(constructorParameters[i]);
+            }
+
+            constructor.setAccessible(true);
+        }
+
+        return new ConstructionPlan(type, factory, constructor, parameters, Collections.unmodifiableList(collect(type, factory)));
+    }
+
+    /**
+     * Collects the dependencies of a type from the metadata of its generated factory or, if no
+     * such metadata is available, by reflectively inspecting the type.
+     *
+     * @param type    a type.
+     * @param factory a generated factory (if any).
+     * @return a list of dependencies.
+     */
+    @Nonnull
+    private static List<Dependency> collect(@Nonnull Class<?> type, @Nullable ComponentFactory<?> factory) {
+        List<ComponentDependency> recorded = factory != null ? factory.getDependencies() : null;
+
+        if (recorded == null) {
+            return Dependency.collect(type);
+        }
+
+        List<Dependency> dependencies = new ArrayList<>(recorded.size());
+
+        for (ComponentDependency dependency : recorded) {
+            dependencies.add(Dependency.of(dependency));
+        }
+
+        return dependencies;
+    }
+
+    /**
+     * Retrieves all dependencies which are required in order to construct and inject an instance
+     * of the planned type (e.g. its constructor parameters as well as its injectable fields).
+     *
+     * @return a list of dependencies.
+     */
+    @Nonnull
+    List<Dependency> getDependencies() {
+        return this.dependencies;
+    }
+
+    /**
+     * Checks whether the planned type can be constructed (either through a generated factory or
+     * a viable constructor).
+     *
+     * @return true if constructible, false otherwise.
+     */
+    boolean isConstructible() {
+        return this.factory != null || this.constructor != null;
+    }
+
+    /**
+     * Constructs a new instance of the planned type without injecting its fields.
+     *
+     * @param context a context which resolves the constructor parameters.
+     * @return an instance.
+     *
+     * @throws InjectionException when the type cannot be constructed or one of its constructor
+     *                            parameters cannot be resolved.
+     */
+    @Nonnull
+    Object newInstance(@Nonnull Context context) {
+        if (this.factory != null) {
+            return this.factory.newInstance(context);
+        }
+
+        if (this.constructor == null) {
+            throw new InjectionException("Type " + this.type.getName() + " does not provide a viable constructor");
+        }
+
+        Object[] arguments = new Object[this.parameters.length];
+
+        for (int i = 0; i < this.parameters.length; ++i) {
+            arguments[i] = this.parameters[i].resolve(context);
+        }
+
+        try {
+            return this.constructor.newInstance(arguments);
+        } catch (InvocationTargetException ex) {
+            throw new InjectionException("Constructor of type " + this.type.getName() + " failed", ex.getCause());
+        } catch (ReflectiveOperationException ex) {
+            throw new InjectionException("Cannot construct instance of type " + this.type.getName(), ex);
+        }
+    }
+}
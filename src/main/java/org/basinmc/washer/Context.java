@@ -17,12 +17,20 @@
 package org.basinmc.washer;
 
 import org.basinmc.washer.annotation.ProvidedBy;
+import org.basinmc.washer.component.Lazy;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Provider;
 
@@ -121,6 +129,17 @@ public interface Context {
         return this.canProduceInstanceLocally(type, qualifier) || this.getParent().map((c) -> c.canProduceInstance(type, qualifier)).orElse(false);
     }
 
+    /**
+     * Checks whether the context or one of its parents can produce an instance of the type and
+     * qualifier represented by a key (either through a provider or by invoking its constructor).
+     *
+     * @param key a key.
+     * @return true if an instance can be produced, false otherwise.
+     */
+    default boolean canProduceInstance(@Nonnull Key<?> key) {
+        return this.canProduceInstance(key.getType(), key.getQualifier());
+    }
+
     /**
      * Checks whether the context can produce an instance of a certain type locally (e.g. a provider
      * is locally available or its type is considered part of this context while providing a viable
@@ -144,6 +163,17 @@ public interface Context {
      */
     boolean canProduceInstanceLocally(@Nonnull Class<?> type, @Nonnull String qualifier);
 
+    /**
+     * Checks whether the context can produce an instance of the type and qualifier represented by
+     * a key locally.
+     *
+     * @param key a key.
+     * @return true if an instance can be produced locally, false otherwise.
+     */
+    default boolean canProduceInstanceLocally(@Nonnull Key<?> key) {
+        return this.canProduceInstanceLocally(key.getType(), key.getQualifier());
+    }
+
     /**
      * Evicts all stored instances in this context.
      *
@@ -217,6 +247,23 @@ public interface Context {
      */
     <C> void clearProviderBinding(@Nonnull Class<C> base, @Nonnull BiPredicate<String, Class<Provider<? extends C>>> filterPredicate);
 
+    /**
+     * Compiles the current bindings, providers and singletons of this context into an immutable
+     * snapshot which is optimized for read access.
+     *
+     * <strong>Note:</strong> Modifications of this context are not reflected by the snapshot
+     * while any attempt to modify the snapshot itself fails. Implementations which do not support
+     * snapshots fail with an {@link UnsupportedOperationException} instead.
+     *
+     * @return a snapshot.
+     *
+     * @throws UnsupportedOperationException when the context does not support snapshots.
+     */
+    @Nonnull
+    default Context freeze() {
+        throw new UnsupportedOperationException("Context does not support snapshots");
+    }
+
     /**
      * Retrieves an instance of a certain type from the context.
      *
@@ -238,6 +285,94 @@ public interface Context {
     @Nonnull
     <T> Optional<T> get(@Nonnull Class<T> type, @Nonnull String qualifier);
 
+    /**
+     * Retrieves an instance of the type and qualifier represented by a key from the context.
+     *
+     * @param key a key.
+     * @return an instance or, if no such component could be located, an empty optional.
+     */
+    @Nonnull
+    default <T> Optional<T> get(@Nonnull Key<T> key) {
+        return this.get(key.getType(), key.getQualifier());
+    }
+
+    /**
+     * Retrieves the instances of all components which have been registered for a certain type
+     * (regardless of their qualifier) within this context or one of its parents.<br>
+     * <br>
+     * Every qualifier is resolved exactly once. When both a context and one of its parents provide
+     * a component for the same qualifier, the component of the context takes precedence. Instances
+     * are ordered by the priority of their respective {@link
+     * org.basinmc.washer.component.ComponentDefinition} (if any).<br>
+     * <br>
+     * <strong>Note:</strong> Implementations which do not keep track of the qualifiers of their
+     * components merely return the instance of the default qualifier (if any).
+     *
+     * @param type a type.
+     * @return a list of instances in descending order of priority.
+     */
+    @Nonnull
+    default <T> List<T> getAll(@Nonnull Class<T> type) {
+        return this.get(type).map(Collections::singletonList).orElse(Collections.emptyList());
+    }
+
+    /**
+     * Asynchronously retrieves an instance of a certain type from the context using the common
+     * fork join pool.
+     *
+     * @param type a type.
+     * @return a future which completes with an instance or, if no such component could be
+     * located, an empty optional.
+     */
+    @Nonnull
+    default <T> CompletableFuture<Optional<T>> getAsync(@Nonnull Class<T> type) {
+        return this.getAsync(type, this.getDefaultQualifier(type));
+    }
+
+    /**
+     * Asynchronously retrieves an instance with a certain qualifier and type from the context
+     * using the common fork join pool.
+     *
+     * @param type      a type.
+     * @param qualifier a qualifier.
+     * @return a future which completes with an instance or, if no such component could be
+     * located, an empty optional.
+     */
+    @Nonnull
+    default <T> CompletableFuture<Optional<T>> getAsync(@Nonnull Class<T> type, @Nonnull String qualifier) {
+        return this.getAsync(Key.of(type, qualifier), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously retrieves an instance of the type and qualifier represented by a key from the
+     * context using the common fork join pool.
+     *
+     * @param key a key.
+     * @return a future which completes with an instance or, if no such component could be
+     * located, an empty optional.
+     */
+    @Nonnull
+    default <T> CompletableFuture<Optional<T>> getAsync(@Nonnull Key<T> key) {
+        return this.getAsync(key, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously retrieves an instance of the type and qualifier represented by a key from the
+     * context.<br>
+     * <br>
+     * Instances are resolved (and, if necessary, constructed) using the supplied executor. When
+     * the resolution fails, the returned future completes exceptionally.
+     *
+     * @param key      a key.
+     * @param executor an executor to resolve the instance on.
+     * @return a future which completes with an instance or, if no such component could be
+     * located, an empty optional.
+     */
+    @Nonnull
+    default <T> CompletableFuture<Optional<T>> getAsync(@Nonnull Key<T> key, @Nonnull Executor executor) {
+        return CompletableFuture.supplyAsync(() -> this.get(key), executor);
+    }
+
     /**
      * Retrieves the generated default qualifier for a certain type.
      *
@@ -247,6 +382,97 @@ public interface Context {
     @Nonnull
     String getDefaultQualifier(@Nonnull Class<?> type);
 
+    /**
+     * Retrieves a key for a certain type and its generated default qualifier.
+     *
+     * @param type a type.
+     * @return a key.
+     */
+    @Nonnull
+    default <T> Key<T> getKey(@Nonnull Class<T> type) {
+        return Key.of(type, this.getDefaultQualifier(type));
+    }
+
+    /**
+     * Retrieves an instance of the type and qualifier represented by a key from the context.
+     *
+     * This method is equivalent to {@link #get(Key)} but permits implementations to skip the
+     * allocation of an optional within frequently accessed code paths.
+     *
+     * @param key a key.
+     * @return an instance or, if no such component could be located, null.
+     */
+    @Nullable
+    default <T> T getOrNull(@Nonnull Key<T> key) {
+        return this.get(key).orElse(null);
+    }
+
+    /**
+     * Retrieves a lazy reference to the specified type which resolves its instance upon first
+     * access.
+     *
+     * @param type a type.
+     * @return a lazy reference.
+     */
+    @Nonnull
+    default <C> Lazy<C> getLazy(@Nonnull Class<C> type) {
+        return this.getLazy(type, this.getDefaultQualifier(type));
+    }
+
+    /**
+     * Retrieves a lazy reference to the specified type and qualifier which resolves its instance
+     * upon first access.
+     *
+     * @param type      a type.
+     * @param qualifier a qualifier.
+     * @return a lazy reference.
+     */
+    @Nonnull
+    default <C> Lazy<C> getLazy(@Nonnull Class<C> type, @Nonnull String qualifier) {
+        return this.getLazy(Key.of(type, qualifier));
+    }
+
+    /**
+     * Retrieves a lazy reference to the type and qualifier represented by a key which resolves its
+     * instance upon first access.
+     *
+     * @param key a key.
+     * @return a lazy reference.
+     */
+    @Nonnull
+    default <C> Lazy<C> getLazy(@Nonnull Key<C> key) {
+        return new ContextLazy<>(this, key);
+    }
+
+    /**
+     * Retrieves a proxy which implements the specified interface and delegates all invocations to
+     * an instance which is resolved upon first use.
+     *
+     * @param type      an interface type.
+     * @param qualifier a qualifier.
+     * @return a proxy.
+     *
+     * @throws InjectionException when the passed type is not an interface.
+     */
+    @Nonnull
+    default <C> C getLazyProxy(@Nonnull Class<C> type, @Nonnull String qualifier) {
+        return this.getLazyProxy(Key.of(type, qualifier));
+    }
+
+    /**
+     * Retrieves a proxy which implements the interface represented by a key and delegates all
+     * invocations to an instance which is resolved upon first use.
+     *
+     * @param key a key.
+     * @return a proxy.
+     *
+     * @throws InjectionException when the type represented by the key is not an interface.
+     */
+    @Nonnull
+    default <C> C getLazyProxy(@Nonnull Key<C> key) {
+        return ContextLazy.proxy(this, key);
+    }
+
     /**
      * Retrieves the parent context which will be used to resolve instances when values cannot be
      * located in the local context.
@@ -279,6 +505,75 @@ public interface Context {
     @Nonnull
     <C> Optional<Provider<C>> getProvider(@Nonnull Class<C> type, @Nonnull String qualifier);
 
+    /**
+     * Retrieves the provider (a factory for) the type and qualifier represented by a key.
+     *
+     * @param key a key.
+     * @return a provider implementation or, if no such provider could be located, an empty
+     * optional.
+     */
+    @Nonnull
+    default <C> Optional<Provider<C>> getProvider(@Nonnull Key<C> key) {
+        return this.getProvider(key.getType(), key.getQualifier());
+    }
+
+    /**
+     * Asynchronously retrieves the provider (a factory for) the specified type using the common
+     * fork join pool.
+     *
+     * @param type a type.
+     * @return a future which completes with a provider implementation or, if no such provider
+     * could be located, an empty optional.
+     */
+    @Nonnull
+    default <C> CompletableFuture<Optional<Provider<C>>> getProviderAsync(@Nonnull Class<C> type) {
+        return this.getProviderAsync(type, this.getDefaultQualifier(type));
+    }
+
+    /**
+     * Asynchronously retrieves the provider (a factory for) the specified type and qualifier using
+     * the common fork join pool.
+     *
+     * @param type      a type.
+     * @param qualifier a qualifier.
+     * @return a future which completes with a provider implementation or, if no such provider
+     * could be located, an empty optional.
+     */
+    @Nonnull
+    default <C> CompletableFuture<Optional<Provider<C>>> getProviderAsync(@Nonnull Class<C> type, @Nonnull String qualifier) {
+        return this.getProviderAsync(Key.of(type, qualifier), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously retrieves the provider (a factory for) the type and qualifier represented by
+     * a key using the common fork join pool.
+     *
+     * @param key a key.
+     * @return a future which completes with a provider implementation or, if no such provider
+     * could be located, an empty optional.
+     */
+    @Nonnull
+    default <C> CompletableFuture<Optional<Provider<C>>> getProviderAsync(@Nonnull Key<C> key) {
+        return this.getProviderAsync(key, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously retrieves the provider (a factory for) the type and qualifier represented by
+     * a key.<br>
+     * <br>
+     * Providers are resolved (and, if necessary, constructed) using the supplied executor. When
+     * the resolution fails, the returned future completes exceptionally.
+     *
+     * @param key      a key.
+     * @param executor an executor to resolve the provider on.
+     * @return a future which completes with a provider implementation or, if no such provider
+     * could be located, an empty optional.
+     */
+    @Nonnull
+    default <C> CompletableFuture<Optional<Provider<C>>> getProviderAsync(@Nonnull Key<C> key, @Nonnull Executor executor) {
+        return CompletableFuture.supplyAsync(() -> this.getProvider(key), executor);
+    }
+
     /**
      * Checks whether this context or one of its parents contains an instance of a specific
      * component type.
@@ -308,6 +603,17 @@ public interface Context {
         return this.hasLocalInstance(type, qualifier) || this.getParent().map((c) -> c.hasInstance(type, qualifier)).orElse(false);
     }
 
+    /**
+     * Checks whether this context or one of its parents contains an instance of the type and
+     * qualifier represented by a key.
+     *
+     * @param key a key.
+     * @return true if an instance exists, false otherwise.
+     */
+    default boolean hasInstance(@Nonnull Key<?> key) {
+        return this.hasInstance(key.getType(), key.getQualifier());
+    }
+
     /**
      * Checks whether this context contains an instance for a specific component type.
      *
@@ -333,6 +639,17 @@ public interface Context {
      */
     boolean hasLocalInstance(@Nonnull Class<?> type, @Nonnull String qualifier);
 
+    /**
+     * Checks whether this context contains an instance of the type and qualifier represented by a
+     * key.
+     *
+     * @param key a key.
+     * @return true if an instance exists, false otherwise.
+     */
+    default boolean hasLocalInstance(@Nonnull Key<?> key) {
+        return this.hasLocalInstance(key.getType(), key.getQualifier());
+    }
+
     /**
      * Injects all annotated fields in an object using the objects and providers present within this
      * context.
@@ -343,6 +660,8 @@ public interface Context {
 
     /**
      * Considers all objects for eviction based on their registered lifecycle.
+     *
+     * @see Lifecycle for the conditions under which instances are evicted.
      */
     void refresh();
 
@@ -406,6 +725,20 @@ public interface Context {
      */
     void removeInstance(@Nonnull Class<?> type, @Nonnull String qualifier);
 
+    /**
+     * Removes the component instance of the type and qualifier represented by a key from the
+     * context.
+     *
+     * <strong>Note:</strong> This will not account for non-singleton instances since they are not
+     * actively stored in the context. These objects can be safely discarded by removing all strong
+     * references to their instance.
+     *
+     * @param key a key.
+     */
+    default void removeInstance(@Nonnull Key<?> key) {
+        this.removeInstance(key.getType(), key.getQualifier());
+    }
+
     /**
      * Removes an instance of a certain type from the context.
      *
@@ -464,4 +797,66 @@ public interface Context {
      * @param instance  an instance.
      */
     <C> void setInstance(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Object instance);
+
+    /**
+     * Stores an instance using a specified base type and qualifier and evicts it once its
+     * lifecycle expires.
+     *
+     * <strong>Note:</strong> The default implementation does not support evicting instances and
+     * thus only accepts {@link Lifecycle#PERMANENT} (or equivalent) lifecycles.
+     *
+     * @param base      a base type such as an abstract class or interface.
+     * @param qualifier a qualifier.
+     * @param instance  an instance.
+     * @param lifecycle a lifecycle.
+     * @throws UnsupportedOperationException when the lifecycle may expire and this context does
+     *                                       not support evicting instances.
+     * @see #refresh() for evicting expired instances.
+     */
+    default <C> void setInstance(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Object instance, @Nonnull Lifecycle lifecycle) {
+        if (!lifecycle.isPermanent()) {
+            throw new UnsupportedOperationException("Context does not support instance lifecycles");
+        }
+
+        this.setInstance(base, qualifier, instance);
+    }
+
+    /**
+     * Stores an instance using the type and qualifier represented by a key.
+     *
+     * @param key      a key.
+     * @param instance an instance.
+     */
+    default <C> void setInstance(@Nonnull Key<C> key, @Nonnull C instance) {
+        this.setInstance(key.getType(), key.getQualifier(), instance);
+    }
+
+    /**
+     * Stores an instance using the type and qualifier represented by a key and evicts it once its
+     * lifecycle expires.
+     *
+     * @param key       a key.
+     * @param instance  an instance.
+     * @param lifecycle a lifecycle.
+     */
+    default <C> void setInstance(@Nonnull Key<C> key, @Nonnull C instance, @Nonnull Lifecycle lifecycle) {
+        this.setInstance(key.getType(), key.getQualifier(), instance, lifecycle);
+    }
+
+    /**
+     * Streams the instances of all components which have been registered for a certain type
+     * (regardless of their qualifier) within this context or one of its parents.<br>
+     * <br>
+     * <strong>Note:</strong> The default implementation resolves all instances through {@link
+     * #getAll(Class)} before the stream is returned. Implementations may choose to resolve (and,
+     * if necessary, construct) instances as the stream is consumed instead.
+     *
+     * @param type a type.
+     * @return a stream of instances in descending order of priority.
+     * @see #getAll(Class) for more information on the resolution process.
+     */
+    @Nonnull
+    default <T> Stream<T> streamAll(@Nonnull Class<T> type) {
+        return this.getAll(type).stream();
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import javax.annotation.Nonnull;
+import javax.inject.Provider;
+
+/**
+ * Collects a set of bindings, provider bindings and instances which are applied to a context as a
+ * single atomic operation.
+ *
+ * Operations are merely recorded by this interface and will not become visible until the batch
+ * has been applied as a whole.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ * @see ConcurrentContext#batch(java.util.function.Consumer) for applying batches.
+ */
+public interface ContextBatch {
+
+    /**
+     * Binds a type to a specific implementation using the default generated qualifier.
+     *
+     * @param base    a base type.
+     * @param binding an implementation type to bind to.
+     */
+    default <C> void bind(@Nonnull Class<? super C> base, @Nonnull Class<C> binding) {
+        this.bind(base, this.getDefaultQualifier(base), binding);
+    }
+
+    /**
+     * Binds a type and qualifier to a specific implementation.
+     *
+     * @param base      a base type.
+     * @param qualifier a qualifier.
+     * @param binding   an implementation type to bind to.
+     */
+    <C> void bind(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Class<C> binding);
+
+    /**
+     * Binds a type to a specific provider implementation using the default generated qualifier.
+     *
+     * @param base            a base type.
+     * @param providerBinding a provider implementation type to bind to.
+     */
+    default <C> void bindProvider(@Nonnull Class<? super C> base, @Nonnull Class<Provider<C>> providerBinding) {
+        this.bindProvider(base, this.getDefaultQualifier(base), providerBinding);
+    }
+
+    /**
+     * Binds a type and qualifier to a specific provider implementation.
+     *
+     * @param base            a base type.
+     * @param qualifier       a qualifier.
+     * @param providerBinding a provider implementation type to bind to.
+     */
+    <C> void bindProvider(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Class<Provider<C>> providerBinding);
+
+    /**
+     * Retrieves the default qualifier for a certain type within the context this batch will be
+     * applied to.
+     *
+     * @param type a type.
+     * @return a qualifier.
+     */
+    @Nonnull
+    String getDefaultQualifier(@Nonnull Class<?> type);
+
+    /**
+     * Stores an instance using a specified base type and a generated default qualifier.
+     *
+     * @param base     a base type such as an abstract class or interface.
+     * @param instance an instance.
+     */
+    default <C> void setInstance(@Nonnull Class<? super C> base, @Nonnull Object instance) {
+        this.setInstance(base, this.getDefaultQualifier(base), instance);
+    }
+
+    /**
+     * Stores an instance using a specified base type and qualifier.
+     *
+     * @param base      a base type such as an abstract class or interface.
+     * @param qualifier a qualifier.
+     * @param instance  an instance.
+     */
+    <C> void setInstance(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Object instance);
+
+    /**
+     * Stores an instance using the type and qualifier represented by a key.
+     *
+     * @param key      a key.
+     * @param instance an instance.
+     */
+    default <C> void setInstance(@Nonnull Key<C> key, @Nonnull C instance) {
+        this.setInstance(key.getType(), key.getQualifier(), instance);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.Lazy;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Provides a lazy reference to a component which is resolved from a context upon first access.<br>
+ * <br>
+ * The first access claims the reference by publishing an in-flight {@link Construction} through a
+ * single compare-and-set operation while concurrent first accesses await its result. As a
+ * result, the component is resolved (and component type scanners are notified) at most once per
+ * reference and {@link #getInstance()} costs a single volatile read once the instance has been
+ * published. Neither {@link #isInitialized()} nor {@link #get()} block (e.g. {@link #get()} reports
+ * an empty reference while another thread is resolving the component).
+ *
+ * @param <C> the component type.
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@ThreadSafe
+final class ContextLazy<C> implements Lazy<C> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ContextLazy, Object> instanceUpdater = AtomicReferenceFieldUpdater.newUpdater(ContextLazy.class, Object.class, "instance");
+
+    private final Context context;
+    private final Key<C> key;
+    private volatile Object instance;
+
+    ContextLazy(@Nonnull Context context, @Nonnull Key<C> key) {
+        this.context = context;
+        this.key = key;
+    }
+
+    /**
+     * Creates a proxy which implements the interface represented by a key and delegates all
+     * invocations to a lazily resolved component.
+     *
+     * @param context a context.
+     * @param key     a key.
+     * @return a proxy.
+     *
+     * @throws InjectionException when the type represented by the key is not an interface.
+     */
+    @Nonnull
+    static <C> C proxy(@Nonnull Context context, @Nonnull Key<C> key) {
+        Class<C> type = key.getType();
+
+        if (!type.isInterface()) {
+            throw new InjectionException("Cannot create deferred proxy for non-interface type " + type.getName());
+        }
+
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new DelegatingHandler(new ContextLazy<>(context, key))));
+    }
+
+    @Nonnull
+    @Override
+    public Optional<C> get() {
+        Object instance = this.instance;
+
+        if (instance instanceof Construction) {
+            return Optional.empty();
+        }
+
+        if (instance != null) {
+            return Optional.of(this.key.getType().cast(instance));
+        }
+
+        if (!this.context.hasInstance(this.key)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(this.getInstance());
+    }
+
+    @Nonnull
+    @Override
+    public C getInstance() {
+        Object instance = this.instance;
+
+        if (instance instanceof Construction) {
+            return this.key.getType().cast(((Construction) instance).await(this.key));
+        }
+
+        if (instance != null) {
+            return this.key.getType().cast(instance);
+        }
+
+        Construction construction = new Construction();
+
+        if (!instanceUpdater.compareAndSet(this, null, construction)) {
+            return this.getInstance();
+        }
+
+        try {
+            C resolved = this.context.getOrNull(this.key);
+
+            if (resolved == null) {
+                throw new InjectionException("Cannot resolve lazy dependency " + this.key);
+            }
+
+            this.instance = resolved;
+            construction.complete(resolved);
+            return resolved;
+        } catch (RuntimeException | Error ex) {
+            this.instance = null;
+            construction.fail(ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean isInitialized() {
+        Object instance = this.instance;
+        return (instance != null && !(instance instanceof Construction)) || this.context.hasInstance(this.key);
+    }
+
+    @Override
+    public String toString() {
+        Object instance = this.instance;
+        return "Lazy{" + this.key + (instance != null && !(instance instanceof Construction) ? ", initialized" : "") + "}";
+    }
+
+    /**
+     * Delegates all invocations on a proxy to the instance of a lazy reference.
+     */
+    private static final class DelegatingHandler implements InvocationHandler {
+        private final ContextLazy<?> lazy;
+
+        private DelegatingHandler(@Nonnull ContextLazy<?> lazy) {
+            this.lazy = lazy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Proxy" + this.lazy;
+                }
+            }
+
+            try {
+                return method.invoke(this.lazy.getInstance(), args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Provides a pool of short-lived child contexts (such as contexts which are created for each
+ * request or tick) which share a common parent.<br>
+ * <br>
+ * Contexts which are released back into the pool are cleared (e.g. all of their instances are
+ * removed and the responsible scanners notified of their destruction) and handed out again by
+ * subsequent calls to {@link #acquire()}. Contexts must not be accessed after they have been
+ * released.<br>
+ * <br>
+ * Neither the pool nor its contexts rely on monitors and may thus be used from virtual threads
+ * without pinning their carrier.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@ThreadSafe
+public final class ContextPool {
+
+    /**
+     * Defines the default maximum amount of contexts which are retained by a pool.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final ConcurrentContext parent;
+    private final int capacity;
+    private final Queue<ConcurrentContext> contexts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ContextPool(@Nonnull ConcurrentContext parent) {
+        this(parent, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new pool which retains up to the specified amount of released contexts.
+     *
+     * @param parent   a parent context.
+     * @param capacity a maximum amount of retained contexts.
+     * @throws IllegalArgumentException when the capacity is negative.
+     */
+    public ContextPool(@Nonnull ConcurrentContext parent, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must be positive or zero: " + capacity);
+        }
+
+        this.parent = parent;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Retrieves a previously released context or, if no such context is available, creates a new
+     * child of the parent context.
+     *
+     * @return a context.
+     */
+    @Nonnull
+    public ConcurrentContext acquire() {
+        ConcurrentContext context = this.contexts.poll();
+
+        if (context == null) {
+            return new ConcurrentContext(this.parent);
+        }
+
+        this.size.decrementAndGet();
+        context.markAcquired();
+        return context;
+    }
+
+    /**
+     * Retrieves the parent of all contexts within this pool.
+     */
+    @Nonnull
+    public ConcurrentContext getParent() {
+        return this.parent;
+    }
+
+    /**
+     * Clears a context and returns it to the pool (unless the pool has reached its capacity).
+     *
+     * @param context a context which has previously been acquired from this pool.
+     * @throws IllegalArgumentException when the context is not a child of the parent context.
+     * @throws IllegalStateException    when the context has already been released.
+     */
+    public void release(@Nonnull ConcurrentContext context) {
+        if (context.getParent().orElse(null) != this.parent) {
+            throw new IllegalArgumentException("Context is not a child of the pool's parent context");
+        }
+
+        if (!context.markReleased()) {
+            throw new IllegalStateException("Context has already been released");
+        }
+
+        context.recycle();
+
+        if (this.size.incrementAndGet() > this.capacity) {
+            this.size.decrementAndGet();
+            return;
+        }
+
+        this.contexts.offer(context);
+    }
+}
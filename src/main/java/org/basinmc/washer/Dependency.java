@@ -0,0 +1,230 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.annotation.Deferred;
+import org.basinmc.washer.annotation.InjectByDefault;
+import org.basinmc.washer.component.ComponentDependency;
+import org.basinmc.washer.component.ComponentDependency.Kind;
+import org.basinmc.washer.component.Lazy;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+
+/**
+ * Represents a single dependency of a field or constructor parameter along with its qualifier.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Immutable
+final class Dependency {
+    private final Class<?> type;
+    private final Key<?> key;
+    private final Kind kind;
+
+    private Dependency(@Nonnull Class<?> type, @Nullable String qualifier, @Nonnull Kind kind) {
+        this.type = type;
+        this.key = qualifier != null ? Key.of(type, qualifier) : null;
+        this.kind = kind;
+    }
+
+    /**
+     * Collects all dependencies which are required in order to construct and inject an instance
+     * of a certain type (e.g. its constructor parameters as well as its injectable fields).
+     *
+     * @param type a type.
+     * @return a list of dependencies.
+     */
+    @Nonnull
+    static List<Dependency> collect(@Nonnull Class<?> type) {
+        List<Dependency> dependencies = new ArrayList<>();
+        Constructor<?> constructor = ConcurrentContext.findConstructor(type);
+
+        if (constructor != null) {
+            for (Parameter parameter : constructor.getParameters()) {
+                dependencies.add(of(parameter));
+            }
+        }
+
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            boolean injectByDefault = current.isAnnotationPresent(InjectByDefault.class);
+
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+
+                if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+
+                if (injectByDefault || field.isAnnotationPresent(Inject.class)) {
+                    dependencies.add(of(field));
+                }
+            }
+        }
+
+        return dependencies;
+    }
+
+    /**
+     * Creates a dependency from the metadata which has been recorded by a generated factory.
+     *
+     * @param dependency a recorded dependency.
+     * @return a dependency.
+     */
+    @Nonnull
+    static Dependency of(@Nonnull ComponentDependency dependency) {
+        return new Dependency(dependency.getType(), dependency.getQualifier(), dependency.getKind());
+    }
+
+    /**
+     * Creates a dependency which represents a field.
+     *
+     * @param field a field.
+     * @return a dependency.
+     */
+    @Nonnull
+    static Dependency of(@Nonnull Field field) {
+        return of(field.getType(), field.getGenericType(), field);
+    }
+
+    /**
+     * Creates a dependency which represents a constructor parameter.
+     *
+     * @param parameter a parameter.
+     * @return a dependency.
+     */
+    @Nonnull
+    static Dependency of(@Nonnull Parameter parameter) {
+        return of(parameter.getType(), parameter.getParameterizedType(), parameter);
+    }
+
+    @Nonnull
+    private static Dependency of(@Nonnull Class<?> type, @Nonnull Type genericType, @Nonnull AnnotatedElement element) {
+        Named named = element.getAnnotation(Named.class);
+        String qualifier = named != null ? named.value() : null;
+
+        if (type == Provider.class) {
+            return new Dependency(getTypeArgument(genericType), qualifier, Kind.PROVIDER);
+        }
+
+        if (type == Lazy.class) {
+            return new Dependency(getTypeArgument(genericType), qualifier, Kind.LAZY);
+        }
+
+        if (element.isAnnotationPresent(Deferred.class)) {
+            if (!type.isInterface()) {
+                throw new InjectionException("Cannot defer dependency of non-interface type " + type.getName());
+            }
+
+            return new Dependency(type, qualifier, Kind.PROXY);
+        }
+
+        return new Dependency(type, qualifier, Kind.INSTANCE);
+    }
+
+    /**
+     * Retrieves the raw type of the first type argument within a parameterized type.
+     *
+     * @param type a parameterized type.
+     * @return a raw type.
+     *
+     * @throws InjectionException when no concrete type argument has been declared.
+     */
+    @Nonnull
+    private static Class<?> getTypeArgument(@Nonnull Type type) {
+        if (type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            }
+
+            if (argument instanceof ParameterizedType) {
+                return (Class<?>) ((ParameterizedType) argument).getRawType();
+            }
+        }
+
+        throw new InjectionException("Cannot resolve type argument of " + type.getTypeName());
+    }
+
+    /**
+     * Retrieves the key of this dependency within a certain context.<br>
+     * <br>
+     * Keys of dependencies without an explicit qualifier are retrieved through {@link
+     * Context#getKey(Class)} and thus use the default qualifier of the respective context.
+     *
+     * @param context a context.
+     * @return a key.
+     */
+    @Nonnull
+    Key<?> getKey(@Nonnull Context context) {
+        return this.key != null ? this.key : context.getKey(this.type);
+    }
+
+    /**
+     * Checks whether this dependency expects a provider, lazy reference or proxy rather than an
+     * instance (e.g. whether the dependency is not required to be constructed before its
+     * dependant).
+     */
+    boolean isDeferred() {
+        return this.kind != Kind.INSTANCE;
+    }
+
+    /**
+     * Resolves this dependency from a context.
+     *
+     * @param context a context.
+     * @return an instance or provider.
+     *
+     * @throws InjectionException when the dependency cannot be resolved.
+     */
+    @Nonnull
+    Object resolve(@Nonnull Context context) {
+        Key<?> key = this.getKey(context);
+
+        switch (this.kind) {
+            case PROVIDER:
+                return context.getProvider(key).orElseThrow(() -> new InjectionException("Cannot resolve provider for dependency " + key));
+            case LAZY:
+                return context.getLazy(key);
+            case PROXY:
+                return context.getLazyProxy(key);
+        }
+
+        Object instance = context.getOrNull(key);
+
+        if (instance == null) {
+            throw new InjectionException("Cannot resolve dependency " + key);
+        }
+
+        return instance;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.ComponentDefinition;
+import org.basinmc.washer.component.InitializationStrategy;
+import org.basinmc.washer.component.constraint.ComponentConstraint;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import javax.inject.Provider;
+
+/**
+ * Represents a component definition which has been created from an entry within the component
+ * index.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ * @see org.basinmc.washer.component.ComponentIndex
+ */
+@Immutable
+final class DiscoveredComponentDefinition<C> implements ComponentDefinition<C> {
+    private final Class<C> type;
+    private final String qualifier;
+    private final InitializationStrategy initializationStrategy;
+    private final Context context;
+    private final ComponentConstraint<?>[] constraints;
+    private final CompiledConstraints compiledConstraints;
+
+    DiscoveredComponentDefinition(@Nonnull Context context, @Nonnull Class<C> type, @Nonnull String qualifier, @Nonnull InitializationStrategy initializationStrategy, @Nonnull Map<Annotation, ComponentConstraint<?>> constraints) {
+        this.context = context;
+        this.type = type;
+        this.qualifier = qualifier;
+        this.initializationStrategy = initializationStrategy;
+        this.constraints = constraints.values().toArray(new ComponentConstraint<?>[constraints.size()]);
+        this.compiledConstraints = CompiledConstraints.compile(constraints);
+    }
+
+    @Nonnull
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Deque<ComponentConstraint> getConstraints() {
+        Deque<ComponentConstraint> constraints = new ArrayDeque<>(this.constraints.length);
+
+        for (ComponentConstraint<?> constraint : this.constraints) {
+            constraints.add(constraint);
+        }
+
+        return constraints;
+    }
+
+    @Nonnull
+    @Override
+    public Class<C> getType() {
+        return this.type;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Class<? extends C>> getImplementationType() {
+        return Optional.empty();
+    }
+
+    @Nonnull
+    @Override
+    public InitializationStrategy getInitializationStrategy() {
+        return this.initializationStrategy;
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Class<? extends Provider<C>>> getProviderType() {
+        return Optional.empty();
+    }
+
+    @Nonnull
+    @Override
+    public String getQualifier() {
+        return this.qualifier;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> Constraints are compiled upon discovery and their results are re-used
+     * for as long as their declared inputs remain unchanged.
+     */
+    @Override
+    public boolean matchesConstraints() {
+        return this.compiledConstraints.matches(this.context, this);
+    }
+}
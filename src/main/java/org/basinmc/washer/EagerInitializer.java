@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.ComponentDefinition;
+import org.basinmc.washer.component.InitializationStrategy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Initializes all eager component definitions of a context in parallel.<br>
+ * <br>
+ * Definitions are grouped by their order of priority. Groups are initialized in descending order
+ * (e.g. all definitions of a higher priority have been initialized before the first definition of a
+ * lower priority is considered). Within a group, every definition is initialized as soon as all
+ * eager definitions it (directly or transitively) depends on have been initialized. Independent
+ * definitions are thus constructed concurrently.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+final class EagerInitializer {
+    private final ConcurrentContext context;
+    private final Map<Key<?>, ComponentDefinition<?>> definitions;
+    private final Executor executor;
+
+    EagerInitializer(@Nonnull ConcurrentContext context, @Nonnull Map<Key<?>, ComponentDefinition<?>> definitions, @Nonnull Executor executor) {
+        this.context = context;
+        this.definitions = definitions;
+        this.executor = executor;
+    }
+
+    /**
+     * Initializes all eager definitions and blocks until their initialization has completed.
+     *
+     * @throws InjectionException when the definitions depend on each other in a circular fashion or
+     *                            one of the definitions fails to initialize.
+     */
+    void initialize() {
+        Map<Integer, Map<Key<?>, ComponentDefinition<?>>> groups = new TreeMap<>(Comparator.reverseOrder());
+
+        this.definitions.forEach((k, d) -> {
+            if (d.getInitializationStrategy() == InitializationStrategy.EAGER) {
+                groups.computeIfAbsent(d.getOrder(), (o) -> new HashMap<>()).put(k, d);
+            }
+        });
+
+        for (Map<Key<?>, ComponentDefinition<?>> group : groups.values()) {
+            Map<Key<?>, CompletableFuture<Void>> futures = new HashMap<>();
+
+            group.keySet().forEach((k) -> this.schedule(k, group, futures, new LinkedHashSet<>()));
+
+            try {
+                CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[futures.size()])).join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof InjectionException) {
+                    throw (InjectionException) ex.getCause();
+                }
+
+                throw new InjectionException("Cannot initialize eager components", ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * Collects the keys of all group members which a type depends on either directly or through
+     * one of its dependencies.
+     *
+     * @param type    a type.
+     * @param group   the definitions within the current group.
+     * @param result  a set to which the dependencies are added.
+     * @param visited a set of already visited types.
+     */
+    private void collectDependencies(@Nonnull Class<?> type, @Nonnull Map<Key<?>, ComponentDefinition<?>> group, @Nonnull Set<Key<?>> result, @Nonnull Set<Class<?>> visited) {
+        if (!visited.add(type)) {
+            return;
+        }
+
+        for (Dependency dependency : ConstructionPlan.of(type).getDependencies()) {
+            if (dependency.isDeferred()) {
+                continue;
+            }
+
+            Key<?> key = dependency.getKey(this.context);
+
+            if (group.containsKey(key)) {
+                result.add(key);
+                continue;
+            }
+
+            this.collectDependencies(this.context.getImplementation(key), group, result, visited);
+        }
+    }
+
+    /**
+     * Schedules the initialization of a definition once all of its dependencies have been
+     * initialized.
+     *
+     * @param key      the key of a definition.
+     * @param group    the definitions within the current group.
+     * @param futures  the futures which have been scheduled so far.
+     * @param visiting the keys which are currently being scheduled.
+     * @return a future which completes once the definition has been initialized.
+     */
+    @Nonnull
+    private CompletableFuture<Void> schedule(@Nonnull Key<?> key, @Nonnull Map<Key<?>, ComponentDefinition<?>> group, @Nonnull Map<Key<?>, CompletableFuture<Void>> futures, @Nonnull Set<Key<?>> visiting) {
+        CompletableFuture<Void> future = futures.get(key);
+
+        if (future != null) {
+            return future;
+        }
+
+        if (!visiting.add(key)) {
+            List<Key<?>> cycle = new ArrayList<>(visiting);
+            throw new InjectionException("Circular dependency between eager components: " + cycle.subList(cycle.indexOf(key), cycle.size()) + " -> " + key);
+        }
+
+        Set<Key<?>> dependencies = new HashSet<>();
+        this.collectDependencies(this.context.getImplementation(key), group, dependencies, new HashSet<>());
+        dependencies.remove(key);
+
+        List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+        dependencies.forEach((k) -> prerequisites.add(this.schedule(k, group, futures, visiting)));
+        visiting.remove(key);
+
+        ComponentDefinition<?> definition = group.get(key);
+        future = CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture<?>[prerequisites.size()]))
+                .thenRunAsync(() -> this.context.initializeEagerly(definition, dependencies), this.executor);
+
+        futures.put(key, future);
+        return future;
+    }
+}
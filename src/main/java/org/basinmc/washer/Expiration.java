@@ -0,0 +1,245 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Tracks the expiration state of an instance which has been stored with a {@link Lifecycle}.
+ *
+ * Expirations are scheduled within the timing wheel of their context (when their lifecycle is
+ * timed) and register their owner reference with the reference queue of their context (when
+ * their lifecycle declares an owner). When their lifecycle permits the instance to be reclaimed,
+ * the expiration retains the instance itself through a soft or weak reference which is registered
+ * with the same queue.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@ThreadSafe
+final class Expiration extends TimerWheel.Node {
+
+    /**
+     * Defines the minimum amount of time (roughly one millisecond) between two updates of the
+     * access time in order to reduce contention on frequently accessed instances.
+     */
+    private static final long ACCESS_GRANULARITY = 1L << 20;
+
+    private final Key<?> key;
+    private final Class<?> type;
+    private final long deadline;
+    private final long idleTimeout;
+    private final Reference<Object> owner;
+    private final Reference<Object> instance;
+    private volatile long lastAccess;
+
+    Expiration(@Nonnull Key<?> key, @Nonnull Object instance, @Nonnull Lifecycle lifecycle, @Nonnull ReferenceQueue<Object> queue, long nanos) {
+        super(nanos);
+        this.key = key;
+        this.type = instance.getClass();
+        this.idleTimeout = lifecycle.getIdleTimeout();
+        this.lastAccess = nanos;
+
+        WeakReference<Object> owner = lifecycle.getOwner();
+        Object referent = owner != null ? owner.get() : null;
+
+        if (owner != null && referent == null) {
+            this.deadline = nanos;
+        } else {
+            this.deadline = lifecycle.getTimeToLive() >= 0 ? nanos + lifecycle.getTimeToLive() : -1;
+        }
+
+        this.owner = referent != null ? new TrackingWeakReference(referent, queue, this) : null;
+
+        switch (lifecycle.getRetention()) {
+            case SOFT:
+                this.instance = new TrackingSoftReference(instance, queue, this);
+                break;
+            case WEAK:
+                this.instance = new TrackingWeakReference(instance, queue, this);
+                break;
+            default:
+                this.instance = null;
+                break;
+        }
+
+        this.time = this.getDueTime();
+    }
+
+    /**
+     * Retrieves the time at which this expiration is due based on its time to live and idle
+     * timeout.
+     *
+     * @return a time (in nanoseconds).
+     */
+    long getDueTime() {
+        long idleDeadline = this.idleTimeout >= 0 ? this.lastAccess + this.idleTimeout : -1;
+
+        if (this.deadline == -1 && idleDeadline == -1) {
+            return Long.MAX_VALUE;
+        }
+
+        if (this.deadline == -1) {
+            return idleDeadline;
+        }
+
+        if (idleDeadline == -1) {
+            return this.deadline;
+        }
+
+        return idleDeadline - this.deadline < 0 ? idleDeadline : this.deadline;
+    }
+
+    /**
+     * Retrieves the instance which is retained by this expiration.
+     *
+     * @return an instance or, if the instance is not retained by this expiration or has been
+     * reclaimed, null.
+     */
+    @Nullable
+    Object getInstance() {
+        return this.instance != null ? this.instance.get() : null;
+    }
+
+    /**
+     * Retrieves the key of the instance which is tracked by this expiration.
+     */
+    @Nonnull
+    Key<?> getKey() {
+        return this.key;
+    }
+
+    /**
+     * Retrieves the type of the instance which is tracked by this expiration.
+     */
+    @Nonnull
+    Class<?> getType() {
+        return this.type;
+    }
+
+    /**
+     * Checks whether the instance tracked by this expiration may be reclaimed by the garbage
+     * collector (e.g. whether it is retained by this expiration rather than its entry).
+     *
+     * @return true if reclaimable, false otherwise.
+     */
+    boolean isReclaimable() {
+        return this.instance != null;
+    }
+
+    /**
+     * Checks whether the instance tracked by this expiration has been reclaimed by the garbage
+     * collector.
+     *
+     * @return true if reclaimed, false otherwise.
+     */
+    boolean isReclaimed() {
+        return this.instance != null && this.instance.get() == null;
+    }
+
+    /**
+     * Checks whether this expiration is to be scheduled within a timing wheel.
+     *
+     * @return true if timed, false otherwise.
+     */
+    boolean isTimed() {
+        return this.deadline != -1 || this.idleTimeout >= 0;
+    }
+
+    /**
+     * Releases the references of this expiration in order to prevent them from being enqueued
+     * after the instance has been removed or replaced.
+     */
+    void release() {
+        if (this.owner != null) {
+            this.owner.clear();
+        }
+
+        if (this.instance != null) {
+            this.instance.clear();
+        }
+    }
+
+    /**
+     * Records an access to the tracked instance (when the lifecycle declares an idle timeout).
+     */
+    void touch() {
+        if (this.idleTimeout < 0) {
+            return;
+        }
+
+        long nanos = System.nanoTime();
+
+        if (nanos - this.lastAccess > ACCESS_GRANULARITY) {
+            this.lastAccess = nanos;
+        }
+    }
+
+    /**
+     * Provides a reference which refers back to its expiration once it has been enqueued.
+     */
+    interface TrackingReference {
+
+        /**
+         * Retrieves the expiration which created this reference.
+         */
+        @Nonnull
+        Expiration getExpiration();
+    }
+
+    /**
+     * Provides a soft reference to a reclaimable instance.
+     */
+    private static final class TrackingSoftReference extends SoftReference<Object> implements TrackingReference {
+        private final Expiration expiration;
+
+        private TrackingSoftReference(@Nonnull Object referent, @Nonnull ReferenceQueue<Object> queue, @Nonnull Expiration expiration) {
+            super(referent, queue);
+            this.expiration = expiration;
+        }
+
+        @Nonnull
+        @Override
+        public Expiration getExpiration() {
+            return this.expiration;
+        }
+    }
+
+    /**
+     * Provides a weak reference to an owner or a reclaimable instance.
+     */
+    private static final class TrackingWeakReference extends WeakReference<Object> implements TrackingReference {
+        private final Expiration expiration;
+
+        private TrackingWeakReference(@Nonnull Object referent, @Nonnull ReferenceQueue<Object> queue, @Nonnull Expiration expiration) {
+            super(referent, queue);
+            this.expiration = expiration;
+        }
+
+        @Nonnull
+        @Override
+        public Expiration getExpiration() {
+            return this.expiration;
+        }
+    }
+}
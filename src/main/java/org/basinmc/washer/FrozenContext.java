@@ -0,0 +1,602 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.inject.Provider;
+
+/**
+ * Provides an immutable snapshot of the bindings, providers and singletons of a {@link
+ * ConcurrentContext}.<br>
+ * <br>
+ * All keys within the snapshot are indexed through a perfect hash function (using the hash and
+ * displace scheme): Every key is assigned to a bucket which stores a displacement value that has
+ * been chosen so that the keys of all buckets map to distinct slots within a dense table.
+ * As a result, each lookup consists of two array reads and a single key comparison and requires
+ * neither locks nor volatile reads. Keys which share their hash code with another key (and thus
+ * cannot be told apart by any hash function) are stored within a regular map instead.<br>
+ * <br>
+ * Keys which are bound to an implementation type (rather than a singleton or provider) construct
+ * a new instance upon each request and resolve its dependencies through this snapshot. Keys which
+ * are not part of the snapshot are resolved through the snapshot of the parent context (if any)
+ * and are considered absent otherwise. As such, neither modifications of the frozen context nor
+ * lookups within the snapshot affect each other.<br>
+ * <br>
+ * Any attempt to modify a snapshot fails with an {@link UnsupportedOperationException}. Since
+ * snapshots retain their instances for their entire lifetime, the lifecycles of frozen instances
+ * are not evaluated by {@link #refresh()}.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ * @see ConcurrentContext#freeze() for creating snapshots.
+ */
+@Immutable
+public final class FrozenContext implements Context {
+
+    /**
+     * Defines the average amount of keys per bucket.
+     */
+    private static final int BUCKET_SIZE = 4;
+
+    /**
+     * Defines the maximum displacement which is considered for a bucket before the table is
+     * enlarged.
+     */
+    private static final int MAXIMUM_DISPLACEMENT = 1 << 16;
+
+    /**
+     * Defines the maximum amount of seeds (and table sizes) which are attempted before all keys
+     * are stored within a regular map instead.
+     */
+    private static final int MAXIMUM_ATTEMPTS = 8;
+
+    private final ConcurrentContext source;
+    private final Context parent;
+    private final int seed;
+    private final int[] displacements;
+    private final int bucketMask;
+    private final int slotMask;
+    private final Key<?>[] keys;
+    private final Object[] instances;
+    private final Provider<?>[] providers;
+    private final Map<Key<?>, Integer> overflow;
+    private final Map<Class<?>, Key<?>[]> indexedKeys;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param source          the context which has been frozen.
+     * @param parent          a snapshot of the parent context (if any).
+     * @param instances       a map of keys and their respective instances.
+     * @param providers       a map of keys and their respective bound providers.
+     * @param implementations a map of keys and their respective (non-singleton) implementations.
+     * @param indexedKeys     a map of types and the keys of all components which have been
+     *                        registered for them (as returned by {@link #getAll(Class)}).
+     */
+    FrozenContext(@Nonnull ConcurrentContext source, @Nullable Context parent, @Nonnull Map<Key<?>, Object> instances, @Nonnull Map<Key<?>, Provider<?>> providers, @Nonnull Map<Key<?>, Class<?>> implementations, @Nonnull Map<Class<?>, Key<?>[]> indexedKeys) {
+        this.source = source;
+        this.parent = parent;
+        this.indexedKeys = indexedKeys;
+
+        List<Key<?>> keys = new ArrayList<>(instances.size() + providers.size() + implementations.size());
+        keys.addAll(instances.keySet());
+        keys.addAll(providers.keySet());
+        keys.addAll(implementations.keySet());
+
+        // keys which share their hash code with a previous key cannot be placed within the table
+        List<Key<?>> hashed = new ArrayList<>(keys.size());
+        List<Key<?>> colliding = new ArrayList<>();
+        Set<Integer> hashes = new HashSet<>();
+
+        for (Key<?> key : keys) {
+            (hashes.add(key.hashCode()) ? hashed : colliding).add(key);
+        }
+
+        int bucketCount = Integer.highestOneBit(Math.max(1, hashed.size() / BUCKET_SIZE) * 2 - 1);
+        int slotCount = Integer.highestOneBit(Math.max(1, hashed.size() + hashed.size() / 4) * 2 - 1);
+        int seed = 0;
+        int[] displacements = null;
+
+        for (int attempt = 0; attempt < MAXIMUM_ATTEMPTS; ++attempt) {
+            if ((displacements = place(hashed, bucketCount, slotCount, seed)) != null) {
+                break;
+            }
+
+            seed = mix(seed + 0x9e3779b9);
+
+            if ((attempt & 1) == 1) {
+                slotCount <<= 1;
+            }
+        }
+
+        if (displacements == null) {
+            colliding.addAll(hashed);
+            hashed.clear();
+
+            bucketCount = 1;
+            slotCount = 1;
+            seed = 0;
+            displacements = new int[1];
+        }
+
+        this.seed = seed;
+        this.displacements = displacements;
+        this.bucketMask = bucketCount - 1;
+        this.slotMask = slotCount - 1;
+        this.keys = new Key<?>[slotCount + colliding.size()];
+        this.instances = new Object[this.keys.length];
+        this.providers = new Provider<?>[this.keys.length];
+
+        if (colliding.isEmpty()) {
+            this.overflow = null;
+        } else {
+            this.overflow = new HashMap<>();
+
+            for (int i = 0; i < colliding.size(); ++i) {
+                this.overflow.put(colliding.get(i), slotCount + i);
+            }
+        }
+
+        for (Key<?> key : keys) {
+            Integer index = this.overflow != null ? this.overflow.get(key) : null;
+            int slot = index != null ? index : this.slot(key);
+            this.keys[slot] = key;
+
+            Object instance = instances.get(key);
+            Class<?> implementation = implementations.get(key);
+
+            if (instance != null) {
+                this.instances[slot] = instance;
+                this.providers[slot] = () -> instance;
+            } else if (implementation != null) {
+                this.providers[slot] = () -> source.construct(implementation, this);
+            } else {
+                this.providers[slot] = providers.get(key);
+            }
+        }
+    }
+
+    /**
+     * Applies a finalization step (as used by MurmurHash3) in order to distribute the bits of a
+     * hash code evenly.
+     *
+     * @param hash a hash code.
+     * @return a mixed hash code.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    /**
+     * Computes the bucket of a hash code.
+     *
+     * @param hash a (seeded) hash code.
+     * @param mask a bucket mask.
+     * @return a bucket index.
+     */
+    private static int bucket(int hash, int mask) {
+        return mix(hash) & mask;
+    }
+
+    /**
+     * Computes the slot of a hash code for a certain displacement.
+     *
+     * @param hash         a (seeded) hash code.
+     * @param displacement a displacement.
+     * @param mask         a slot mask.
+     * @return a slot index.
+     */
+    private static int slot(int hash, int displacement, int mask) {
+        return mix(hash ^ ((displacement + 1) * 0x9e3779b9)) & mask;
+    }
+
+    /**
+     * Searches for a displacement for each bucket which places all keys within distinct slots.
+     *
+     * Buckets are processed in descending order of their size since larger buckets are harder to
+     * place once the table begins to fill up.
+     *
+     * @param keys        a list of keys with distinct hash codes.
+     * @param bucketCount an amount of buckets (a power of two).
+     * @param slotCount   an amount of slots (a power of two).
+     * @param seed        a seed which is combined with the hash code of each key.
+     * @return an array of displacements or, if no displacement could be found for at least one of
+     * the buckets, null.
+     */
+    @Nullable
+    private static int[] place(@Nonnull List<Key<?>> keys, int bucketCount, int slotCount, int seed) {
+        List<List<Key<?>>> buckets = new ArrayList<>(bucketCount);
+
+        for (int i = 0; i < bucketCount; ++i) {
+            buckets.add(new ArrayList<>());
+        }
+
+        for (Key<?> key : keys) {
+            buckets.get(bucket(key.hashCode() ^ seed, bucketCount - 1)).add(key);
+        }
+
+        Integer[] order = new Integer[bucketCount];
+
+        for (int i = 0; i < bucketCount; ++i) {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        int[] displacements = new int[bucketCount];
+        boolean[] occupied = new boolean[slotCount];
+        int[] slots = new int[keys.size()];
+
+        for (int bucket : order) {
+            List<Key<?>> members = buckets.get(bucket);
+
+            if (members.isEmpty()) {
+                break;
+            }
+
+            int displacement = 0;
+
+            while (!fits(members, seed, displacement, slotCount - 1, occupied, slots)) {
+                if (++displacement == MAXIMUM_DISPLACEMENT) {
+                    return null;
+                }
+            }
+
+            for (int i = 0; i < members.size(); ++i) {
+                occupied[slots[i]] = true;
+            }
+
+            displacements[bucket] = displacement;
+        }
+
+        return displacements;
+    }
+
+    /**
+     * Checks whether all members of a bucket map to distinct unoccupied slots using a certain
+     * displacement.
+     *
+     * @param members      the keys within a bucket.
+     * @param seed         a seed which is combined with the hash code of each key.
+     * @param displacement a displacement.
+     * @param mask         a slot mask.
+     * @param occupied     the slots which have been occupied by previous buckets.
+     * @param slots        an array to which the computed slots are written.
+     * @return true if the displacement is viable, false otherwise.
+     */
+    private static boolean fits(@Nonnull List<Key<?>> members, int seed, int displacement, int mask, @Nonnull boolean[] occupied, @Nonnull int[] slots) {
+        for (int i = 0; i < members.size(); ++i) {
+            int slot = slot(members.get(i).hashCode() ^ seed, displacement, mask);
+
+            if (occupied[slot]) {
+                return false;
+            }
+
+            for (int j = 0; j < i; ++j) {
+                if (slots[j] == slot) {
+                    return false;
+                }
+            }
+
+            slots[i] = slot;
+        }
+
+        return true;
+    }
+
+    /**
+     * Creates the exception which is thrown when a modification of this snapshot is attempted.
+     */
+    @Nonnull
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("Frozen contexts cannot be modified");
+    }
+
+    /**
+     * Retrieves the slot which a key would occupy within this snapshot.
+     *
+     * @param key a key.
+     * @return a slot index.
+     */
+    private int slot(@Nonnull Key<?> key) {
+        int hash = key.hashCode() ^ this.seed;
+        return slot(hash, this.displacements[bucket(hash, this.bucketMask)], this.slotMask);
+    }
+
+    /**
+     * Looks up the slot of a key within this snapshot.
+     *
+     * @param key a key.
+     * @return a slot index or, if the key is not part of this snapshot, -1.
+     */
+    private int indexOf(@Nonnull Key<?> key) {
+        int slot = this.slot(key);
+        Key<?> candidate = this.keys[slot];
+
+        if (candidate == key || key.equals(candidate)) {
+            return slot;
+        }
+
+        if (this.overflow == null) {
+            return -1;
+        }
+
+        Integer index = this.overflow.get(key);
+        return index != null ? index : -1;
+    }
+
+    @Override
+    public <C> void bind(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Class<C> binding) {
+        throw immutable();
+    }
+
+    @Override
+    public <C> void bindProvider(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Class<Provider<C>> providerBinding) {
+        throw immutable();
+    }
+
+    @Override
+    public boolean canProduceInstance(@Nonnull Class<?> type, @Nonnull String qualifier) {
+        return this.canProduceInstance(new Key<>(type, qualifier));
+    }
+
+    @Override
+    public boolean canProduceInstance(@Nonnull Key<?> key) {
+        return this.indexOf(key) != -1 || (this.parent != null && this.parent.canProduceInstance(key));
+    }
+
+    @Override
+    public boolean canProduceInstanceLocally(@Nonnull Class<?> type, @Nonnull String qualifier) {
+        return this.canProduceInstanceLocally(new Key<>(type, qualifier));
+    }
+
+    @Override
+    public boolean canProduceInstanceLocally(@Nonnull Key<?> key) {
+        int slot = this.indexOf(key);
+        return slot != -1 && this.instances[slot] == null;
+    }
+
+    @Override
+    public void clear() {
+        throw immutable();
+    }
+
+    @Override
+    public void clearAllBindings() {
+        throw immutable();
+    }
+
+    @Override
+    public void clearAllBindings(@Nonnull Class<?> base) {
+        throw immutable();
+    }
+
+    @Override
+    public <C> void clearBinding(@Nonnull Class<C> base, @Nonnull Predicate<Class<? extends C>> filterPredicate) {
+        throw immutable();
+    }
+
+    @Override
+    public <C> void clearBinding(@Nonnull Class<C> base, @Nonnull BiPredicate<String, Class<? extends C>> filterPredicate) {
+        throw immutable();
+    }
+
+    @Override
+    public void clearBinding(@Nonnull Class<?> base, @Nonnull String qualifier) {
+        throw immutable();
+    }
+
+    @Override
+    public <C> void clearProviderBinding(@Nonnull Class<C> base, @Nonnull Predicate<Class<Provider<? extends C>>> filterPredicate) {
+        throw immutable();
+    }
+
+    @Override
+    public <C> void clearProviderBinding(@Nonnull Class<C> base, @Nonnull BiPredicate<String, Class<Provider<? extends C>>> filterPredicate) {
+        throw immutable();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> Snapshots are immutable and thus return themselves.
+     */
+    @Nonnull
+    @Override
+    public FrozenContext freeze() {
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public <T> Optional<T> get(@Nonnull Class<T> type, @Nonnull String qualifier) {
+        return Optional.ofNullable(this.getOrNull(new Key<>(type, qualifier)));
+    }
+
+    @Nonnull
+    @Override
+    public <T> Optional<T> get(@Nonnull Key<T> key) {
+        return Optional.ofNullable(this.getOrNull(key));
+    }
+
+    @Nonnull
+    @Override
+    public <T> List<T> getAll(@Nonnull Class<T> type) {
+        Key<?>[] keys = this.indexedKeys.get(type);
+
+        if (keys == null) {
+            return Collections.emptyList();
+        }
+
+        List<T> instances = new ArrayList<>(keys.length);
+
+        for (Key<?> key : keys) {
+            Object instance = this.getOrNull(key);
+
+            if (instance != null) {
+                instances.add(type.cast(instance));
+            }
+        }
+
+        return instances;
+    }
+
+    @Nonnull
+    @Override
+    public String getDefaultQualifier(@Nonnull Class<?> type) {
+        return this.source.getDefaultQualifier(type);
+    }
+
+    @Nonnull
+    @Override
+    public <T> Key<T> getKey(@Nonnull Class<T> type) {
+        return this.source.getKey(type);
+    }
+
+    @Nullable
+    @Override
+    public <T> T getOrNull(@Nonnull Key<T> key) {
+        int slot = this.indexOf(key);
+
+        if (slot == -1) {
+            return this.parent != null ? this.parent.getOrNull(key) : null;
+        }
+
+        Object instance = this.instances[slot];
+        return key.getType().cast(instance != null ? instance : this.providers[slot].get());
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Context> getParent() {
+        return Optional.ofNullable(this.parent);
+    }
+
+    @Nonnull
+    @Override
+    public <C> Optional<Provider<C>> getProvider(@Nonnull Class<C> type, @Nonnull String qualifier) {
+        return this.getProvider(new Key<>(type, qualifier));
+    }
+
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C> Optional<Provider<C>> getProvider(@Nonnull Key<C> key) {
+        int slot = this.indexOf(key);
+
+        if (slot != -1) {
+            return Optional.of((Provider<C>) this.providers[slot]);
+        }
+
+        return this.parent != null ? this.parent.getProvider(key) : Optional.empty();
+    }
+
+    @Override
+    public boolean hasInstance(@Nonnull Class<?> type, @Nonnull String qualifier) {
+        return this.hasInstance(new Key<>(type, qualifier));
+    }
+
+    @Override
+    public boolean hasInstance(@Nonnull Key<?> key) {
+        int slot = this.indexOf(key);
+
+        if (slot != -1) {
+            return this.instances[slot] != null;
+        }
+
+        return this.parent != null && this.parent.hasInstance(key);
+    }
+
+    @Override
+    public boolean hasLocalInstance(@Nonnull Class<?> type, @Nonnull String qualifier) {
+        return this.hasLocalInstance(new Key<>(type, qualifier));
+    }
+
+    @Override
+    public boolean hasLocalInstance(@Nonnull Key<?> key) {
+        int slot = this.indexOf(key);
+        return slot != -1 && this.instances[slot] != null;
+    }
+
+    @Override
+    public void inject(@Nonnull Object object) {
+        InjectionPlan.of(object.getClass()).inject(this, object);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <strong>Note:</strong> Snapshots retain their instances for their entire lifetime and thus
+     * do not evict any instances.
+     */
+    @Override
+    public void refresh() {
+    }
+
+    @Override
+    public void removeAllInstances(@Nonnull Class<?> type) {
+        throw immutable();
+    }
+
+    @Override
+    public <C> void removeInstance(@Nonnull Class<C> type, @Nonnull Predicate<C> filterPredicate) {
+        throw immutable();
+    }
+
+    @Override
+    public <C> void removeInstance(@Nonnull Class<C> type, @Nonnull BiPredicate<String, C> filterPredicate) {
+        throw immutable();
+    }
+
+    @Override
+    public void removeInstance(@Nonnull Class<?> type, @Nonnull String qualifier) {
+        throw immutable();
+    }
+
+    @Override
+    public <C> void removeInstance(@Nonnull Class<? super C> type, @Nonnull C instance) {
+        throw immutable();
+    }
+
+    @Override
+    public <C> void setInstance(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Object instance) {
+        throw immutable();
+    }
+
+    @Override
+    public <C> void setInstance(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Object instance, @Nonnull Lifecycle lifecycle) {
+        throw immutable();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.ComponentFactory;
+import org.basinmc.washer.component.ComponentInjector;
+
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Locates the factories and injectors which have been generated for component types at compile
+ * time.
+ *
+ * Lookups are performed once per type and cached for the lifetime of the respective class.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+final class GeneratedComponents {
+    private static final ClassValue<Optional<ComponentFactory<?>>> factories = new ClassValue<Optional<ComponentFactory<?>>>() {
+        @Override
+        protected Optional<ComponentFactory<?>> computeValue(Class<?> type) {
+            return Optional.ofNullable(locate(type, ComponentFactory.CLASS_NAME_SUFFIX, ComponentFactory.class));
+        }
+    };
+    private static final ClassValue<Optional<ComponentInjector<?>>> injectors = new ClassValue<Optional<ComponentInjector<?>>>() {
+        @Override
+        protected Optional<ComponentInjector<?>> computeValue(Class<?> type) {
+            return Optional.ofNullable(locate(type, ComponentInjector.CLASS_NAME_SUFFIX, ComponentInjector.class));
+        }
+    };
+
+    private GeneratedComponents() {
+    }
+
+    /**
+     * Retrieves the generated factory for a certain component type.
+     *
+     * @param type a component type.
+     * @return a factory or, if no factory has been generated, null.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static <C> ComponentFactory<C> getFactory(@Nonnull Class<C> type) {
+        return (ComponentFactory<C>) factories.get(type).orElse(null);
+    }
+
+    /**
+     * Retrieves the generated injector for the fields declared by a certain component type.
+     *
+     * @param type a component type.
+     * @return an injector or, if no injector has been generated, null.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static <C> ComponentInjector<C> getInjector(@Nonnull Class<C> type) {
+        return (ComponentInjector<C>) injectors.get(type).orElse(null);
+    }
+
+    /**
+     * Locates and constructs a generated type.
+     *
+     * @param type          a component type.
+     * @param suffix        a class name suffix.
+     * @param interfaceType an expected interface type.
+     * @return an instance of the generated type or, if no such type exists, null.
+     */
+    @Nullable
+    private static <I> I locate(@Nonnull Class<?> type, @Nonnull String suffix, @Nonnull Class<I> interfaceType) {
+        ClassLoader classLoader = type.getClassLoader();
+
+        if (classLoader == null || type.isPrimitive() || type.isArray()) {
+            return null;
+        }
+
+        try {
+            Class<?> generatedType = Class.forName(type.getName() + suffix, true, classLoader);
+
+            if (!interfaceType.isAssignableFrom(generatedType)) {
+                return null;
+            }
+
+            return interfaceType.cast(generatedType.getDeclaredConstructor().newInstance());
+        } catch (ClassNotFoundException ex) {
+            return null;
+        } catch (ReflectiveOperationException ex) {
+            throw new InjectionException("Cannot construct generated type " + type.getName() + suffix, ex);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Represents an error which occurred while constructing a component or injecting its
+ * dependencies (for instance due to a missing dependency or a failing constructor).
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class InjectionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InjectionException(@Nonnull String message) {
+        super(message);
+    }
+
+    public InjectionException(@Nonnull String message, @Nullable Throwable cause) {
+        super(message, cause);
+    }
+}
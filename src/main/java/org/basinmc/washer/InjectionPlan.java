@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.annotation.InjectByDefault;
+import org.basinmc.washer.component.ComponentInjector;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import javax.inject.Inject;
+
+/**
+ * Represents the pre-computed list of injection points within a type hierarchy.
+ *
+ * Plans are computed once per type and cached for the lifetime of the respective class. Each level
+ * of the hierarchy is either injected using its generated {@link ComponentInjector} or through a
+ * set of pre-resolved field setters when no injector has been generated. Levels are injected in
+ * order starting with the uppermost type regardless of how they are injected.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Immutable
+final class InjectionPlan {
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final ClassValue<InjectionPlan> plans = new ClassValue<InjectionPlan>() {
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            return compute(type);
+        }
+    };
+
+    private final ComponentInjector<Object>[] injectors;
+
+    private InjectionPlan(@Nonnull ComponentInjector<Object>[] injectors) {
+        this.injectors = injectors;
+    }
+
+    /**
+     * Retrieves the injection plan for a certain type.
+     *
+     * @param type a type.
+     * @return a plan.
+     */
+    @Nonnull
+    static InjectionPlan of(@Nonnull Class<?> type) {
+        return plans.get(type);
+    }
+
+    /**
+     * Computes the injection plan for a type and all of its super types (starting with the
+     * uppermost type as required by JSR-330).
+     *
+     * @param type a type.
+     * @return a plan.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private static InjectionPlan compute(@Nonnull Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        List<ComponentInjector<Object>> injectors = new ArrayList<>();
+
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.add(0, current);
+        }
+
+        for (Class<?> current : hierarchy) {
+            ComponentInjector<Object> injector = (ComponentInjector<Object>) GeneratedComponents.getInjector(current);
+
+            if (injector != null) {
+                injectors.add(injector);
+                continue;
+            }
+
+            boolean injectByDefault = current.isAnnotationPresent(InjectByDefault.class);
+            List<InjectionPoint> points = new ArrayList<>();
+
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+
+                if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+
+                if (!injectByDefault && !field.isAnnotationPresent(Inject.class)) {
+                    continue;
+                }
+
+                points.add(new InjectionPoint(current, field));
+            }
+
+            if (!points.isEmpty()) {
+                injectors.add(new ReflectiveInjector(points.toArray(new InjectionPoint[points.size()])));
+            }
+        }
+
+        return new InjectionPlan(injectors.toArray((ComponentInjector<Object>[]) new ComponentInjector<?>[injectors.size()]));
+    }
+
+    /**
+     * Injects all dependencies of an object.
+     *
+     * @param context a context to resolve dependencies from.
+     * @param object  an object.
+     * @throws InjectionException when one of the dependencies cannot be resolved.
+     */
+    void inject(@Nonnull Context context, @Nonnull Object object) {
+        for (ComponentInjector<Object> injector : this.injectors) {
+            injector.inject(context, object);
+        }
+    }
+
+    /**
+     * Injects the fields of a single type which has no generated injector using pre-resolved
+     * setters.
+     */
+    @Immutable
+    private static final class ReflectiveInjector implements ComponentInjector<Object> {
+        private final InjectionPoint[] points;
+
+        private ReflectiveInjector(@Nonnull InjectionPoint[] points) {
+            this.points = points;
+        }
+
+        @Override
+        public void inject(@Nonnull Context context, @Nonnull Object instance) {
+            for (InjectionPoint point : this.points) {
+                point.inject(context, instance);
+            }
+        }
+    }
+
+    /**
+     * Represents a single field within a type which is injected using a pre-resolved setter.
+     */
+    @Immutable
+    private static final class InjectionPoint {
+        private final Class<?> declaringType;
+        private final String name;
+        private final Dependency dependency;
+        private final MethodHandle setter;
+
+        private InjectionPoint(@Nonnull Class<?> declaringType, @Nonnull Field field) {
+            this.declaringType = declaringType;
+            this.name = field.getName();
+            this.dependency = Dependency.of(field);
+
+            try {
+                field.setAccessible(true);
+                this.setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new InjectionException("Cannot access field " + field.getName() + " of " + declaringType.getName(), ex);
+            }
+        }
+
+        private void inject(@Nonnull Context context, @Nonnull Object object) {
+            Object value = this.dependency.resolve(context);
+
+            try {
+                this.setter.invokeExact(object, value);
+            } catch (Throwable ex) {
+                throw new InjectionException("Cannot inject field " + this.name + " of " + this.declaringType.getName(), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Represents a type and qualifier pair which identifies a component within a context.<br>
+ * <br>
+ * Keys are intended to be created once (for instance when a component is initialized) and re-used
+ * for all subsequent lookups. Their hash code is computed upon construction and thus repeated
+ * lookups with the same key never hash its qualifier again.
+ *
+ * @param <T> the component type.
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ * @see Context#getKey(Class) for creating keys which use the default qualifier of a context.
+ */
+@Immutable
+public final class Key<T> {
+    private final Class<T> type;
+    private final String qualifier;
+    private final int hashCode;
+
+    Key(@Nonnull Class<T> type, @Nonnull String qualifier) {
+        this.type = type;
+        this.qualifier = qualifier;
+        this.hashCode = 31 * type.hashCode() + qualifier.hashCode();
+    }
+
+    /**
+     * Creates a new key for a certain type and qualifier.
+     *
+     * @param type      a type.
+     * @param qualifier a qualifier.
+     * @return a key.
+     */
+    @Nonnull
+    public static <T> Key<T> of(@Nonnull Class<T> type, @Nonnull String qualifier) {
+        return new Key<>(type, qualifier);
+    }
+
+    /**
+     * Retrieves the qualifier of this key.
+     */
+    @Nonnull
+    public String getQualifier() {
+        return this.qualifier;
+    }
+
+    /**
+     * Retrieves the component type of this key.
+     */
+    @Nonnull
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || this.getClass() != o.getClass()) {
+            return false;
+        }
+        Key<?> key = (Key<?>) o;
+        return this.type == key.type && this.qualifier.equals(key.qualifier);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return this.type.getName() + " (\"" + this.qualifier + "\")";
+    }
+}
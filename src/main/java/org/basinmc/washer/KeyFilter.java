@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Provides a compact Bloom filter over the keys of a context.<br>
+ * <br>
+ * Filters answer whether a key may be present within their context without accessing its entry
+ * map. Negative answers are definite while positive answers may be false with a probability of
+ * roughly three percent as long as the filter has not exceeded its capacity.<br>
+ * <br>
+ * Keys cannot be removed from a filter. Instead, every filter is associated with the version of
+ * its context and is only consulted while this version matches the version of the context. Writers
+ * add their keys to the filter before they increment the version of the context and advance the
+ * filter afterwards. Once a filter falls behind (e.g. because concurrent writers advanced out of
+ * order or the filter exceeded its capacity), it is rebuilt from the current set of keys by the
+ * writer which failed to advance it while readers treat every key as potentially present until
+ * the rebuilt filter has been published.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@ThreadSafe
+final class KeyFilter {
+    private static final AtomicLongFieldUpdater<KeyFilter> VERSION = AtomicLongFieldUpdater.newUpdater(KeyFilter.class, "version");
+    private static final int MINIMUM_CAPACITY = 64;
+    private static final int BITS_PER_KEY = 8;
+    private static final int PROBES = 3;
+
+    private final AtomicLongArray bits;
+    private final int mask;
+    private final int capacity;
+    private final AtomicInteger insertions = new AtomicInteger();
+    private volatile long version;
+
+    private KeyFilter(long version, int capacity) {
+        int size = Integer.highestOneBit(Math.max(MINIMUM_CAPACITY, capacity) * BITS_PER_KEY - 1) << 1;
+
+        this.bits = new AtomicLongArray(size >>> 6);
+        this.mask = size - 1;
+        this.capacity = size / BITS_PER_KEY;
+        this.version = version;
+    }
+
+    /**
+     * Creates a filter over a set of keys.<br>
+     * <br>
+     * The filter is sized to hold twice the amount of passed keys so that subsequently added keys
+     * do not immediately exceed its capacity.
+     *
+     * @param version the version of the context at which the keys have been retrieved.
+     * @param keys    a set of keys.
+     * @return a filter.
+     */
+    @Nonnull
+    static KeyFilter of(long version, @Nonnull Collection<Key<?>> keys) {
+        KeyFilter filter = new KeyFilter(version, keys.size() * 2);
+        keys.forEach(filter::add);
+        return filter;
+    }
+
+    /**
+     * Applies the finalization step of MurmurHash3 to a hash code.
+     *
+     * @param hash a hash code.
+     * @return a mixed hash code.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    /**
+     * Adds a key to this filter.
+     *
+     * @param key a key.
+     * @return true if the filter remains within its capacity, false otherwise.
+     */
+    boolean add(@Nonnull Key<?> key) {
+        int hash = mix(key.hashCode());
+        int step = mix(hash ^ 0x9e3779b9) | 1;
+
+        for (int i = 0; i < PROBES; ++i) {
+            int index = (hash + i * step) & this.mask;
+            long bit = 1L << index;
+
+            if ((this.bits.get(index >>> 6) & bit) == 0) {
+                this.bits.getAndAccumulate(index >>> 6, bit, (a, b) -> a | b);
+            }
+        }
+
+        return this.insertions.incrementAndGet() <= this.capacity;
+    }
+
+    /**
+     * Advances this filter to a new version of its context provided that it currently reflects
+     * the immediately preceding version.
+     *
+     * @param expected the version which this filter is expected to reflect.
+     * @param version  the new version.
+     * @return true if advanced, false otherwise.
+     */
+    boolean advance(long expected, long version) {
+        return VERSION.compareAndSet(this, expected, version);
+    }
+
+    /**
+     * Retrieves the version of the context which this filter reflects.
+     *
+     * @return a version.
+     */
+    long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Checks whether a key may have been added to this filter.
+     *
+     * @param key a key.
+     * @return true if the key may be present, false if it is definitely absent.
+     */
+    boolean mightContain(@Nonnull Key<?> key) {
+        int hash = mix(key.hashCode());
+        int step = mix(hash ^ 0x9e3779b9) | 1;
+
+        for (int i = 0; i < PROBES; ++i) {
+            int index = (hash + i * step) & this.mask;
+
+            if ((this.bits.get(index >>> 6) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Describes when an instance which is stored within a context is to be evicted.<br>
+ * <br>
+ * Lifecycles may combine a time to live (e.g. a maximum duration after the instance has been
+ * stored), an idle timeout (e.g. a maximum duration after the instance has last been retrieved)
+ * and an owner (e.g. an object which keeps the instance alive for as long as it remains strongly
+ * reachable). An instance is evicted as soon as any of these conditions expires.<br>
+ * <br>
+ * In addition, lifecycles may declare a {@link Retention} which permits the garbage collector to
+ * reclaim their instance (for instance when it is merely a cache which may be re-created on
+ * demand). Reclaimed instances are treated as if they had been removed from their context.<br>
+ * <br>
+ * Evictions are performed when {@link Context#refresh()} is invoked.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Immutable
+public final class Lifecycle {
+
+    /**
+     * Represents a lifecycle which never expires (e.g. instances are retained until they are
+     * explicitly removed).
+     */
+    public static final Lifecycle PERMANENT = new Lifecycle(-1, -1, null, Retention.STRONG);
+
+    /**
+     * Defines the maximum supported duration (about 146 years) which permits comparisons between
+     * deadlines without overflowing.
+     */
+    private static final long MAXIMUM_DURATION = Long.MAX_VALUE >> 1;
+
+    private final long timeToLive;
+    private final long idleTimeout;
+    private final WeakReference<Object> owner;
+    private final Retention retention;
+
+    private Lifecycle(long timeToLive, long idleTimeout, @Nullable WeakReference<Object> owner, @Nonnull Retention retention) {
+        this.timeToLive = timeToLive;
+        this.idleTimeout = idleTimeout;
+        this.owner = owner;
+        this.retention = retention;
+    }
+
+    /**
+     * Creates a lifecycle which expires once its owner is no longer strongly reachable.
+     *
+     * @param owner an owner (such as a player or chunk).
+     * @return a lifecycle.
+     */
+    @Nonnull
+    public static Lifecycle boundTo(@Nonnull Object owner) {
+        return PERMANENT.withOwner(owner);
+    }
+
+    /**
+     * Creates a lifecycle which expires when its instance has not been retrieved for a certain
+     * duration.
+     *
+     * @param idleTimeout a duration.
+     * @return a lifecycle.
+     */
+    @Nonnull
+    public static Lifecycle idleTimeout(@Nonnull Duration idleTimeout) {
+        return PERMANENT.withIdleTimeout(idleTimeout);
+    }
+
+    /**
+     * Creates a lifecycle which retains its instance through a certain type of reference.
+     *
+     * @param retention a retention.
+     * @return a lifecycle.
+     */
+    @Nonnull
+    public static Lifecycle retained(@Nonnull Retention retention) {
+        return PERMANENT.withRetention(retention);
+    }
+
+    /**
+     * Creates a lifecycle which expires after a certain duration has passed since its instance has
+     * been stored.
+     *
+     * @param timeToLive a duration.
+     * @return a lifecycle.
+     */
+    @Nonnull
+    public static Lifecycle timeToLive(@Nonnull Duration timeToLive) {
+        return PERMANENT.withTimeToLive(timeToLive);
+    }
+
+    /**
+     * Retrieves the idle timeout of this lifecycle.
+     *
+     * @return a timeout (in nanoseconds) or, if no idle timeout was declared, a negative value.
+     */
+    long getIdleTimeout() {
+        return this.idleTimeout;
+    }
+
+    /**
+     * Retrieves the owner of this lifecycle.
+     *
+     * @return a reference to the owner or, if no owner was declared, null.
+     */
+    @Nullable
+    WeakReference<Object> getOwner() {
+        return this.owner;
+    }
+
+    /**
+     * Checks whether instances of this lifecycle are retained until they are explicitly removed.
+     *
+     * @return true if permanent, false otherwise.
+     */
+    boolean isPermanent() {
+        return this.timeToLive < 0 && this.idleTimeout < 0 && this.owner == null && this.retention == Retention.STRONG;
+    }
+
+    /**
+     * Retrieves the type of reference through which instances of this lifecycle are retained.
+     */
+    @Nonnull
+    Retention getRetention() {
+        return this.retention;
+    }
+
+    /**
+     * Retrieves the time to live of this lifecycle.
+     *
+     * @return a duration (in nanoseconds) or, if no time to live was declared, a negative value.
+     */
+    long getTimeToLive() {
+        return this.timeToLive;
+    }
+
+    /**
+     * Checks whether this lifecycle expires based on the passed time.
+     *
+     * @return true if timed, false otherwise.
+     */
+    boolean isTimed() {
+        return this.timeToLive >= 0 || this.idleTimeout >= 0;
+    }
+
+    /**
+     * Creates a copy of this lifecycle which additionally expires when its instance has not been
+     * retrieved for a certain duration.
+     *
+     * @param idleTimeout a duration.
+     * @return a lifecycle.
+     */
+    @Nonnull
+    public Lifecycle withIdleTimeout(@Nonnull Duration idleTimeout) {
+        return new Lifecycle(this.timeToLive, toNanos(idleTimeout), this.owner, this.retention);
+    }
+
+    /**
+     * Creates a copy of this lifecycle which additionally expires once its owner is no longer
+     * strongly reachable.
+     *
+     * @param owner an owner.
+     * @return a lifecycle.
+     */
+    @Nonnull
+    public Lifecycle withOwner(@Nonnull Object owner) {
+        return new Lifecycle(this.timeToLive, this.idleTimeout, new WeakReference<>(owner), this.retention);
+    }
+
+    /**
+     * Creates a copy of this lifecycle which retains its instance through a certain type of
+     * reference.
+     *
+     * @param retention a retention.
+     * @return a lifecycle.
+     */
+    @Nonnull
+    public Lifecycle withRetention(@Nonnull Retention retention) {
+        return new Lifecycle(this.timeToLive, this.idleTimeout, this.owner, retention);
+    }
+
+    /**
+     * Creates a copy of this lifecycle which additionally expires after a certain duration has
+     * passed since its instance has been stored.
+     *
+     * @param timeToLive a duration.
+     * @return a lifecycle.
+     */
+    @Nonnull
+    public Lifecycle withTimeToLive(@Nonnull Duration timeToLive) {
+        return new Lifecycle(toNanos(timeToLive), this.idleTimeout, this.owner, this.retention);
+    }
+
+    /**
+     * Converts a non-negative duration into nanoseconds.
+     *
+     * @param duration a duration.
+     * @return a number of nanoseconds.
+     *
+     * @throws IllegalArgumentException when the duration is negative.
+     */
+    private static long toNanos(@Nonnull Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Duration must be positive or zero: " + duration);
+        }
+
+        try {
+            return Math.min(duration.toNanos(), MAXIMUM_DURATION);
+        } catch (ArithmeticException ex) {
+            return MAXIMUM_DURATION;
+        }
+    }
+
+    /**
+     * Provides a list of reference types through which a context may retain its instances.
+     */
+    public enum Retention {
+
+        /**
+         * Retains instances through strong references (e.g. instances are never reclaimed by the
+         * garbage collector while they are stored within a context).
+         */
+        STRONG,
+
+        /**
+         * Retains instances through soft references (e.g. instances are reclaimed when the
+         * virtual machine runs low on memory and no strong references to them remain).
+         */
+        SOFT,
+
+        /**
+         * Retains instances through weak references (e.g. instances are reclaimed as soon as no
+         * strong references to them remain).
+         */
+        WEAK
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Provides a hierarchical timing wheel which schedules nodes based on their expiration time.<br>
+ * <br>
+ * The wheel consists of multiple levels of buckets where each level covers an increasingly coarse
+ * span of time (roughly 17 milliseconds, 1 second, 1 minute and 1 hour per bucket respectively
+ * with an additional overflow bucket for all deadlines beyond three days). Scheduling and
+ * descheduling nodes are constant time operations while advancing the wheel only visits the
+ * buckets which have passed since the previous advance. Nodes which are not due yet when their
+ * bucket is visited (for instance because they reside within a coarse bucket) are re-scheduled
+ * within a finer level.<br>
+ * <br>
+ * As a result of its bucket size, the wheel may report nodes up to one bucket span (roughly 17
+ * milliseconds) after their expiration time. All times are expected to originate from {@link
+ * System#nanoTime()} and are internally tracked relative to the creation of the wheel.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@NotThreadSafe
+final class TimerWheel {
+    private static final int[] BUCKETS = {64, 64, 64, 64, 1};
+    private static final int[] SHIFTS = {24, 30, 36, 42, 48};
+
+    private final Node[][] wheel;
+    private final long origin;
+    private long nanos;
+
+    TimerWheel(long nanos) {
+        this.origin = nanos;
+        this.wheel = new Node[BUCKETS.length][];
+
+        for (int i = 0; i < BUCKETS.length; ++i) {
+            this.wheel[i] = new Node[BUCKETS[i]];
+
+            for (int j = 0; j < BUCKETS[i]; ++j) {
+                this.wheel[i][j] = new Node();
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel to the passed time and reports all nodes which have expired.<br>
+     * <br>
+     * Expired nodes are removed from the wheel before they are passed to the consumer and may thus
+     * be re-scheduled by the consumer.
+     *
+     * @param nanos   the current time (in nanoseconds).
+     * @param expired a consumer which receives all expired nodes.
+     */
+    void advance(long nanos, @Nonnull Consumer<Node> expired) {
+        long previous = this.nanos;
+        this.nanos = nanos - this.origin;
+
+        for (int i = 0; i < SHIFTS.length; ++i) {
+            long previousTicks = previous >>> SHIFTS[i];
+            long currentTicks = this.nanos >>> SHIFTS[i];
+
+            if (currentTicks - previousTicks <= 0) {
+                break;
+            }
+
+            this.expire(i, previousTicks, currentTicks - previousTicks, expired);
+        }
+    }
+
+    /**
+     * Removes a node from the wheel (if it is currently scheduled).
+     *
+     * @param node a node.
+     */
+    void deschedule(@Nonnull Node node) {
+        if (node.next == null) {
+            return;
+        }
+
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * Visits all buckets of a certain level which have passed since the previous advance.
+     *
+     * @param level         a level.
+     * @param previousTicks the number of ticks (within the level) at the time of the previous
+     *                      advance.
+     * @param delta         the number of ticks which have passed since the previous advance.
+     * @param expired       a consumer which receives all expired nodes.
+     */
+    private void expire(int level, long previousTicks, long delta, @Nonnull Consumer<Node> expired) {
+        Node[] buckets = this.wheel[level];
+        int mask = buckets.length - 1;
+        int steps = (int) Math.min(delta + 1, buckets.length);
+        int start = (int) (previousTicks & mask);
+
+        for (int i = start; i < start + steps; ++i) {
+            Node sentinel = buckets[i & mask];
+            Node node = sentinel.next;
+
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+
+            while (node != sentinel) {
+                Node next = node.next;
+                node.prev = null;
+                node.next = null;
+
+                if (node.time - this.origin - this.nanos > 0) {
+                    this.schedule(node);
+                } else {
+                    expired.accept(node);
+                }
+
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * Schedules a node based on its expiration time. Nodes which are currently scheduled are
+     * moved to their new bucket.
+     *
+     * @param node a node.
+     */
+    void schedule(@Nonnull Node node) {
+        this.deschedule(node);
+
+        long time = Math.max(node.time - this.origin, this.nanos);
+        long duration = time - this.nanos;
+        Node sentinel = this.wheel[BUCKETS.length - 1][0];
+
+        for (int i = 0; i < BUCKETS.length - 1; ++i) {
+            if (duration < (1L << SHIFTS[i + 1])) {
+                sentinel = this.wheel[i][(int) ((time >>> SHIFTS[i]) & (BUCKETS[i] - 1))];
+                break;
+            }
+        }
+
+        node.next = sentinel;
+        node.prev = sentinel.prev;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    /**
+     * Represents an element within the wheel (or the sentinel of a bucket).
+     */
+    @NotThreadSafe
+    static class Node {
+        long time;
+        private Node prev;
+        private Node next;
+
+        private Node() {
+            this.prev = this;
+            this.next = this;
+        }
+
+        /**
+         * Creates a new unscheduled node.
+         *
+         * @param time an expiration time (in nanoseconds).
+         */
+        Node(long time) {
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Indexes the keys of a context by their type and each of its supertypes.<br>
+ * <br>
+ * Every key is recorded under its own type as well as all superclasses and interfaces of its type
+ * (with the exception of {@link Object} which would merely duplicate the entire key set). Bulk
+ * operations which target a certain type as well as lookups of instances which have been stored
+ * under a subtype of the requested type may thus visit the matching keys directly instead of
+ * scanning every key within their context.<br>
+ * <br>
+ * The supertypes of a type are computed once per class. Since the index is updated outside of the
+ * map it describes, callers are expected to update it while holding the lock on the respective
+ * key (e.g. from within a compute function) and to verify the current state of each key they
+ * retrieve from the index.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@ThreadSafe
+final class TypeIndex {
+    private static final ClassValue<Class<?>[]> supertypes = new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+            Set<Class<?>> result = new LinkedHashSet<>();
+            Deque<Class<?>> queue = new ArrayDeque<>();
+            queue.add(type);
+
+            while (!queue.isEmpty()) {
+                Class<?> current = queue.poll();
+                Class<?> superclass = current.getSuperclass();
+
+                if (superclass != null && superclass != Object.class && result.add(superclass)) {
+                    queue.add(superclass);
+                }
+
+                for (Class<?> superinterface : current.getInterfaces()) {
+                    if (result.add(superinterface)) {
+                        queue.add(superinterface);
+                    }
+                }
+            }
+
+            return result.toArray(new Class<?>[result.size()]);
+        }
+    };
+
+    private final ConcurrentMap<Class<?>, Set<Key<?>>> keys = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Set<Key<?>>> subtypeKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieves all superclasses and interfaces of a type (excluding {@link Object}).
+     *
+     * @param type a type.
+     * @return an array of supertypes in breadth-first order.
+     */
+    @Nonnull
+    static Class<?>[] getSupertypes(@Nonnull Class<?> type) {
+        return supertypes.get(type);
+    }
+
+    /**
+     * Adds a key to a set within an index map.
+     *
+     * @param map  an index map.
+     * @param type a type.
+     * @param key  a key.
+     */
+    private static void add(@Nonnull ConcurrentMap<Class<?>, Set<Key<?>>> map, @Nonnull Class<?> type, @Nonnull Key<?> key) {
+        map.compute(type, (t, s) -> {
+            Set<Key<?>> set = s != null ? s : ConcurrentHashMap.newKeySet();
+            set.add(key);
+            return set;
+        });
+    }
+
+    /**
+     * Removes a key from a set within an index map and discards the set once it is empty.
+     *
+     * @param map  an index map.
+     * @param type a type.
+     * @param key  a key.
+     */
+    private static void remove(@Nonnull ConcurrentMap<Class<?>, Set<Key<?>>> map, @Nonnull Class<?> type, @Nonnull Key<?> key) {
+        map.computeIfPresent(type, (t, s) -> {
+            s.remove(key);
+            return s.isEmpty() ? null : s;
+        });
+    }
+
+    /**
+     * Records a key within this index.
+     *
+     * @param key a key.
+     */
+    void add(@Nonnull Key<?> key) {
+        add(this.keys, key.getType(), key);
+
+        for (Class<?> supertype : getSupertypes(key.getType())) {
+            add(this.subtypeKeys, supertype, key);
+        }
+    }
+
+    /**
+     * Retrieves all keys of a certain type.
+     *
+     * @param type a type.
+     * @return a set of keys.
+     */
+    @Nonnull
+    Set<Key<?>> getKeys(@Nonnull Class<?> type) {
+        return this.keys.getOrDefault(type, Collections.emptySet());
+    }
+
+    /**
+     * Retrieves all keys of strict subtypes of a certain type.
+     *
+     * @param type a type other than {@link Object}.
+     * @return a set of keys.
+     */
+    @Nonnull
+    Set<Key<?>> getSubtypeKeys(@Nonnull Class<?> type) {
+        return this.subtypeKeys.getOrDefault(type, Collections.emptySet());
+    }
+
+    /**
+     * Updates the index based on the previous and new state of a key.
+     *
+     * @param key     a key.
+     * @param present true if the key was present before, false otherwise.
+     * @param updated true if the key is present now, false otherwise.
+     */
+    void update(@Nonnull Key<?> key, boolean present, boolean updated) {
+        if (!present && updated) {
+            this.add(key);
+        } else if (present && !updated) {
+            this.remove(key);
+        }
+    }
+
+    /**
+     * Removes a key from this index.
+     *
+     * @param key a key.
+     */
+    void remove(@Nonnull Key<?> key) {
+        remove(this.keys, key.getType(), key);
+
+        for (Class<?> supertype : getSupertypes(key.getType())) {
+            remove(this.subtypeKeys, supertype, key);
+        }
+    }
+}
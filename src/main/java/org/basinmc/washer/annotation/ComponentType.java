@@ -17,6 +17,7 @@
 package org.basinmc.washer.annotation;
 
 import org.basinmc.washer.component.ComponentTypeScanner;
+import org.basinmc.washer.component.InitializationStrategy;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -56,4 +57,13 @@ public @interface ComponentType {
      */
     @Nonnull
     Class<?> type() default Object.class;
+
+    /**
+     * Defines the strategy which dictates when components of this type are initialized when they
+     * have been discovered by a context.
+     *
+     * @return an initialization strategy.
+     */
+    @Nonnull
+    InitializationStrategy initialization() default InitializationStrategy.LAZY;
 }
@@ -56,6 +56,17 @@ public interface ComponentDefinition<C> {
     @Nonnull
     Optional<Class<? extends C>> getImplementationType();
 
+    /**
+     * Retrieves the strategy which dictates when instances of this definition are to be
+     * initialized.
+     *
+     * @return an initialization strategy.
+     */
+    @Nonnull
+    default InitializationStrategy getInitializationStrategy() {
+        return InitializationStrategy.LAZY;
+    }
+
     /**
      * Retrieves the numerical order of priority this definition has where {@link Integer#MAX_VALUE}
      * is the highest and {@link Integer#MIN_VALUE} is the lowest priority.
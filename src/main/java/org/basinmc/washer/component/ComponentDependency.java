@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.component;
+
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Describes a single dependency of a component type (e.g. a constructor parameter or injectable
+ * field) as it has been recorded at compile time.<br>
+ * <br>
+ * Generated factories expose the dependencies of their component type through {@link
+ * ComponentFactory#getDependencies()} and thus permit the context to verify dependency graphs
+ * without reflectively inspecting the component type.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Immutable
+public final class ComponentDependency {
+    private final Class<?> type;
+    private final String qualifier;
+    private final Kind kind;
+
+    private ComponentDependency(@Nonnull Class<?> type, @Nullable String qualifier, @Nonnull Kind kind) {
+        this.type = type;
+        this.qualifier = qualifier;
+        this.kind = kind;
+    }
+
+    /**
+     * Creates a new dependency.
+     *
+     * @param type      the type of the requested component (e.g. the type argument of a provider
+     *                  or lazy reference).
+     * @param qualifier an explicit qualifier or, if the default qualifier shall be used, null.
+     * @param kind      the way in which the dependency is injected.
+     * @return a dependency.
+     */
+    @Nonnull
+    public static ComponentDependency of(@Nonnull Class<?> type, @Nullable String qualifier, @Nonnull Kind kind) {
+        return new ComponentDependency(type, qualifier, kind);
+    }
+
+    /**
+     * Retrieves the way in which this dependency is injected.
+     */
+    @Nonnull
+    public Kind getKind() {
+        return this.kind;
+    }
+
+    /**
+     * Retrieves the explicit qualifier of this dependency (if any).
+     */
+    @Nullable
+    public String getQualifier() {
+        return this.qualifier;
+    }
+
+    /**
+     * Retrieves the type of the requested component.
+     */
+    @Nonnull
+    public Class<?> getType() {
+        return this.type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || this.getClass() != o.getClass()) {
+            return false;
+        }
+        ComponentDependency that = (ComponentDependency) o;
+        return this.type == that.type && Objects.equals(this.qualifier, that.qualifier) && this.kind == that.kind;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.type, this.qualifier, this.kind);
+    }
+
+    @Override
+    public String toString() {
+        return this.kind + " " + this.type.getName() + (this.qualifier != null ? " (\"" + this.qualifier + "\")" : "");
+    }
+
+    /**
+     * Provides a list of ways in which a dependency may be injected.
+     */
+    public enum Kind {
+
+        /**
+         * The component itself is injected and thus has to be constructed before its dependant.
+         */
+        INSTANCE,
+
+        /**
+         * A {@link javax.inject.Provider} of the component is injected.
+         */
+        PROVIDER,
+
+        /**
+         * A {@link Lazy} reference to the component is injected.
+         */
+        LAZY,
+
+        /**
+         * A lazily resolving proxy of the component is injected.
+         */
+        PROXY
+    }
+}
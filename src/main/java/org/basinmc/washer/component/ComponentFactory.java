@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.component;
+
+import org.basinmc.washer.Context;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Constructs instances of a component type without the use of reflection.
+ *
+ * Implementations of this interface are generated at compile time and will be picked up by the
+ * context when they are located next to their respective component type using the name of the
+ * component type suffixed with {@link #CLASS_NAME_SUFFIX}.
+ *
+ * <strong>Note:</strong> Factories are only responsible for invoking the constructor of a
+ * component. Fields are injected by the context once the instance has been constructed.
+ * Nevertheless, factories describe all dependencies of their component type (including its
+ * injectable fields) in order to spare the context from inspecting the type reflectively.
+ *
+ * @param <C> the component type.
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public interface ComponentFactory<C> {
+
+    /**
+     * Defines the suffix which is appended to the binary name of a component type in order to
+     * produce the name of its generated factory.
+     */
+    String CLASS_NAME_SUFFIX = "$$WasherFactory";
+
+    /**
+     * Constructs a new instance of the component type using the dependencies provided by a
+     * context.
+     *
+     * @param context a context.
+     * @return a new instance.
+     *
+     * @throws org.basinmc.washer.InjectionException when one of the constructor dependencies
+     *                                               cannot be resolved.
+     */
+    @Nonnull
+    C newInstance(@Nonnull Context context);
+
+    /**
+     * Retrieves all dependencies which are required in order to construct and inject an instance
+     * of the component type (e.g. its constructor parameters as well as the injectable fields of
+     * the type and its superclasses).
+     *
+     * @return a list of dependencies or, if the dependencies of the component type are unknown to
+     * this factory, null.
+     */
+    @Nullable
+    default List<ComponentDependency> getDependencies() {
+        return null;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Provides access to the component index which is generated at compile time for every artifact
+ * which declares components.<br>
+ * <br>
+ * The index lists all types which carry an annotation that is meta-annotated with {@link
+ * org.basinmc.washer.annotation.ComponentType} or {@link org.basinmc.washer.component.constraint.Constraint}
+ * and thus permits the discovery of components without scanning the class path. Each line within
+ * an index file represents a single annotation of a component and consists of the following
+ * tab separated values:<br>
+ * <br>
+ * <pre>
+ * &lt;component type&gt; &lt;annotation type&gt; &lt;kind&gt; &lt;scanner or constraint type&gt; &lt;component base type&gt;
+ * </pre>
+ *
+ * All types are referenced by their binary names. The component base type is only present for
+ * component type annotations. Empty lines and lines starting with {@code #} are ignored.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Immutable
+public final class ComponentIndex {
+
+    /**
+     * Defines the name of the index resource within an artifact.
+     */
+    public static final String RESOURCE_NAME = "META-INF/washer/components";
+
+    private final Map<String, List<Entry>> entries;
+
+    private ComponentIndex(@Nonnull Map<String, List<Entry>> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Loads and merges all component indices which are visible to a class loader.
+     *
+     * @param classLoader a class loader.
+     * @return an index.
+     *
+     * @throws UncheckedIOException when one of the indices cannot be read.
+     */
+    @Nonnull
+    public static ComponentIndex load(@Nonnull ClassLoader classLoader) {
+        Map<String, List<Entry>> entries = new LinkedHashMap<>();
+
+        try {
+            Enumeration<URL> resources = classLoader.getResources(RESOURCE_NAME);
+
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+
+                        if (line.isEmpty() || line.startsWith("#")) {
+                            continue;
+                        }
+
+                        String[] values = line.split("\t");
+
+                        if (values.length < 4) {
+                            throw new IOException("Malformed component index entry in " + resource + ": " + line);
+                        }
+
+                        Entry entry = new Entry(values[1], Kind.valueOf(values[2]), values[3], values.length > 4 ? values[4] : Object.class.getName());
+                        entries.computeIfAbsent(values[0], (k) -> new ArrayList<>()).add(entry);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read component index", ex);
+        }
+
+        entries.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        return new ComponentIndex(Collections.unmodifiableMap(entries));
+    }
+
+    /**
+     * Retrieves the binary names of all indexed component types.
+     *
+     * @return a set of type names.
+     */
+    @Nonnull
+    public Set<String> getComponentNames() {
+        return this.entries.keySet();
+    }
+
+    /**
+     * Retrieves all indexed annotations of a certain component type.
+     *
+     * @param componentName the binary name of a component type.
+     * @return a list of entries.
+     */
+    @Nonnull
+    public List<Entry> getEntries(@Nonnull String componentName) {
+        return this.entries.getOrDefault(componentName, Collections.emptyList());
+    }
+
+    /**
+     * Provides a list of annotation kinds which are recorded within the index.
+     */
+    public enum Kind {
+
+        /**
+         * Annotations which have been meta-annotated with {@link org.basinmc.washer.annotation.ComponentType}.
+         */
+        COMPONENT_TYPE,
+
+        /**
+         * Annotations which have been meta-annotated with {@link org.basinmc.washer.component.constraint.Constraint}.
+         */
+        CONSTRAINT
+    }
+
+    /**
+     * Represents a single indexed annotation of a component type.
+     */
+    @Immutable
+    public static final class Entry {
+        private final String annotationName;
+        private final Kind kind;
+        private final String handlerName;
+        private final String typeName;
+
+        private Entry(@Nonnull String annotationName, @Nonnull Kind kind, @Nonnull String handlerName, @Nonnull String typeName) {
+            this.annotationName = annotationName;
+            this.kind = kind;
+            this.handlerName = handlerName;
+            this.typeName = typeName;
+        }
+
+        /**
+         * Retrieves the binary name of the annotation type.
+         */
+        @Nonnull
+        public String getAnnotationName() {
+            return this.annotationName;
+        }
+
+        /**
+         * Retrieves the binary name of the scanner (for component type annotations) or constraint
+         * (for constraint annotations) which handles the annotation.
+         */
+        @Nonnull
+        public String getHandlerName() {
+            return this.handlerName;
+        }
+
+        /**
+         * Retrieves the kind of annotation.
+         */
+        @Nonnull
+        public Kind getKind() {
+            return this.kind;
+        }
+
+        /**
+         * Retrieves the binary name of the type which components of this type are required to
+         * implement (as declared by {@link org.basinmc.washer.annotation.ComponentType#type()}).
+         */
+        @Nonnull
+        public String getTypeName() {
+            return this.typeName;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.component;
+
+import org.basinmc.washer.Context;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Injects the fields declared by a component type without the use of reflection.
+ *
+ * Implementations of this interface are generated at compile time and will be picked up by the
+ * context when they are located next to their respective component type using the name of the
+ * component type suffixed with {@link #CLASS_NAME_SUFFIX}.
+ *
+ * <strong>Note:</strong> Injectors are only responsible for the fields declared by their exact
+ * component type. Fields declared by super types are injected using their own respective
+ * injectors.
+ *
+ * @param <C> the component type.
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public interface ComponentInjector<C> {
+
+    /**
+     * Defines the suffix which is appended to the binary name of a component type in order to
+     * produce the name of its generated injector.
+     */
+    String CLASS_NAME_SUFFIX = "$$WasherInjector";
+
+    /**
+     * Injects all fields of an instance using the dependencies provided by a context.
+     *
+     * @param context  a context.
+     * @param instance an instance.
+     * @throws org.basinmc.washer.InjectionException when one of the field dependencies cannot be
+     *                                               resolved.
+     */
+    void inject(@Nonnull Context context, @Nonnull C instance);
+}
@@ -19,6 +19,7 @@ package org.basinmc.washer.component;
 import org.basinmc.washer.annotation.ComponentType;
 
 import java.lang.annotation.Annotation;
+import java.util.List;
 
 import javax.annotation.Nonnull;
 
@@ -69,6 +70,30 @@ public interface ComponentTypeScanner<A extends Annotation, C> {
     default void onDestruct(@Nonnull A annotation, @Nonnull C instance) {
     }
 
+    /**
+     * Handles the destruction of a batch of component instances (e.g. when all instances are
+     * removed from a context at once).<br>
+     * <br>
+     * By default, {@link #onDestruct(Annotation, Object)} is invoked for every instance before
+     * {@link #onPostDestruct(Annotation, Class)} is invoked for every instance. Scanners which
+     * perform expensive work upon destruction (such as flushing buffers) may override this method
+     * in order to process the entire batch at once.
+     *
+     * @param annotations the annotations which caused this scanner to be notified (in the order of
+     *                    their respective instances).
+     * @param instances   the destructed instances.
+     */
+    @SuppressWarnings("unchecked")
+    default void onDestruct(@Nonnull List<A> annotations, @Nonnull List<C> instances) {
+        for (int i = 0; i < instances.size(); ++i) {
+            this.onDestruct(annotations.get(i), instances.get(i));
+        }
+
+        for (int i = 0; i < instances.size(); ++i) {
+            this.onPostDestruct(annotations.get(i), (Class<? extends C>) instances.get(i).getClass());
+        }
+    }
+
     /**
      * Handles the post-destruction (e.g. when an instance has been removed from the context).
      *
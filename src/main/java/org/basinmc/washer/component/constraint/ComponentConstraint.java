@@ -19,6 +19,8 @@ package org.basinmc.washer.component.constraint;
 import org.basinmc.washer.component.ComponentDefinition;
 
 import java.lang.annotation.Annotation;
+import java.util.Optional;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 
@@ -30,6 +32,22 @@ import javax.annotation.Nonnull;
  */
 public interface ComponentConstraint<A extends Annotation> {
 
+    /**
+     * Retrieves the inputs which the result of this constraint depends on.<br>
+     * <br>
+     * When inputs are declared, the result of {@link #matches(Annotation, ComponentDefinition)} is
+     * cached until the value of at least one input changes. Constraints which do not depend on any
+     * state may declare an empty set of inputs in order to be evaluated exactly once.
+     *
+     * @param annotation a constraint annotation.
+     * @return a set of inputs or, if the inputs of this constraint are unknown (e.g. it is to be
+     * evaluated every time), an empty optional.
+     */
+    @Nonnull
+    default Optional<Set<ConstraintInput>> getInputs(@Nonnull A annotation) {
+        return Optional.empty();
+    }
+
     /**
      * Checks whether the passed component matches this constraint and is thus to be initialized.
      *
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.component.constraint;
+
+import org.basinmc.washer.Context;
+import org.basinmc.washer.Key;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Represents a value which the result of a constraint depends on.
+ *
+ * Inputs are queried every time a constraint is to be evaluated. Since the result of the
+ * constraint is re-used as long as none of its input values change, inputs are expected to be
+ * significantly cheaper to query than the constraint itself and to implement {@link
+ * Object#equals(Object)} on their values.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ * @see ComponentConstraint#getInputs(java.lang.annotation.Annotation)
+ */
+@FunctionalInterface
+public interface ConstraintInput {
+
+    /**
+     * Creates an input which represents the presence of a component (e.g. whether an instance
+     * exists or can be produced) within the evaluating context.
+     *
+     * @param key a component key.
+     * @return an input.
+     */
+    @Nonnull
+    static ConstraintInput component(@Nonnull Key<?> key) {
+        return (c) -> c.hasInstance(key) || c.canProduceInstance(key);
+    }
+
+    /**
+     * Creates an input which represents the value of an environment variable.
+     *
+     * @param name a variable name.
+     * @return an input.
+     */
+    @Nonnull
+    static ConstraintInput environmentVariable(@Nonnull String name) {
+        return (c) -> System.getenv(name);
+    }
+
+    /**
+     * Creates an input which represents the value of a system property.
+     *
+     * @param name a property name.
+     * @return an input.
+     */
+    @Nonnull
+    static ConstraintInput systemProperty(@Nonnull String name) {
+        return (c) -> System.getProperty(name);
+    }
+
+    /**
+     * Retrieves the current value of this input.
+     *
+     * @param context the context which evaluates the constraint.
+     * @return a value or null.
+     */
+    @Nullable
+    Object getValue(@Nonnull Context context);
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.metrics;
+
+import org.basinmc.washer.Key;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Records the initialization of components in order to identify the components which determine
+ * the startup time of an application.<br>
+ * <br>
+ * Profilers are enabled by passing them to the root context of a hierarchy (child contexts inherit
+ * the listener of their parent). Each discovery, constraint evaluation, scanner notification,
+ * construction, provision and eager initialization is recorded along with the thread it occurred
+ * on. Constructions which complete within another operation on the same thread are attributed to
+ * this operation as its dependencies while eager components additionally record the eager
+ * components they had to wait for.<br>
+ * <br>
+ * Profilers retain every recorded operation and are thus intended to be used during startup only:
+ * As the listener of a context cannot be replaced, {@link #stop()} is expected to be invoked once
+ * the startup has completed in order to release all recorded operations and ignore any further
+ * notifications.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ * @see ContextMetrics#bootProfiler() for creating a profiler.
+ */
+@ThreadSafe
+public final class BootProfiler implements ContextMetrics {
+    private static final AtomicIntegerFieldUpdater<BootProfiler> STOPPED = AtomicIntegerFieldUpdater.newUpdater(BootProfiler.class, "stopped");
+
+    private final long origin = System.nanoTime();
+    private final Map<Class<?>, Long> discoveries = new ConcurrentHashMap<>();
+    private final Queue<Frame> frames = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Frame> frame = ThreadLocal.withInitial(() -> {
+        Frame frame = new Frame();
+        this.frames.add(frame);
+        return frame;
+    });
+    private volatile int stopped;
+    private volatile BootReport result;
+
+    BootProfiler() {
+    }
+
+    /**
+     * Attributes all records which completed within a certain time frame on the current thread
+     * to a new record and pushes the new record onto the stack of the current thread.
+     *
+     * @param record a record.
+     */
+    private void complete(@Nonnull Record record) {
+        Deque<Record> completed = this.frame.get().completed;
+
+        while (!completed.isEmpty() && completed.peekFirst().start >= record.start) {
+            record.dependencies.add(0, completed.pollFirst());
+        }
+
+        completed.addFirst(record);
+    }
+
+    @Override
+    public void onConstruct(@Nonnull Class<?> type, long duration) {
+        if (this.stopped != 0) {
+            return;
+        }
+
+        long end = System.nanoTime();
+        long[] pending = this.frame.get().pending.remove(type);
+        Record record = new Record(type.getName(), end - duration - this.origin, duration);
+
+        record.discoveryTime = this.discoveries.getOrDefault(type, 0L);
+
+        if (pending != null) {
+            record.preConstructTime = pending[0];
+            record.instantiationTime = pending[1];
+            record.constructTime = pending[2];
+        }
+
+        this.complete(record);
+    }
+
+    @Override
+    public void onConstructScan(@Nonnull Class<?> type, long duration) {
+        if (this.stopped != 0) {
+            return;
+        }
+
+        this.frame.get().pending.computeIfAbsent(type, (t) -> new long[3])[2] += duration;
+    }
+
+    @Override
+    public void onDiscover(@Nonnull Class<?> type, long duration) {
+        if (this.stopped != 0) {
+            return;
+        }
+
+        this.discoveries.merge(type, duration, Long::sum);
+    }
+
+    @Override
+    public void onEvaluateConstraints(@Nonnull Key<?> key, boolean matched, long duration) {
+        if (this.stopped != 0) {
+            return;
+        }
+
+        Frame frame = this.frame.get();
+        frame.constraints.merge(key, duration, Long::sum);
+
+        if (!matched) {
+            frame.unmatched.add(key);
+        }
+    }
+
+    @Override
+    public void onInitialize(@Nonnull Key<?> key, @Nonnull Set<Key<?>> prerequisites, long duration) {
+        if (this.stopped != 0) {
+            return;
+        }
+
+        long end = System.nanoTime();
+        Frame frame = this.frame.get();
+        Record record = new Record(key.toString(), end - duration - this.origin, duration);
+
+        record.discoveryTime = this.discoveries.getOrDefault(key.getType(), 0L);
+        record.constraintTime = frame.constraints.getOrDefault(key, 0L);
+        record.skipped = frame.unmatched.remove(key);
+        prerequisites.forEach((k) -> record.prerequisites.add(k.toString()));
+        frame.constraints.remove(key);
+
+        this.complete(record);
+    }
+
+    @Override
+    public void onInstantiate(@Nonnull Class<?> type, long duration) {
+        if (this.stopped != 0) {
+            return;
+        }
+
+        this.frame.get().pending.computeIfAbsent(type, (t) -> new long[3])[1] += duration;
+    }
+
+    @Override
+    public void onPreConstructScan(@Nonnull Class<?> type, long duration) {
+        if (this.stopped != 0) {
+            return;
+        }
+
+        this.frame.get().pending.computeIfAbsent(type, (t) -> new long[3])[0] += duration;
+    }
+
+    @Override
+    public void onProvide(@Nonnull Key<?> key, @Nonnull Class<?> providerType, long duration) {
+        if (this.stopped != 0) {
+            return;
+        }
+
+        long end = System.nanoTime();
+        Record record = new Record(key + " via " + providerType.getName(), end - duration - this.origin, duration);
+
+        record.provisionTime = duration;
+        this.complete(record);
+    }
+
+    /**
+     * Produces a report based on all operations which have been recorded so far.<br>
+     * <br>
+     * Reports are expected to be produced once the startup has completed. Operations which are
+     * still in progress at this time are not included. Once the profiler has been stopped, the
+     * report which has been produced upon stopping is returned instead.
+     *
+     * @return a report.
+     */
+    @Nonnull
+    public BootReport report() {
+        if (this.stopped != 0) {
+            return this.awaitResult();
+        }
+
+        return this.collect();
+    }
+
+    /**
+     * Produces a final report and stops recording.<br>
+     * <br>
+     * All recorded operations are released while notifications which are received after this
+     * method has been invoked are ignored. Subsequent invocations (as well as {@link #report()})
+     * return the report which has been produced by the first invocation.
+     *
+     * @return a report.
+     */
+    @Nonnull
+    public BootReport stop() {
+        if (!STOPPED.compareAndSet(this, 0, 1)) {
+            return this.awaitResult();
+        }
+
+        BootReport report = this.collect();
+        this.result = report;
+
+        this.frames.forEach((f) -> f.completed.clear());
+        this.frames.clear();
+        this.discoveries.clear();
+        return report;
+    }
+
+    /**
+     * Awaits the report which is produced by the thread which stopped this profiler.
+     *
+     * @return a report.
+     */
+    @Nonnull
+    private BootReport awaitResult() {
+        BootReport report;
+
+        while ((report = this.result) == null) {
+            Thread.yield();
+        }
+
+        return report;
+    }
+
+    /**
+     * Produces a report based on the operations which are currently retained.
+     *
+     * @return a report.
+     */
+    @Nonnull
+    private BootReport collect() {
+        List<BootReport.Component> components = new ArrayList<>();
+        this.frames.forEach((f) -> f.completed.forEach((r) -> components.add(r.toComponent())));
+        return new BootReport(components);
+    }
+
+    /**
+     * Represents the operations which have been recorded on a single thread.
+     */
+    private static final class Frame {
+        private final Deque<Record> completed = new ConcurrentLinkedDeque<>();
+        private final Map<Class<?>, long[]> pending = new HashMap<>();
+        private final Map<Key<?>, Long> constraints = new HashMap<>();
+        private final Set<Key<?>> unmatched = new HashSet<>();
+    }
+
+    /**
+     * Represents a recorded operation which is still subject to change while its enclosing
+     * operation is in progress.
+     */
+    private static final class Record {
+        private final String name;
+        private final long start;
+        private final long duration;
+        private final List<String> prerequisites = new ArrayList<>();
+        private final List<Record> dependencies = new ArrayList<>();
+        private long discoveryTime;
+        private long constraintTime;
+        private long preConstructTime;
+        private long instantiationTime;
+        private long constructTime;
+        private long provisionTime;
+        private boolean skipped;
+
+        private Record(@Nonnull String name, long start, long duration) {
+            this.name = name;
+            this.start = start;
+            this.duration = duration;
+        }
+
+        /**
+         * Converts this record into an immutable component.
+         *
+         * @return a component.
+         */
+        @Nonnull
+        private BootReport.Component toComponent() {
+            List<BootReport.Component> dependencies = new ArrayList<>(this.dependencies.size());
+            this.dependencies.forEach((r) -> dependencies.add(r.toComponent()));
+
+            return new BootReport.Component(this.name, this.start, this.duration, this.discoveryTime, this.constraintTime, this.preConstructTime, this.instantiationTime, this.constructTime, this.provisionTime, this.skipped, new ArrayList<>(this.prerequisites), dependencies);
+        }
+    }
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Represents the recorded initialization of all components within a context hierarchy.<br>
+ * <br>
+ * Reports consist of a set of top-level components (e.g. eager components as well as components
+ * which have been constructed outside of an eager initialization) along with the dependencies
+ * which they constructed in turn. Additionally, reports identify the critical path: Starting with
+ * the component which completed last, the path follows the prerequisite which completed last until
+ * a component without prerequisites is reached. Speeding up components outside of this path will
+ * not reduce the total initialization time.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ * @see BootProfiler for recording reports.
+ */
+@Immutable
+public final class BootReport {
+    private final List<Component> components;
+    private final List<Component> criticalPath;
+    private final long duration;
+
+    BootReport(@Nonnull List<Component> components) {
+        List<Component> sorted = new ArrayList<>(components);
+        sorted.sort((a, b) -> Long.compare(a.start, b.start));
+
+        this.components = Collections.unmodifiableList(sorted);
+        this.criticalPath = Collections.unmodifiableList(findCriticalPath(sorted));
+
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+
+        for (Component component : sorted) {
+            start = Math.min(start, component.start);
+            end = Math.max(end, component.getEnd());
+        }
+
+        this.duration = sorted.isEmpty() ? 0 : end - start;
+    }
+
+    /**
+     * Identifies the critical path among a set of top-level components.
+     *
+     * @param components a list of components.
+     * @return a list of components in chronological order.
+     */
+    @Nonnull
+    private static List<Component> findCriticalPath(@Nonnull List<Component> components) {
+        Map<String, Component> byName = new HashMap<>();
+        Component current = null;
+
+        for (Component component : components) {
+            Component previous = byName.get(component.name);
+
+            if (previous == null || previous.getEnd() < component.getEnd()) {
+                byName.put(component.name, component);
+            }
+
+            if (current == null || current.getEnd() < component.getEnd()) {
+                current = component;
+            }
+        }
+
+        List<Component> path = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+
+        while (current != null && visited.add(current.name)) {
+            path.add(current);
+            Component next = null;
+
+            for (String prerequisite : current.prerequisites) {
+                Component candidate = byName.get(prerequisite);
+
+                if (candidate != null && (next == null || next.getEnd() < candidate.getEnd())) {
+                    next = candidate;
+                }
+            }
+
+            current = next;
+        }
+
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Formats a duration in milliseconds.
+     *
+     * @param duration a duration (in nanoseconds).
+     * @return a formatted duration.
+     */
+    @Nonnull
+    private static String format(long duration) {
+        return String.format(Locale.ROOT, "%.3f ms", duration / 1_000_000.0);
+    }
+
+    /**
+     * Appends a string literal to a JSON document.
+     *
+     * @param builder a builder.
+     * @param value   a string.
+     */
+    private static void appendString(@Nonnull StringBuilder builder, @Nonnull String value) {
+        builder.append('"');
+
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+
+        builder.append('"');
+    }
+
+    /**
+     * Retrieves all top-level components in the order of their initialization.
+     *
+     * @return a list of components.
+     */
+    @Nonnull
+    public List<Component> getComponents() {
+        return this.components;
+    }
+
+    /**
+     * Retrieves the components which determine the total initialization time in chronological
+     * order.
+     *
+     * @return a list of components.
+     */
+    @Nonnull
+    public List<Component> getCriticalPath() {
+        return this.criticalPath;
+    }
+
+    /**
+     * Retrieves the time between the start of the first and the end of the last recorded
+     * initialization.
+     *
+     * @return a duration (in nanoseconds).
+     */
+    public long getDuration() {
+        return this.duration;
+    }
+
+    /**
+     * Serializes this report into a JSON document.<br>
+     * <br>
+     * All durations and offsets are given in nanoseconds. Offsets are relative to the creation
+     * of the profiler which recorded this report.
+     *
+     * @return a JSON document.
+     */
+    @Nonnull
+    public String toJson() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\"duration\":").append(this.duration).append(",\"criticalPath\":[");
+
+        for (int i = 0; i < this.criticalPath.size(); ++i) {
+            if (i != 0) {
+                builder.append(',');
+            }
+
+            appendString(builder, this.criticalPath.get(i).name);
+        }
+
+        builder.append("],\"components\":");
+        appendComponents(builder, this.components);
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Appends a list of components to a JSON document.
+     *
+     * @param builder    a builder.
+     * @param components a list of components.
+     */
+    private static void appendComponents(@Nonnull StringBuilder builder, @Nonnull List<Component> components) {
+        builder.append('[');
+
+        for (int i = 0; i < components.size(); ++i) {
+            Component component = components.get(i);
+
+            if (i != 0) {
+                builder.append(',');
+            }
+
+            builder.append("{\"name\":");
+            appendString(builder, component.name);
+            builder.append(",\"start\":").append(component.start)
+                    .append(",\"duration\":").append(component.duration)
+                    .append(",\"selfTime\":").append(component.getSelfTime())
+                    .append(",\"discoveryTime\":").append(component.discoveryTime)
+                    .append(",\"constraintTime\":").append(component.constraintTime)
+                    .append(",\"preConstructTime\":").append(component.preConstructTime)
+                    .append(",\"instantiationTime\":").append(component.instantiationTime)
+                    .append(",\"constructTime\":").append(component.constructTime)
+                    .append(",\"provisionTime\":").append(component.provisionTime)
+                    .append(",\"skipped\":").append(component.skipped)
+                    .append(",\"prerequisites\":[");
+
+            for (int j = 0; j < component.prerequisites.size(); ++j) {
+                if (j != 0) {
+                    builder.append(',');
+                }
+
+                appendString(builder, component.prerequisites.get(j));
+            }
+
+            builder.append("],\"dependencies\":");
+            appendComponents(builder, component.dependencies);
+            builder.append('}');
+        }
+
+        builder.append(']');
+    }
+
+    /**
+     * Formats this report as human readable text.
+     *
+     * @return a text.
+     */
+    @Nonnull
+    public String toText() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Initialized ").append(this.components.size()).append(" components in ").append(format(this.duration)).append('\n');
+
+        if (!this.criticalPath.isEmpty()) {
+            Component first = this.criticalPath.get(0);
+            Component last = this.criticalPath.get(this.criticalPath.size() - 1);
+
+            builder.append('\n').append("Critical path (").append(format(last.getEnd() - first.start)).append("):\n");
+            this.criticalPath.forEach((c) -> appendText(builder, c, "  ", false));
+        }
+
+        builder.append('\n').append("Components:\n");
+        this.components.forEach((c) -> appendText(builder, c, "  ", true));
+        return builder.toString();
+    }
+
+    /**
+     * Appends a component to a human readable text.
+     *
+     * @param builder      a builder.
+     * @param component    a component.
+     * @param indentation  the indentation of the component.
+     * @param dependencies true if the dependencies of the component are to be appended as well,
+     *                     false otherwise.
+     */
+    private static void appendText(@Nonnull StringBuilder builder, @Nonnull Component component, @Nonnull String indentation, boolean dependencies) {
+        builder.append(indentation).append(component.name).append(": ").append(format(component.duration));
+
+        if (component.skipped) {
+            builder.append(" (constraints not met)");
+        }
+
+        builder.append('\n').append(indentation).append("  ")
+                .append("self ").append(format(component.getSelfTime()))
+                .append(", discovery ").append(format(component.discoveryTime))
+                .append(", constraints ").append(format(component.constraintTime))
+                .append(", pre-construct ").append(format(component.preConstructTime))
+                .append(", instantiation ").append(format(component.instantiationTime))
+                .append(", construct ").append(format(component.constructTime))
+                .append(", provision ").append(format(component.provisionTime))
+                .append('\n');
+
+        if (!component.prerequisites.isEmpty()) {
+            builder.append(indentation).append("  waited on ").append(String.join(", ", component.prerequisites)).append('\n');
+        }
+
+        if (dependencies) {
+            component.dependencies.forEach((c) -> appendText(builder, c, indentation + "    ", true));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.toText();
+    }
+
+    /**
+     * Represents the recorded initialization of a single component.
+     */
+    @Immutable
+    public static final class Component {
+        private final String name;
+        private final long start;
+        private final long duration;
+        private final long discoveryTime;
+        private final long constraintTime;
+        private final long preConstructTime;
+        private final long instantiationTime;
+        private final long constructTime;
+        private final long provisionTime;
+        private final boolean skipped;
+        private final List<String> prerequisites;
+        private final List<Component> dependencies;
+
+        Component(@Nonnull String name, long start, long duration, long discoveryTime, long constraintTime, long preConstructTime, long instantiationTime, long constructTime, long provisionTime, boolean skipped, @Nonnull List<String> prerequisites, @Nonnull List<Component> dependencies) {
+            this.name = name;
+            this.start = start;
+            this.duration = duration;
+            this.discoveryTime = discoveryTime;
+            this.constraintTime = constraintTime;
+            this.preConstructTime = preConstructTime;
+            this.instantiationTime = instantiationTime;
+            this.constructTime = constructTime;
+            this.provisionTime = provisionTime;
+            this.skipped = skipped;
+            this.prerequisites = Collections.unmodifiableList(prerequisites);
+            this.dependencies = Collections.unmodifiableList(dependencies);
+        }
+
+        /**
+         * Retrieves the time spent evaluating the constraints of this component.
+         *
+         * @return a duration (in nanoseconds).
+         */
+        public long getConstraintTime() {
+            return this.constraintTime;
+        }
+
+        /**
+         * Retrieves the time spent within the scanners after this component has been
+         * constructed.
+         *
+         * @return a duration (in nanoseconds).
+         */
+        public long getConstructTime() {
+            return this.constructTime;
+        }
+
+        /**
+         * Retrieves the dependencies which have been constructed as part of the initialization of
+         * this component in the order of their construction.
+         *
+         * @return a list of components.
+         */
+        @Nonnull
+        public List<Component> getDependencies() {
+            return this.dependencies;
+        }
+
+        /**
+         * Retrieves the time spent discovering this component through the component index.
+         *
+         * @return a duration (in nanoseconds).
+         */
+        public long getDiscoveryTime() {
+            return this.discoveryTime;
+        }
+
+        /**
+         * Retrieves the total time spent initializing this component (including the
+         * initialization of its dependencies).
+         *
+         * @return a duration (in nanoseconds).
+         */
+        public long getDuration() {
+            return this.duration;
+        }
+
+        /**
+         * Retrieves the offset at which the initialization of this component has completed.
+         *
+         * @return an offset (in nanoseconds).
+         */
+        public long getEnd() {
+            return this.start + this.duration;
+        }
+
+        /**
+         * Retrieves the time spent within the constructor or generated factory of this component
+         * (including the resolution of its constructor parameters).
+         *
+         * @return a duration (in nanoseconds).
+         */
+        public long getInstantiationTime() {
+            return this.instantiationTime;
+        }
+
+        /**
+         * Retrieves the name of this component (e.g. its key or type).
+         */
+        @Nonnull
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Retrieves the time spent within the scanners before this component has been
+         * constructed.
+         *
+         * @return a duration (in nanoseconds).
+         */
+        public long getPreConstructTime() {
+            return this.preConstructTime;
+        }
+
+        /**
+         * Retrieves the names of all eager components which had to be initialized before the
+         * initialization of this component could begin.
+         *
+         * @return a list of names.
+         */
+        @Nonnull
+        public List<String> getPrerequisites() {
+            return this.prerequisites;
+        }
+
+        /**
+         * Retrieves the time spent within the provider of this component.
+         *
+         * @return a duration (in nanoseconds).
+         */
+        public long getProvisionTime() {
+            return this.provisionTime;
+        }
+
+        /**
+         * Retrieves the time spent initializing this component excluding the initialization of
+         * its dependencies.
+         *
+         * @return a duration (in nanoseconds).
+         */
+        public long getSelfTime() {
+            long time = this.duration;
+
+            for (Component dependency : this.dependencies) {
+                time -= dependency.duration;
+            }
+
+            return time;
+        }
+
+        /**
+         * Retrieves the offset at which the initialization of this component has started.
+         *
+         * @return an offset (in nanoseconds).
+         */
+        public long getStart() {
+            return this.start;
+        }
+
+        /**
+         * Checks whether this component has been skipped as its constraints were not met.
+         *
+         * @return true if skipped, false otherwise.
+         */
+        public boolean isSkipped() {
+            return this.skipped;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.metrics;
+
+import org.basinmc.washer.Key;
+
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Provides a listener which is notified of resolutions, constructions and other potentially
+ * expensive operations within a context.<br>
+ * <br>
+ * Listeners are invoked synchronously on the thread which performed the operation and are thus
+ * expected to return quickly. Contexts which have no listener configured (e.g. use {@link #NONE})
+ * do not measure any operations.<br>
+ * <br>
+ * Notifications are dispatched once the respective operation has completed. Operations which are
+ * performed as part of another operation on the same thread (such as the construction of a
+ * dependency) are thus reported before the operation which encloses them.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ * @see org.basinmc.washer.ConcurrentContext#ConcurrentContext(org.basinmc.washer.Context,
+ * ContextMetrics) for configuring a listener.
+ */
+@ThreadSafe
+public interface ContextMetrics {
+
+    /**
+     * Provides a listener which ignores all notifications.
+     */
+    ContextMetrics NONE = new ContextMetrics() {
+    };
+
+    /**
+     * Retrieves a listener which records all notifications as JDK Flight Recorder events.<br>
+     * <br>
+     * Resolution events are disabled by default due to their frequency and need to be enabled
+     * explicitly within the recording settings. The listener is shipped as a Java 11 version of
+     * this library's multi-release archive and is thus unavailable on older VMs.
+     *
+     * @return a listener or, if the Flight Recorder is not available within the running VM, {@link
+     * #NONE}.
+     */
+    @Nonnull
+    static ContextMetrics flightRecorder() {
+        try {
+            Class.forName("jdk.jfr.Event", false, ContextMetrics.class.getClassLoader());
+            return (ContextMetrics) Class.forName(ContextMetrics.class.getPackage().getName() + ".FlightRecorderMetrics").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            return NONE;
+        }
+    }
+
+    /**
+     * Retrieves a listener which records the initialization of components in order to produce a
+     * boot report.<br>
+     * <br>
+     * The profiler is intended for the startup of an application only and is expected to be
+     * stopped once the startup has completed.
+     *
+     * @return a profiler.
+     * @see BootProfiler#stop() for retrieving the report and stopping the profiler.
+     */
+    @Nonnull
+    static BootProfiler bootProfiler() {
+        return new BootProfiler();
+    }
+
+    /**
+     * Handles the construction of a component (including the injection of its fields and the
+     * notification of its scanners).
+     *
+     * @param type     the constructed type.
+     * @param duration the construction time (in nanoseconds).
+     */
+    default void onConstruct(@Nonnull Class<?> type, long duration) {
+    }
+
+    /**
+     * Handles the notification of scanners after a component has been constructed.
+     *
+     * @param type     the constructed type.
+     * @param duration the time spent within the scanners (in nanoseconds).
+     */
+    default void onConstructScan(@Nonnull Class<?> type, long duration) {
+    }
+
+    /**
+     * Handles the discovery of a component through the component index (including the
+     * notification of its scanners).
+     *
+     * @param type     the discovered type.
+     * @param duration the discovery time (in nanoseconds).
+     */
+    default void onDiscover(@Nonnull Class<?> type, long duration) {
+    }
+
+    /**
+     * Handles the evaluation of the constraints of a component definition.
+     *
+     * @param key      the key of the definition.
+     * @param matched  true if the definition matched its constraints, false otherwise.
+     * @param duration the evaluation time (in nanoseconds).
+     */
+    default void onEvaluateConstraints(@Nonnull Key<?> key, boolean matched, long duration) {
+    }
+
+    /**
+     * Handles the eager initialization of a component definition (including the evaluation of
+     * its constraints and the construction of its instance).
+     *
+     * @param key           the key of the definition.
+     * @param prerequisites the keys of all eager definitions which had to be initialized before
+     *                      the initialization of this definition could begin.
+     * @param duration      the initialization time (in nanoseconds).
+     */
+    default void onInitialize(@Nonnull Key<?> key, @Nonnull Set<Key<?>> prerequisites, long duration) {
+    }
+
+    /**
+     * Handles the injection of dependencies into an existing object.
+     *
+     * @param type     the type of the injected object.
+     * @param duration the injection time (in nanoseconds).
+     */
+    default void onInject(@Nonnull Class<?> type, long duration) {
+    }
+
+    /**
+     * Handles the invocation of the constructor or generated factory of a component (including
+     * the resolution of its constructor parameters).
+     *
+     * @param type     the constructed type.
+     * @param duration the invocation time (in nanoseconds).
+     */
+    default void onInstantiate(@Nonnull Class<?> type, long duration) {
+    }
+
+    /**
+     * Handles a thread waiting for another thread in order to resolve a component (for instance
+     * while another thread is constructing the same singleton).
+     *
+     * @param key      the key which was resolved.
+     * @param duration the wait time (in nanoseconds).
+     */
+    default void onLockWait(@Nonnull Key<?> key, long duration) {
+    }
+
+    /**
+     * Handles the notification of scanners prior to the construction of a component.
+     *
+     * @param type     the type which is about to be constructed.
+     * @param duration the time spent within the scanners (in nanoseconds).
+     */
+    default void onPreConstructScan(@Nonnull Class<?> type, long duration) {
+    }
+
+    /**
+     * Handles the retrieval of an instance from a bound provider (e.g. a call to {@link
+     * javax.inject.Provider#get()}).
+     *
+     * @param key          the key which was resolved.
+     * @param providerType the provider type.
+     * @param duration     the time spent within the provider (in nanoseconds).
+     */
+    default void onProvide(@Nonnull Key<?> key, @Nonnull Class<?> providerType, long duration) {
+    }
+
+    /**
+     * Handles the resolution of a key.
+     *
+     * @param key    the key which was resolved.
+     * @param hops   the number of parent contexts which had to be visited (zero when the key was
+     *               resolved locally or through the resolution cache).
+     * @param cached true if the key was resolved through the resolution cache of a child context,
+     *               false otherwise.
+     */
+    default void onResolution(@Nonnull Key<?> key, int hops, boolean cached) {
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.processor;
+
+import org.basinmc.washer.annotation.ComponentType;
+import org.basinmc.washer.component.ComponentIndex;
+import org.basinmc.washer.component.constraint.Constraint;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates the component index (as described by {@link ComponentIndex}) for all types which carry
+ * an annotation that has been meta-annotated with {@link ComponentType} or {@link Constraint}.<br>
+ * <br>
+ * Since component type annotations are declared by users of this library, this processor inspects
+ * all types within a compilation and writes the index once processing is complete. The index
+ * thus only reflects the types which are part of the current compilation (e.g. incremental
+ * compilation will result in an incomplete index).
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@SupportedAnnotationTypes("*")
+public class ComponentIndexProcessor extends AbstractProcessor {
+    private final List<String> entries = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!this.entries.isEmpty()) {
+                this.writeIndex();
+            }
+
+            return false;
+        }
+
+        ElementFilter.typesIn(roundEnv.getRootElements()).forEach(this::index);
+        return false;
+    }
+
+    /**
+     * Searches a meta-annotation of a certain type on an annotation type.
+     *
+     * @param annotationType an annotation type.
+     * @param type           a meta-annotation type.
+     * @return an annotation mirror or, if no such annotation is present, null.
+     */
+    @Nullable
+    private AnnotationMirror findMetaAnnotation(@Nonnull Element annotationType, @Nonnull Class<?> type) {
+        for (AnnotationMirror mirror : annotationType.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(type.getName())) {
+                return mirror;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Retrieves the binary name of the type referenced by an annotation member.
+     *
+     * @param mirror an annotation.
+     * @param name   a member name.
+     * @return a binary name or, if the member does not reference a declared type, null.
+     */
+    @Nullable
+    private String getTypeName(@Nonnull AnnotationMirror mirror, @Nonnull String name) {
+        TypeMirror type = this.getTypeValue(mirror, name);
+
+        if (type == null) {
+            return null;
+        }
+
+        return this.processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+    }
+
+    /**
+     * Retrieves the type referenced by an annotation member.
+     *
+     * @param mirror an annotation.
+     * @param name   a member name.
+     * @return a type or, if the member does not reference a declared type, null.
+     */
+    @Nullable
+    private TypeMirror getTypeValue(@Nonnull AnnotationMirror mirror, @Nonnull String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : this.processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name) && entry.getValue().getValue() instanceof DeclaredType) {
+                return (TypeMirror) entry.getValue().getValue();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Records all component type and constraint annotations of a type as well as its nested
+     * types.
+     *
+     * @param type a type.
+     */
+    private void index(@Nonnull TypeElement type) {
+        String typeName = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            String annotationName = this.processingEnv.getElementUtils().getBinaryName(annotationType).toString();
+
+            AnnotationMirror componentType = this.findMetaAnnotation(annotationType, ComponentType.class);
+
+            if (componentType != null) {
+                String scanner = this.getTypeName(componentType, "scanner");
+                TypeMirror baseType = this.getTypeValue(componentType, "type");
+
+                if (baseType != null && !this.processingEnv.getTypeUtils().isAssignable(this.processingEnv.getTypeUtils().erasure(type.asType()), this.processingEnv.getTypeUtils().erasure(baseType))) {
+                    this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Component type " + type.getQualifiedName() + " does not implement " + baseType + " as required by @" + annotationType.getSimpleName(), type, mirror);
+                    continue;
+                }
+
+                if (scanner != null) {
+                    this.entries.add(typeName + "\t" + annotationName + "\t" + ComponentIndex.Kind.COMPONENT_TYPE + "\t" + scanner + "\t" + this.getTypeName(componentType, "type"));
+                }
+            }
+
+            AnnotationMirror constraint = this.findMetaAnnotation(annotationType, Constraint.class);
+
+            if (constraint != null) {
+                String implementation = this.getTypeName(constraint, "value");
+
+                if (implementation != null) {
+                    this.entries.add(typeName + "\t" + annotationName + "\t" + ComponentIndex.Kind.CONSTRAINT + "\t" + implementation);
+                }
+            }
+        }
+
+        ElementFilter.typesIn(type.getEnclosedElements()).forEach(this::index);
+    }
+
+    /**
+     * Writes all recorded entries to the index resource.
+     */
+    private void writeIndex() {
+        try {
+            FileObject resource = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.RESOURCE_NAME);
+
+            try (Writer writer = resource.openWriter()) {
+                writer.write("# Generated by " + ComponentIndexProcessor.class.getName() + " - Do not edit\n");
+
+                for (String entry : this.entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException ex) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write component index: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,621 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.processor;
+
+import org.basinmc.washer.Context;
+import org.basinmc.washer.InjectionException;
+import org.basinmc.washer.Key;
+import org.basinmc.washer.annotation.Deferred;
+import org.basinmc.washer.annotation.InjectByDefault;
+import org.basinmc.washer.annotation.ProvidedBy;
+import org.basinmc.washer.component.ComponentDependency;
+import org.basinmc.washer.component.ComponentFactory;
+import org.basinmc.washer.component.ComponentInjector;
+import org.basinmc.washer.component.Lazy;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates reflection free factories and injectors for all component types which make use of
+ * {@link Inject}, {@link Named}, {@link InjectByDefault} or {@link ProvidedBy}.<br>
+ * <br>
+ * For every component type a {@link ComponentFactory} (when the type provides a viable constructor)
+ * and a {@link ComponentInjector} (when the type declares injectable fields) is generated within
+ * the package of the component. Factories additionally list the dependencies of their component
+ * type (see {@link ComponentFactory#getDependencies()}) so that the context does not need to
+ * inspect the type reflectively. Types which cannot be accessed from within their own package (for
+ * instance due to private fields or constructors) are skipped and will be handled through
+ * reflection instead.<br>
+ * <br>
+ * This processor is registered as a service and will thus be picked up automatically by the
+ * compiler when this library is present on the class path.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@SupportedAnnotationTypes({
+        "javax.inject.Inject",
+        "javax.inject.Named",
+        "org.basinmc.washer.annotation.InjectByDefault",
+        "org.basinmc.washer.annotation.ProvidedBy"
+})
+public class ComponentProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> components = new LinkedHashSet<>();
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(Inject.class)) {
+            if (element.getKind() == ElementKind.FIELD || element.getKind() == ElementKind.CONSTRUCTOR) {
+                components.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+
+        for (TypeElement element : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(InjectByDefault.class))) {
+            components.add(element);
+        }
+
+        for (TypeElement element : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(ProvidedBy.class))) {
+            TypeElement implementation = this.verifyProvidedBy(element);
+
+            if (implementation != null && this.isCompiled(implementation, roundEnv)) {
+                components.add(implementation);
+            }
+        }
+
+        for (TypeElement component : components) {
+            if (!this.isAccessible(component)) {
+                continue;
+            }
+
+            this.generateFactory(component);
+            this.generateInjector(component);
+        }
+
+        return false;
+    }
+
+    /**
+     * Generates a factory for a component type when it provides a viable constructor.
+     *
+     * @param component a component type.
+     */
+    private void generateFactory(@Nonnull TypeElement component) {
+        if (component.getModifiers().contains(Modifier.ABSTRACT) || component.getKind() != ElementKind.CLASS) {
+            return;
+        }
+
+        ExecutableElement constructor = this.findConstructor(component);
+
+        if (constructor == null) {
+            return;
+        }
+
+        if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Cannot generate factory for component with private constructor - Falling back to reflection", constructor);
+            return;
+        }
+
+        String componentType = this.getTypeLiteral(component.asType());
+        StringBuilder constants = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        List<String> arguments = new ArrayList<>();
+
+        for (VariableElement parameter : constructor.getParameters()) {
+            String argument = "arg" + arguments.size();
+
+            this.appendDependency(component, parameter, argument, constants, body);
+            arguments.add(argument);
+        }
+
+        String invocation = "new " + componentType + "(" + String.join(", ", arguments) + ")";
+
+        if (constructor.getThrownTypes().isEmpty()) {
+            body.append("        return ").append(invocation).append(";\n");
+        } else {
+            body.append("        try {\n")
+                    .append("            return ").append(invocation).append(";\n")
+                    .append("        } catch (java.lang.Exception ex) {\n")
+                    .append("            throw new ").append(InjectionException.class.getName()).append("(").append(this.getLiteral("Constructor of type " + component.getQualifiedName() + " failed")).append(", ex);\n")
+                    .append("        }\n");
+        }
+
+        String dependencies = this.generateDependencies(component, constructor, constants);
+
+        this.writeSource(component, ComponentFactory.CLASS_NAME_SUFFIX, ComponentFactory.class.getName() + "<" + componentType + ">",
+                constants +
+                        "    @Override\n" +
+                        "    @SuppressWarnings({\"rawtypes\", \"unchecked\"})\n" +
+                        "    public " + componentType + " newInstance(org.basinmc.washer.Context context) {\n" +
+                        body +
+                        "    }\n" +
+                        (dependencies != null ? "\n" + dependencies : ""));
+    }
+
+    /**
+     * Generates the method which exposes the dependencies of a component type (e.g. its
+     * constructor parameters as well as the injectable fields of the type and its superclasses)
+     * through {@link ComponentFactory#getDependencies()}.
+     *
+     * @param component   a component type.
+     * @param constructor the constructor which is invoked by the factory.
+     * @param constants   a builder to which the declaration of the dependency list is appended.
+     * @return the generated method or, if at least one of the dependencies cannot be described
+     * from within the package of the component, null.
+     */
+    @Nullable
+    private String generateDependencies(@Nonnull TypeElement component, @Nonnull ExecutableElement constructor, @Nonnull StringBuilder constants) {
+        List<String> dependencies = new ArrayList<>();
+
+        for (VariableElement parameter : constructor.getParameters()) {
+            String dependency = this.describeDependency(component, parameter);
+
+            if (dependency == null) {
+                return null;
+            }
+
+            dependencies.add(dependency);
+        }
+
+        TypeElement current = component;
+
+        while (current != null && !current.getQualifiedName().contentEquals(Object.class.getName())) {
+            boolean injectByDefault = current.getAnnotation(InjectByDefault.class) != null;
+
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+                    continue;
+                }
+
+                if (!injectByDefault && field.getAnnotation(Inject.class) == null) {
+                    continue;
+                }
+
+                String dependency = this.describeDependency(component, field);
+
+                if (dependency == null) {
+                    return null;
+                }
+
+                dependencies.add(dependency);
+            }
+
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+
+        String listType = "java.util.List<" + ComponentDependency.class.getName() + ">";
+        String value = dependencies.isEmpty() ? "java.util.Collections.emptyList()" : "java.util.Collections.unmodifiableList(java.util.Arrays.asList(\n            " + String.join(",\n            ", dependencies) + "))";
+
+        constants.append("    private static final ").append(listType).append(" DEPENDENCIES = ").append(value).append(";\n\n");
+
+        return "    @Override\n" +
+                "    public " + listType + " getDependencies() {\n" +
+                "        return DEPENDENCIES;\n" +
+                "    }\n";
+    }
+
+    /**
+     * Generates an expression which describes the dependency represented by a field or parameter
+     * as a {@link ComponentDependency}.
+     *
+     * @param component a component type.
+     * @param element   a field or parameter.
+     * @return an expression or, if the dependency cannot be described from within the package of
+     * the component, null.
+     */
+    @Nullable
+    private String describeDependency(@Nonnull TypeElement component, @Nonnull VariableElement element) {
+        TypeMirror type = element.asType();
+        ComponentDependency.Kind kind = ComponentDependency.Kind.INSTANCE;
+
+        if (this.isType(type, Provider.class) || this.isType(type, Lazy.class)) {
+            List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+
+            if (arguments.isEmpty() || arguments.get(0).getKind() != TypeKind.DECLARED) {
+                return null;
+            }
+
+            kind = this.isType(type, Provider.class) ? ComponentDependency.Kind.PROVIDER : ComponentDependency.Kind.LAZY;
+            type = arguments.get(0);
+        } else if (element.getAnnotation(Deferred.class) != null) {
+            if (type.getKind() != TypeKind.DECLARED || ((DeclaredType) type).asElement().getKind() != ElementKind.INTERFACE) {
+                return null;
+            }
+
+            kind = ComponentDependency.Kind.PROXY;
+        }
+
+        if (!this.isVisible(type, component)) {
+            return null;
+        }
+
+        Named named = element.getAnnotation(Named.class);
+        return ComponentDependency.class.getName() + ".of(" + this.getTypeLiteral(type) + ".class, " + (named != null ? this.getLiteral(named.value()) : "null") + ", " + ComponentDependency.Kind.class.getCanonicalName() + "." + kind.name() + ")";
+    }
+
+    /**
+     * Generates an injector for a component type when it declares injectable fields.
+     *
+     * @param component a component type.
+     */
+    private void generateInjector(@Nonnull TypeElement component) {
+        boolean injectByDefault = component.getAnnotation(InjectByDefault.class) != null;
+        StringBuilder constants = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        int values = 0;
+
+        for (VariableElement field : ElementFilter.fieldsIn(component.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+                continue;
+            }
+
+            if (!injectByDefault && field.getAnnotation(Inject.class) == null) {
+                continue;
+            }
+
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Cannot generate injector for component with private injectable field - Falling back to reflection", field);
+                return;
+            }
+
+            String value = "value" + values++;
+
+            this.appendDependency(component, field, value, constants, body);
+            body.append("        instance.").append(field.getSimpleName()).append(" = ").append(value).append(";\n");
+        }
+
+        if (body.length() == 0) {
+            return;
+        }
+
+        String componentType = this.getTypeLiteral(component.asType());
+        this.writeSource(component, ComponentInjector.CLASS_NAME_SUFFIX, ComponentInjector.class.getName() + "<" + componentType + ">",
+                constants +
+                        "    @Override\n" +
+                        "    @SuppressWarnings({\"rawtypes\", \"unchecked\"})\n" +
+                        "    public void inject(org.basinmc.washer.Context context, " + componentType + " instance) {\n" +
+                        body +
+                        "    }\n");
+    }
+
+    /**
+     * Locates the constructor which the context will use in order to construct instances of a
+     * component type.
+     *
+     * @param component a component type.
+     * @return a constructor or, if no viable constructor is present, null.
+     */
+    @Nullable
+    private ExecutableElement findConstructor(@Nonnull TypeElement component) {
+        ExecutableElement candidate = null;
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(component.getEnclosedElements())) {
+            if (constructor.getAnnotation(Inject.class) != null) {
+                if (candidate != null && candidate.getAnnotation(Inject.class) != null) {
+                    this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Component declares more than one constructor annotated with @Inject", constructor);
+                    return null;
+                }
+
+                candidate = constructor;
+            } else if (candidate == null && constructor.getParameters().isEmpty()) {
+                candidate = constructor;
+            }
+        }
+
+        return candidate;
+    }
+
+    /**
+     * Generates the statements which resolve the dependency represented by a field or parameter
+     * from a context variable named {@code context} and store it within a local variable.<br>
+     * <br>
+     * Instances are resolved through {@link Context#getOrNull(Key)} and thus do not allocate an
+     * {@link java.util.Optional}. Keys of qualified dependencies are created once and stored within
+     * a constant of the generated type while all other keys are retrieved through {@link
+     * Context#getKey(Class)}.
+     *
+     * @param component a component type.
+     * @param element   a field or parameter.
+     * @param variable  the name of the local variable.
+     * @param constants a builder to which the declarations of constants are appended.
+     * @param body      a builder to which the statements are appended.
+     */
+    private void appendDependency(@Nonnull TypeElement component, @Nonnull VariableElement element, @Nonnull String variable, @Nonnull StringBuilder constants, @Nonnull StringBuilder body) {
+        TypeMirror type = element.asType();
+        // primitive values are held in their boxed form until they are passed to the component
+        // in order to permit the null check of unresolvable dependencies
+        String variableType = this.getTypeLiteral(type.getKind().isPrimitive() ? this.processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).asType() : type);
+        String method = "getOrNull";
+
+        if (this.isType(type, Provider.class) || this.isType(type, Lazy.class)) {
+            List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+
+            if (arguments.isEmpty()) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Provider and lazy dependencies must declare a type argument", element);
+                body.append("        ").append(variableType).append(' ').append(variable).append(" = null;\n");
+                return;
+            }
+
+            method = this.isType(type, Provider.class) ? "getProvider" : "getLazy";
+            type = arguments.get(0);
+        } else if (element.getAnnotation(Deferred.class) != null) {
+            if (type.getKind() != TypeKind.DECLARED || ((DeclaredType) type).asElement().getKind() != ElementKind.INTERFACE) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Deferred dependencies must be of an interface type", element);
+                body.append("        ").append(variableType).append(' ').append(variable).append(" = null;\n");
+                return;
+            }
+
+            method = "getLazyProxy";
+        }
+
+        String typeLiteral = this.getTypeLiteral(type);
+        Named named = element.getAnnotation(Named.class);
+        String key = "context.getKey(" + typeLiteral + ".class)";
+
+        if (named != null) {
+            key = "KEY_" + variable.toUpperCase();
+            constants.append("    private static final ").append(Key.class.getName()).append("<?> ").append(key).append(" = ").append(Key.class.getName()).append(".of(").append(typeLiteral).append(".class, ").append(this.getLiteral(named.value())).append(");\n\n");
+        }
+
+        String message = this.getLiteral("Cannot resolve dependency " + typeLiteral + " of " + component.getQualifiedName() + (named != null ? " with qualifier \"" + named.value() + "\"" : ""));
+        String expression = "context." + method + "(" + key + ")";
+
+        if (method.equals("getProvider")) {
+            expression += ".orElseThrow(() -> new " + InjectionException.class.getName() + "(" + message + "))";
+        }
+
+        body.append("        ").append(variableType).append(' ').append(variable).append(" = ").append(named != null ? "(" + variableType + ") " : "").append(expression).append(";\n");
+
+        if (method.equals("getOrNull")) {
+            body.append("        if (").append(variable).append(" == null) {\n")
+                    .append("            throw new ").append(InjectionException.class.getName()).append("(").append(message).append(");\n")
+                    .append("        }\n");
+        }
+    }
+
+    /**
+     * Escapes a string value for its use within generated sources.
+     *
+     * @param value a value.
+     * @return a string literal.
+     */
+    @Nonnull
+    private String getLiteral(@Nonnull String value) {
+        return this.processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    /**
+     * Retrieves the erased source representation of a type.
+     *
+     * @param type a type.
+     * @return a type literal.
+     */
+    @Nonnull
+    private String getTypeLiteral(@Nonnull TypeMirror type) {
+        return this.processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * Checks whether a component type can be accessed from within its own package.
+     *
+     * @param component a component type.
+     * @return true if accessible, false otherwise.
+     */
+    private boolean isAccessible(@Nonnull TypeElement component) {
+        Element element = component;
+
+        while (element.getKind().isClass() || element.getKind().isInterface()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+
+            Element enclosing = element.getEnclosingElement();
+
+            if (enclosing.getKind() != ElementKind.PACKAGE && !element.getModifiers().contains(Modifier.STATIC) && element.getKind() == ElementKind.CLASS) {
+                return false;
+            }
+
+            element = enclosing;
+        }
+
+        return element.getKind() == ElementKind.PACKAGE;
+    }
+
+    /**
+     * Checks whether the erasure of a type can be referenced from within the package of a
+     * component type.
+     *
+     * @param type      a type.
+     * @param component a component type.
+     * @return true if visible, false otherwise.
+     */
+    private boolean isVisible(@Nonnull TypeMirror type, @Nonnull TypeElement component) {
+        TypeMirror erasure = this.processingEnv.getTypeUtils().erasure(type);
+
+        while (erasure.getKind() == TypeKind.ARRAY) {
+            erasure = ((ArrayType) erasure).getComponentType();
+        }
+
+        if (erasure.getKind().isPrimitive()) {
+            return true;
+        }
+
+        if (erasure.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+
+        PackageElement componentPackage = this.processingEnv.getElementUtils().getPackageOf(component);
+        Element element = ((DeclaredType) erasure).asElement();
+
+        while (element.getKind().isClass() || element.getKind().isInterface()) {
+            Set<Modifier> modifiers = element.getModifiers();
+
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+
+            if (!modifiers.contains(Modifier.PUBLIC) && !this.processingEnv.getElementUtils().getPackageOf(element).equals(componentPackage)) {
+                return false;
+            }
+
+            element = element.getEnclosingElement();
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether a type is part of the current compilation (e.g. is not provided by a library
+     * on the class path).
+     *
+     * @param type     a type.
+     * @param roundEnv the current round environment.
+     * @return true if compiled, false otherwise.
+     */
+    private boolean isCompiled(@Nonnull TypeElement type, @Nonnull RoundEnvironment roundEnv) {
+        Element element = type;
+
+        while (element.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+
+        return roundEnv.getRootElements().contains(element);
+    }
+
+    /**
+     * Checks whether a type represents a certain declared type (such as {@link Provider} or {@link
+     * Lazy}) regardless of its type arguments.
+     *
+     * @param type     a type.
+     * @param expected an expected type.
+     * @return true if matches, false otherwise.
+     */
+    private boolean isType(@Nonnull TypeMirror type, @Nonnull Class<?> expected) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+
+        return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(expected.getName());
+    }
+
+    /**
+     * Verifies that the type declared by {@link ProvidedBy} is either a provider or an
+     * implementation of the annotated type.
+     *
+     * @param element an annotated type.
+     * @return the declared implementation type or, if the annotation declares a provider or is
+     * invalid, null.
+     */
+    @Nullable
+    private TypeElement verifyProvidedBy(@Nonnull TypeElement element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ProvidedBy.class.getName())) {
+                continue;
+            }
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (!entry.getKey().getSimpleName().contentEquals("value")) {
+                    continue;
+                }
+
+                TypeMirror value = (TypeMirror) entry.getValue().getValue();
+                TypeMirror providerType = this.processingEnv.getTypeUtils().erasure(this.processingEnv.getElementUtils().getTypeElement(Provider.class.getName()).asType());
+
+                if (this.processingEnv.getTypeUtils().isAssignable(value, providerType)) {
+                    return null;
+                }
+
+                if (!this.processingEnv.getTypeUtils().isAssignable(value, this.processingEnv.getTypeUtils().erasure(element.asType()))) {
+                    this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Type declared by @ProvidedBy is neither a provider nor an implementation of " + element.getQualifiedName(), element, mirror);
+                    return null;
+                }
+
+                return (TypeElement) this.processingEnv.getTypeUtils().asElement(value);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Writes a generated class to the package of a component type.
+     *
+     * @param component     a component type.
+     * @param suffix        a class name suffix.
+     * @param interfaceType an implemented interface.
+     * @param body          a class body.
+     */
+    private void writeSource(@Nonnull TypeElement component, @Nonnull String suffix, @Nonnull String interfaceType, @Nonnull String body) {
+        String packageName = this.processingEnv.getElementUtils().getPackageOf(component).getQualifiedName().toString();
+        String binaryName = this.processingEnv.getElementUtils().getBinaryName(component).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + suffix;
+
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(binaryName + suffix, component).openWriter()) {
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+
+            writer.write("/**\n * Generated by " + ComponentProcessor.class.getName() + " - Do not edit.\n */\n");
+            writer.write("public final class " + simpleName + " implements " + interfaceType + " {\n\n");
+            writer.write(body);
+            writer.write("}\n");
+        } catch (IOException ex) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write generated source " + binaryName + suffix + ": " + ex.getMessage(), component);
+        }
+    }
+}
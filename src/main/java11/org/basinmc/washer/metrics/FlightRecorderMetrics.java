@@ -0,0 +1,185 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.metrics;
+
+import org.basinmc.washer.Key;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Records context metrics as JDK Flight Recorder events.<br>
+ * <br>
+ * This type (as well as its events) may only be loaded when the Flight Recorder is available
+ * within the running VM and is thus exclusively instantiated through {@link
+ * ContextMetrics#flightRecorder()}.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@ThreadSafe
+final class FlightRecorderMetrics implements ContextMetrics {
+
+    @Override
+    public void onConstruct(@Nonnull Class<?> type, long duration) {
+        ConstructionEvent event = new ConstructionEvent();
+
+        if (event.isEnabled()) {
+            event.componentType = type;
+            event.elapsedTime = duration;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onInject(@Nonnull Class<?> type, long duration) {
+        InjectionEvent event = new InjectionEvent();
+
+        if (event.isEnabled()) {
+            event.componentType = type;
+            event.elapsedTime = duration;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onLockWait(@Nonnull Key<?> key, long duration) {
+        LockWaitEvent event = new LockWaitEvent();
+
+        if (event.isEnabled()) {
+            event.componentType = key.getType();
+            event.qualifier = key.getQualifier();
+            event.elapsedTime = duration;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onProvide(@Nonnull Key<?> key, @Nonnull Class<?> providerType, long duration) {
+        ProvisionEvent event = new ProvisionEvent();
+
+        if (event.isEnabled()) {
+            event.componentType = key.getType();
+            event.qualifier = key.getQualifier();
+            event.providerType = providerType;
+            event.elapsedTime = duration;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onResolution(@Nonnull Key<?> key, int hops, boolean cached) {
+        ResolutionEvent event = new ResolutionEvent();
+
+        if (event.isEnabled()) {
+            event.componentType = key.getType();
+            event.qualifier = key.getQualifier();
+            event.hops = hops;
+            event.cached = cached;
+            event.commit();
+        }
+    }
+
+    @Name("org.basinmc.washer.Construction")
+    @Label("Component Construction")
+    @Description("Construction of a component including the injection of its fields")
+    @Category("Washer")
+    static final class ConstructionEvent extends Event {
+        @Label("Component Type")
+        Class<?> componentType;
+
+        @Label("Elapsed Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsedTime;
+    }
+
+    @Name("org.basinmc.washer.Injection")
+    @Label("Dependency Injection")
+    @Description("Injection of dependencies into an existing object")
+    @Category("Washer")
+    static final class InjectionEvent extends Event {
+        @Label("Component Type")
+        Class<?> componentType;
+
+        @Label("Elapsed Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsedTime;
+    }
+
+    @Name("org.basinmc.washer.LockWait")
+    @Label("Component Lock Wait")
+    @Description("Wait for another thread which is resolving the same component")
+    @Category("Washer")
+    static final class LockWaitEvent extends Event {
+        @Label("Component Type")
+        Class<?> componentType;
+
+        @Label("Qualifier")
+        String qualifier;
+
+        @Label("Elapsed Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsedTime;
+    }
+
+    @Name("org.basinmc.washer.Provision")
+    @Label("Component Provision")
+    @Description("Retrieval of an instance from a bound provider")
+    @Category("Washer")
+    static final class ProvisionEvent extends Event {
+        @Label("Component Type")
+        Class<?> componentType;
+
+        @Label("Qualifier")
+        String qualifier;
+
+        @Label("Provider Type")
+        Class<?> providerType;
+
+        @Label("Elapsed Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsedTime;
+    }
+
+    @Name("org.basinmc.washer.Resolution")
+    @Label("Component Resolution")
+    @Description("Resolution of a component key within a context hierarchy")
+    @Category("Washer")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ResolutionEvent extends Event {
+        @Label("Component Type")
+        Class<?> componentType;
+
+        @Label("Qualifier")
+        String qualifier;
+
+        @Label("Parent Hops")
+        int hops;
+
+        @Label("Cached")
+        boolean cached;
+    }
+}
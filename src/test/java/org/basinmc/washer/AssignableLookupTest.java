@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class AssignableLookupTest {
+
+    @Test
+    public void testInterfaceLookup() {
+        ConcurrentContext context = new ConcurrentContext();
+        ServiceImpl instance = new ServiceImpl();
+        context.setInstance(ServiceImpl.class, instance);
+
+        Assert.assertSame(instance, context.get(Service.class).orElse(null));
+        Assert.assertSame(instance, context.get(Base.class).orElse(null));
+    }
+
+    @Test
+    public void testQualifiedLookup() {
+        ConcurrentContext context = new ConcurrentContext();
+        ServiceImpl first = new ServiceImpl();
+        ServiceImpl second = new ServiceImpl();
+        context.setInstance(ServiceImpl.class, "first", first);
+        context.setInstance(ServiceImpl.class, "second", second);
+
+        Assert.assertSame(first, context.get(Service.class, "first").orElse(null));
+        Assert.assertSame(second, context.get(Service.class, "second").orElse(null));
+        Assert.assertFalse(context.get(Service.class, "third").isPresent());
+    }
+
+    @Test
+    public void testSameInstance() {
+        ConcurrentContext context = new ConcurrentContext();
+        ServiceImpl instance = new ServiceImpl();
+        context.setInstance(ServiceImpl.class, instance);
+        context.setInstance(Base.class, instance);
+
+        Assert.assertSame(instance, context.get(Service.class).orElse(null));
+    }
+
+    @Test(expected = InjectionException.class)
+    public void testAmbiguity() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.setInstance(ServiceImpl.class, new ServiceImpl());
+        context.setInstance(OtherServiceImpl.class, new OtherServiceImpl());
+
+        context.get(Service.class);
+    }
+
+    @Test
+    public void testNearestContext() {
+        ConcurrentContext parent = new ConcurrentContext();
+        parent.setInstance(OtherServiceImpl.class, new OtherServiceImpl());
+
+        ConcurrentContext child = new ConcurrentContext(parent);
+        ServiceImpl instance = new ServiceImpl();
+        child.setInstance(ServiceImpl.class, instance);
+
+        Assert.assertSame(instance, child.get(Service.class).orElse(null));
+        Assert.assertTrue(parent.get(Service.class).orElse(null) instanceof OtherServiceImpl);
+    }
+
+    @Test
+    public void testConcreteType() {
+        ConcurrentContext context = new ConcurrentContext();
+        ServiceImpl instance = new SpecialServiceImpl();
+        context.setInstance(SpecialServiceImpl.class, instance);
+
+        Assert.assertNotSame(instance, context.get(ServiceImpl.class).orElse(null));
+    }
+
+    public interface Service {
+    }
+
+    public static abstract class Base implements Service {
+    }
+
+    public static class ServiceImpl extends Base {
+    }
+
+    public static class SpecialServiceImpl extends ServiceImpl {
+    }
+
+    public static class OtherServiceImpl implements Service {
+    }
+}
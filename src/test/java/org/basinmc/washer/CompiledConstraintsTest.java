@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.ComponentDefinition;
+import org.basinmc.washer.component.constraint.ComponentConstraint;
+import org.basinmc.washer.component.constraint.ConstraintInput;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nonnull;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class CompiledConstraintsTest {
+
+    @Test
+    public void testMemoization() {
+        ConcurrentContext context = new ConcurrentContext();
+        ComponentDefinition<Object> definition = TestDefinition.eager(Object.class);
+        AtomicReference<Object> value = new AtomicReference<>("a");
+        CountingConstraint constraint = new CountingConstraint(Collections.singleton((c) -> value.get()), true);
+
+        CompiledConstraints compiled = compile(Toggled.class.getAnnotation(Toggle.class), constraint);
+
+        Assert.assertTrue(compiled.matches(context, definition));
+        Assert.assertTrue(compiled.matches(context, definition));
+        Assert.assertEquals(1, constraint.evaluations.get());
+
+        value.set("b");
+        Assert.assertTrue(compiled.matches(context, definition));
+        Assert.assertEquals(2, constraint.evaluations.get());
+    }
+
+    @Test
+    public void testConstantConstraint() {
+        ConcurrentContext context = new ConcurrentContext();
+        ComponentDefinition<Object> definition = TestDefinition.eager(Object.class);
+        CountingConstraint constraint = new CountingConstraint(Collections.emptySet(), false);
+
+        CompiledConstraints compiled = compile(Toggled.class.getAnnotation(Toggle.class), constraint);
+
+        Assert.assertFalse(compiled.matches(context, definition));
+        Assert.assertFalse(compiled.matches(context, definition));
+        Assert.assertEquals(1, constraint.evaluations.get());
+    }
+
+    @Test
+    public void testUnknownInputs() {
+        ConcurrentContext context = new ConcurrentContext();
+        ComponentDefinition<Object> definition = TestDefinition.eager(Object.class);
+        CountingConstraint constraint = new CountingConstraint(null, true);
+
+        CompiledConstraints compiled = compile(Toggled.class.getAnnotation(Toggle.class), constraint);
+
+        Assert.assertTrue(compiled.matches(context, definition));
+        Assert.assertTrue(compiled.matches(context, definition));
+        Assert.assertEquals(2, constraint.evaluations.get());
+    }
+
+    @Test
+    public void testEvaluationOrder() {
+        ConcurrentContext context = new ConcurrentContext();
+        ComponentDefinition<Object> definition = TestDefinition.eager(Object.class);
+        CountingConstraint expensive = new CountingConstraint(null, true);
+        CountingConstraint constant = new CountingConstraint(Collections.emptySet(), false);
+
+        Map<Annotation, ComponentConstraint<?>> constraints = new LinkedHashMap<>();
+        constraints.put(Toggled.class.getAnnotation(Toggle.class), expensive);
+        constraints.put(Toggled.class.getAnnotation(Secondary.class), constant);
+        CompiledConstraints compiled = CompiledConstraints.compile(constraints);
+
+        Assert.assertFalse(compiled.matches(context, definition));
+        Assert.assertEquals(0, expensive.evaluations.get());
+        Assert.assertEquals(1, constant.evaluations.get());
+    }
+
+    @Nonnull
+    private static CompiledConstraints compile(@Nonnull Annotation annotation, @Nonnull ComponentConstraint<?> constraint) {
+        return CompiledConstraints.compile(Collections.singletonMap(annotation, constraint));
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Toggle {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Secondary {
+    }
+
+    @Toggle
+    @Secondary
+    public static class Toggled {
+    }
+
+    public static class CountingConstraint implements ComponentConstraint<Annotation> {
+        private final AtomicInteger evaluations = new AtomicInteger();
+        private final Set<ConstraintInput> inputs;
+        private final boolean result;
+
+        public CountingConstraint(Set<ConstraintInput> inputs, boolean result) {
+            this.inputs = inputs;
+            this.result = result;
+        }
+
+        @Nonnull
+        @Override
+        public Optional<Set<ConstraintInput>> getInputs(@Nonnull Annotation annotation) {
+            return Optional.ofNullable(this.inputs);
+        }
+
+        @Override
+        public boolean matches(@Nonnull Annotation annotation, @Nonnull ComponentDefinition<?> definition) {
+            this.evaluations.incrementAndGet();
+            return this.result;
+        }
+    }
+}
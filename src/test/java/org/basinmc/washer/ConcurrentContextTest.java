@@ -0,0 +1,195 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ConcurrentContextTest {
+
+    @Test
+    public void testBinding() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.bind(Service.class, ServiceImplementation.class);
+
+        Service first = context.get(Service.class).orElse(null);
+        Service second = context.get(Service.class).orElse(null);
+
+        Assert.assertTrue(first instanceof ServiceImplementation);
+        Assert.assertNotSame(first, second);
+        Assert.assertTrue(context.canProduceInstanceLocally(Service.class));
+        Assert.assertFalse(context.hasLocalInstance(Service.class));
+
+        context.clearBinding(Service.class);
+        Assert.assertFalse(context.get(Service.class).isPresent());
+    }
+
+    @Test
+    public void testSingletonBinding() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.bind(Service.class, SingletonService.class);
+
+        Service first = context.get(Service.class).orElse(null);
+
+        Assert.assertTrue(first instanceof SingletonService);
+        Assert.assertSame(first, context.get(Service.class).orElse(null));
+        Assert.assertTrue(context.hasLocalInstance(Service.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProviderBinding() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.bindProvider(Service.class, (Class<Provider<Service>>) (Class<?>) ServiceProvider.class);
+
+        Assert.assertTrue(context.get(Service.class).orElse(null) instanceof ServiceImplementation);
+        Assert.assertTrue(context.getProvider(Service.class).orElse(null) instanceof ServiceProvider);
+    }
+
+    @Test
+    public void testInstance() {
+        ConcurrentContext context = new ConcurrentContext();
+        ServiceImplementation instance = new ServiceImplementation();
+        context.setInstance(Service.class, "test", instance);
+
+        Assert.assertSame(instance, context.get(Service.class, "test").orElse(null));
+        Assert.assertTrue(context.hasLocalInstance(Service.class, "test"));
+        Assert.assertFalse(context.hasLocalInstance(Service.class, "other"));
+
+        context.removeInstance(Service.class, "test");
+        Assert.assertFalse(context.hasInstance(Service.class, "test"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncompatibleInstance() {
+        new ConcurrentContext().setInstance(Service.class, "test", new Object());
+    }
+
+    @Test
+    public void testImplicitConstruction() {
+        ConcurrentContext parent = new ConcurrentContext();
+        ConcurrentContext child = new ConcurrentContext(parent);
+
+        Consumer consumer = child.get(Consumer.class).orElse(null);
+
+        Assert.assertNotNull(consumer);
+        Assert.assertTrue(consumer.dependency instanceof SingletonService);
+        Assert.assertSame(consumer.dependency, consumer.field);
+        Assert.assertTrue(parent.hasLocalInstance(SingletonService.class));
+        Assert.assertFalse(child.hasLocalInstance(SingletonService.class));
+    }
+
+    @Test
+    public void testParentResolution() {
+        ConcurrentContext parent = new ConcurrentContext();
+        ConcurrentContext child = new ConcurrentContext(parent);
+        ServiceImplementation instance = new ServiceImplementation();
+
+        parent.setInstance(Service.class, instance);
+        Assert.assertSame(instance, child.get(Service.class).orElse(null));
+        Assert.assertTrue(child.hasInstance(Service.class));
+        Assert.assertFalse(child.hasLocalInstance(Service.class));
+
+        ServiceImplementation local = new ServiceImplementation();
+        child.setInstance(Service.class, local);
+        Assert.assertSame(local, child.get(Service.class).orElse(null));
+        Assert.assertSame(instance, parent.get(Service.class).orElse(null));
+        Assert.assertEquals(Optional.of(parent), child.getParent());
+    }
+
+    @Test
+    public void testCachedResolutionInvalidation() {
+        ConcurrentContext root = new ConcurrentContext();
+        ConcurrentContext parent = new ConcurrentContext(root);
+        ConcurrentContext child = new ConcurrentContext(parent);
+        ServiceImplementation first = new ServiceImplementation();
+        ServiceImplementation second = new ServiceImplementation();
+
+        Assert.assertFalse(child.hasInstance(Service.class));
+        Assert.assertFalse(child.canProduceInstance(Service.class));
+
+        root.setInstance(Service.class, first);
+        Assert.assertTrue(child.hasInstance(Service.class));
+        Assert.assertSame(first, child.get(Service.class).orElse(null));
+        Assert.assertSame(first, child.get(Service.class).orElse(null));
+
+        parent.setInstance(Service.class, second);
+        Assert.assertSame(second, child.get(Service.class).orElse(null));
+
+        parent.removeInstance(Service.class);
+        Assert.assertSame(first, child.get(Service.class).orElse(null));
+
+        root.removeInstance(Service.class);
+        root.bind(Service.class, ServiceImplementation.class);
+        Assert.assertFalse(child.hasInstance(Service.class));
+        Assert.assertTrue(child.canProduceInstance(Service.class));
+        Assert.assertTrue(child.getProvider(Service.class).isPresent());
+        Assert.assertTrue(child.get(Service.class).orElse(null) instanceof ServiceImplementation);
+    }
+
+    @Test
+    public void testClear() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.bind(Service.class, SingletonService.class);
+        context.get(Service.class);
+
+        context.clear();
+        Assert.assertFalse(context.hasLocalInstance(Service.class));
+        Assert.assertTrue(context.canProduceInstanceLocally(Service.class));
+
+        context.clearAllBindings();
+        Assert.assertFalse(context.canProduceInstanceLocally(Service.class));
+    }
+
+    public interface Service {
+    }
+
+    public static class ServiceImplementation implements Service {
+    }
+
+    @Singleton
+    public static class SingletonService implements Service {
+    }
+
+    public static class ServiceProvider implements Provider<Service> {
+
+        @Override
+        public Service get() {
+            return new ServiceImplementation();
+        }
+    }
+
+    public static class Consumer {
+        private final SingletonService dependency;
+        @Inject
+        private SingletonService field;
+
+        @Inject
+        public Consumer(SingletonService dependency) {
+            this.dependency = dependency;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.ComponentDependency;
+import org.basinmc.washer.component.ComponentDependency.Kind;
+import org.basinmc.washer.component.ComponentFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ConstructionPlanTest {
+
+    @Test
+    public void testRecordedDependencies() {
+        ConcurrentContext context = new ConcurrentContext();
+        List<Dependency> dependencies = ConstructionPlan.of(Recorded.class).getDependencies();
+
+        Assert.assertEquals(1, dependencies.size());
+        Assert.assertEquals(Key.of(Runnable.class, "recorded"), dependencies.get(0).getKey(context));
+        Assert.assertTrue(dependencies.get(0).isDeferred());
+    }
+
+    @Test
+    public void testReflectedDependencies() {
+        ConcurrentContext context = new ConcurrentContext();
+        List<Dependency> dependencies = ConstructionPlan.of(Unrecorded.class).getDependencies();
+
+        Assert.assertEquals(1, dependencies.size());
+        Assert.assertEquals(context.getKey(Object.class), dependencies.get(0).getKey(context));
+        Assert.assertFalse(dependencies.get(0).isDeferred());
+    }
+
+    public static class Recorded {
+        @Inject
+        public Object field;
+    }
+
+    public static class Recorded$$WasherFactory implements ComponentFactory<Recorded> {
+
+        @Nonnull
+        @Override
+        public Recorded newInstance(@Nonnull Context context) {
+            return new Recorded();
+        }
+
+        @Override
+        public List<ComponentDependency> getDependencies() {
+            return Collections.singletonList(ComponentDependency.of(Runnable.class, "recorded", Kind.PROVIDER));
+        }
+    }
+
+    public static class Unrecorded {
+        @Inject
+        public Object field;
+    }
+
+    public static class Unrecorded$$WasherFactory implements ComponentFactory<Unrecorded> {
+
+        @Nonnull
+        @Override
+        public Unrecorded newInstance(@Nonnull Context context) {
+            return new Unrecorded();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ConstructionTest {
+    private static final AtomicInteger constructions = new AtomicInteger();
+    private static volatile CountDownLatch release;
+    private static volatile CyclicBarrier barrier;
+
+    @Before
+    public void reset() {
+        constructions.set(0);
+        release = new CountDownLatch(1);
+        barrier = new CyclicBarrier(2);
+    }
+
+    @Test(timeout = 10000)
+    public void testSingleFlight() throws InterruptedException, ExecutionException {
+        ConcurrentContext context = new ConcurrentContext();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<SlowSingleton>> futures = new ArrayList<>();
+
+            for (int i = 0; i < 8; ++i) {
+                futures.add(executor.submit(() -> context.get(SlowSingleton.class).orElse(null)));
+            }
+
+            while (constructions.get() == 0) {
+                Thread.sleep(1);
+            }
+
+            release.countDown();
+            SlowSingleton instance = futures.get(0).get();
+
+            Assert.assertNotNull(instance);
+
+            for (Future<SlowSingleton> future : futures) {
+                Assert.assertSame(instance, future.get());
+            }
+
+            Assert.assertEquals(1, constructions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCrossThreadCycle() throws InterruptedException {
+        ConcurrentContext context = new ConcurrentContext();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<?> first = executor.submit(() -> context.get(FirstCycle.class));
+            Future<?> second = executor.submit(() -> context.get(SecondCycle.class));
+
+            assertInjectionFailure(first);
+            assertInjectionFailure(second);
+            Assert.assertFalse(context.hasLocalInstance(FirstCycle.class));
+            Assert.assertFalse(context.hasLocalInstance(SecondCycle.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = InjectionException.class)
+    public void testSameThreadCycle() {
+        barrier = null;
+        new ConcurrentContext().get(FirstCycle.class);
+    }
+
+    private static void assertInjectionFailure(Future<?> future) throws InterruptedException {
+        try {
+            future.get();
+            Assert.fail("Expected construction to fail");
+        } catch (ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof InjectionException);
+        }
+    }
+
+    private static void rendezvous() {
+        CyclicBarrier barrier = ConstructionTest.barrier;
+
+        if (barrier == null) {
+            return;
+        }
+
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | BrokenBarrierException | TimeoutException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Singleton
+    public static class SlowSingleton {
+
+        public SlowSingleton() throws InterruptedException {
+            constructions.incrementAndGet();
+            release.await();
+        }
+    }
+
+    @Singleton
+    public static class FirstCycle {
+        @Inject
+        public SecondCycle dependency;
+
+        public FirstCycle() {
+            rendezvous();
+        }
+    }
+
+    @Singleton
+    public static class SecondCycle {
+        @Inject
+        public FirstCycle dependency;
+
+        public SecondCycle() {
+            rendezvous();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ContextAsyncTest {
+    private static final AtomicInteger constructions = new AtomicInteger();
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Executor executor = this.tasks::add;
+
+    @Before
+    public void reset() {
+        constructions.set(0);
+        this.tasks.clear();
+    }
+
+    private void runAll() {
+        Runnable task;
+
+        while ((task = this.tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Test
+    public void testStoredInstance() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.setInstance(String.class, "value");
+
+        CompletableFuture<Optional<String>> future = context.getAsync(context.getKey(String.class), this.executor);
+
+        Assert.assertTrue(future.isDone());
+        Assert.assertTrue(this.tasks.isEmpty());
+        Assert.assertEquals("value", future.join().orElse(null));
+    }
+
+    @Test
+    public void testSharedFuture() {
+        ConcurrentContext context = new ConcurrentContext();
+        Key<Component> key = context.getKey(Component.class);
+
+        CompletableFuture<Optional<Component>> first = context.getAsync(key, this.executor);
+        CompletableFuture<Optional<Component>> second = context.getAsync(key, this.executor);
+
+        Assert.assertSame(first, second);
+        Assert.assertFalse(first.isDone());
+
+        this.runAll();
+
+        Assert.assertTrue(first.isDone());
+        Assert.assertTrue(first.join().isPresent());
+        Assert.assertEquals(3, constructions.get());
+    }
+
+    @Test
+    public void testCompletedFutureDiscarded() {
+        ConcurrentContext context = new ConcurrentContext();
+        Key<Component> key = context.getKey(Component.class);
+
+        CompletableFuture<Optional<Component>> first = context.getAsync(key, this.executor);
+        this.runAll();
+        CompletableFuture<Optional<Component>> second = context.getAsync(key, this.executor);
+        this.runAll();
+
+        Assert.assertNotSame(first, second);
+        Assert.assertNotSame(first.join().orElse(null), second.join().orElse(null));
+        Assert.assertSame(first.join().get().first, second.join().get().first);
+        Assert.assertEquals(4, constructions.get());
+    }
+
+    @Test
+    public void testPrerequisites() {
+        ConcurrentContext context = new ConcurrentContext();
+        CompletableFuture<Optional<Component>> future = context.getAsync(context.getKey(Component.class), this.executor);
+
+        Runnable task;
+
+        while (!context.hasInstance(FirstSingleton.class) || !context.hasInstance(SecondSingleton.class)) {
+            Assert.assertFalse(future.isDone());
+            Assert.assertNotNull(task = this.tasks.poll());
+            task.run();
+        }
+
+        this.runAll();
+
+        Component component = future.join().orElseThrow(AssertionError::new);
+        Assert.assertSame(context.get(FirstSingleton.class).orElse(null), component.first);
+        Assert.assertSame(context.get(SecondSingleton.class).orElse(null), component.second);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSharedProviderFuture() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.bindProvider(Runnable.class, (Class<Provider<Runnable>>) (Class<?>) RunnableProvider.class);
+        Key<Runnable> key = context.getKey(Runnable.class);
+
+        CompletableFuture<Optional<Provider<Runnable>>> first = context.getProviderAsync(key, this.executor);
+        CompletableFuture<Optional<Provider<Runnable>>> second = context.getProviderAsync(key, this.executor);
+
+        Assert.assertSame(first, second);
+
+        this.runAll();
+
+        Assert.assertTrue(first.join().isPresent());
+        Assert.assertEquals(1, constructions.get());
+        Assert.assertTrue(context.getProviderAsync(key, this.executor).isDone());
+    }
+
+    @Test
+    public void testCycle() throws InterruptedException {
+        ConcurrentContext context = new ConcurrentContext();
+        CompletableFuture<Optional<CyclicA>> future = context.getAsync(context.getKey(CyclicA.class), this.executor);
+
+        this.runAll();
+
+        try {
+            future.get();
+            Assert.fail("Expected cyclic dependency to be rejected");
+        } catch (ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof InjectionException);
+        }
+    }
+
+    @Singleton
+    public static class FirstSingleton {
+        public FirstSingleton() {
+            constructions.incrementAndGet();
+        }
+    }
+
+    @Singleton
+    public static class SecondSingleton {
+        public SecondSingleton() {
+            constructions.incrementAndGet();
+        }
+    }
+
+    public static class Component {
+        private final FirstSingleton first;
+        private final SecondSingleton second;
+
+        @Inject
+        public Component(FirstSingleton first, SecondSingleton second) {
+            constructions.incrementAndGet();
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    public static class RunnableProvider implements Provider<Runnable> {
+        public RunnableProvider() {
+            constructions.incrementAndGet();
+        }
+
+        @Override
+        public Runnable get() {
+            return () -> {
+            };
+        }
+    }
+
+    public static class CyclicA {
+        @Inject
+        public CyclicA(CyclicB b) {
+        }
+    }
+
+    public static class CyclicB {
+        @Inject
+        public CyclicB(CyclicA a) {
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ContextBatchTest {
+
+    @Test
+    public void testBatch() {
+        ConcurrentContext context = new ConcurrentContext();
+        Counter counter = new Counter(1);
+
+        context.batch((b) -> {
+            b.bind(Left.class, LeftImplementation.class);
+            b.setInstance(Right.class, new RightInstance());
+            b.setInstance(Counter.class, counter);
+        });
+
+        Assert.assertTrue(context.get(Left.class).orElse(null) instanceof LeftImplementation);
+        Assert.assertSame(counter, context.get(Counter.class).orElse(null));
+    }
+
+    @Test
+    public void testCycleRollback() {
+        ConcurrentContext context = new ConcurrentContext();
+
+        try {
+            context.batch((b) -> {
+                b.setInstance(Counter.class, new Counter(1));
+                b.bind(Left.class, LeftImplementation.class);
+                b.bind(Right.class, RightImplementation.class);
+            });
+            Assert.fail("Expected cyclic batch to be rejected");
+        } catch (InjectionException ignore) {
+        }
+
+        Assert.assertFalse(context.hasLocalInstance(Counter.class));
+        Assert.assertFalse(context.canProduceInstanceLocally(Left.class));
+        Assert.assertFalse(context.canProduceInstanceLocally(Right.class));
+    }
+
+    @Test
+    public void testFailureRollback() {
+        ConcurrentContext context = new ConcurrentContext();
+
+        try {
+            context.batch((b) -> {
+                b.setInstance(Counter.class, new Counter(1));
+                throw new IllegalStateException();
+            });
+            Assert.fail("Expected batch to fail");
+        } catch (IllegalStateException ignore) {
+        }
+
+        Assert.assertFalse(context.hasLocalInstance(Counter.class));
+    }
+
+    @Test(timeout = 30000)
+    public void testAtomicity() throws InterruptedException, ExecutionException {
+        ConcurrentContext context = new ConcurrentContext();
+        context.batch((b) -> {
+            b.setInstance(Counter.class, "first", new Counter(0));
+            b.setInstance(Counter.class, "second", new Counter(0));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 1; i <= 10000; ++i) {
+                    Counter counter = new Counter(i);
+
+                    context.batch((b) -> {
+                        b.setInstance(Counter.class, "first", counter);
+                        b.setInstance(Counter.class, "second", counter);
+                    });
+                }
+
+                running.set(false);
+            });
+
+            Runnable reader = () -> {
+                while (running.get()) {
+                    int first = context.get(Counter.class, "first").orElseThrow(AssertionError::new).value;
+                    int second = context.get(Counter.class, "second").orElseThrow(AssertionError::new).value;
+
+                    if (second < first) {
+                        throw new AssertionError("Observed partially applied batch: " + first + " > " + second);
+                    }
+                }
+            };
+
+            Future<?> firstReader = executor.submit(reader);
+            Future<?> secondReader = executor.submit(reader);
+
+            writer.get();
+            firstReader.get();
+            secondReader.get();
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentVerification() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            for (int i = 0; i < 200; ++i) {
+                ConcurrentContext context = new ConcurrentContext();
+                CyclicBarrier barrier = new CyclicBarrier(2);
+
+                Future<Boolean> left = executor.submit(() -> {
+                    await(barrier);
+                    return apply(() -> context.batch((b) -> b.bind(Left.class, LeftImplementation.class)));
+                });
+                Future<Boolean> right = executor.submit(() -> {
+                    await(barrier);
+                    return apply(() -> context.bind(Right.class, RightImplementation.class));
+                });
+
+                Assert.assertFalse("Both halves of a cycle have been applied", left.get() && right.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean apply(Runnable operation) {
+        try {
+            operation.run();
+            return true;
+        } catch (InjectionException ex) {
+            return false;
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | BrokenBarrierException | TimeoutException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public static class Counter {
+        private final int value;
+
+        public Counter(int value) {
+            this.value = value;
+        }
+    }
+
+    public interface Left {
+    }
+
+    public interface Right {
+    }
+
+    public static class LeftImplementation implements Left {
+
+        @Inject
+        public LeftImplementation(Right right) {
+        }
+    }
+
+    public static class RightImplementation implements Right {
+
+        @Inject
+        public RightImplementation(Left left) {
+        }
+    }
+
+    public static class RightInstance implements Right {
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.annotation.ComponentType;
+import org.basinmc.washer.annotation.ProvidedBy;
+import org.basinmc.washer.component.ComponentTypeScanner;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ContextClearTest {
+    private static final List<Object> destructed = Collections.synchronizedList(new ArrayList<>());
+    private static final List<List<Object>> batches = Collections.synchronizedList(new ArrayList<>());
+    private static volatile CountDownLatch rendezvous;
+
+    @Before
+    public void reset() {
+        destructed.clear();
+        batches.clear();
+        rendezvous = new CountDownLatch(2);
+    }
+
+    @Test
+    public void testDependencyOrder() {
+        ConcurrentContext context = new ConcurrentContext();
+        Controller controller = context.get(Controller.class).orElse(null);
+
+        Assert.assertNotNull(controller);
+        context.clear(Runnable::run);
+
+        Assert.assertEquals(Arrays.asList(controller, controller.service, controller.service.repository), destructed);
+        Assert.assertFalse(context.hasLocalInstance(Controller.class));
+    }
+
+    @Test
+    public void testRegistrationOrder() {
+        ConcurrentContext context = new ConcurrentContext();
+        Registered first = new Registered();
+        Registered second = new Registered();
+        Registered third = new Registered();
+        context.setInstance(Registered.class, "first", first);
+        context.setInstance(Registered.class, "second", second);
+        context.setInstance(Registered.class, "third", third);
+        context.clear(Runnable::run);
+
+        Assert.assertEquals(Arrays.asList(third, second, first), destructed);
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentRegisteredInstances() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            ConcurrentContext context = new ConcurrentContext();
+            List<Object> first = Arrays.asList(new FirstBatched(), new FirstBatched(), new FirstBatched());
+            List<Object> second = Arrays.asList(new SecondBatched(), new SecondBatched(), new SecondBatched());
+
+            for (int i = 0; i < 3; ++i) {
+                context.setInstance(FirstBatched.class, "first" + i, first.get(i));
+                context.setInstance(SecondBatched.class, "second" + i, second.get(i));
+            }
+
+            // both scanners await each other and thus only complete when they are notified
+            // concurrently
+            context.clear(executor);
+
+            Assert.assertEquals(2, batches.size());
+            Assert.assertTrue(batches.contains(Arrays.asList(first.get(2), first.get(1), first.get(0))));
+            Assert.assertTrue(batches.contains(Arrays.asList(second.get(2), second.get(1), second.get(0))));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRegisteredDependant() {
+        ConcurrentContext context = new ConcurrentContext();
+        Repository repository = context.get(Repository.class).orElse(null);
+        Registered registered = new Registered();
+        context.setInstance(Registered.class, "dependant", registered);
+        Service service = context.get(Service.class).orElse(null);
+        context.clear(Runnable::run);
+
+        // the registered instance may have received the repository while the service has been
+        // constructed after it was stored
+        Assert.assertEquals(Arrays.asList(service, registered, repository), destructed);
+    }
+
+    @Test
+    public void testProvidedInstance() {
+        ConcurrentContext context = new ConcurrentContext();
+        Repository repository = context.get(Repository.class).orElse(null);
+        context.register(TestDefinition.eager(Provided.class));
+        context.initialize();
+
+        Provided provided = context.get(Provided.class).orElse(null);
+        Assert.assertNotNull(provided);
+        Assert.assertTrue(context.hasLocalInstance(Provided.class));
+
+        context.clear(Runnable::run);
+        Assert.assertEquals(Arrays.asList(provided, repository), destructed);
+    }
+
+    @Test
+    public void testRecordedDependencies() {
+        ConcurrentContext context = new ConcurrentContext();
+        Unresolvable unresolvable = new Unresolvable(null);
+        context.setInstance(Unresolvable.class, unresolvable);
+        Repository repository = context.get(Repository.class).orElse(null);
+        context.clear(Runnable::run);
+
+        // the type of the registered instance is neither constructible nor has it received the
+        // repository which has been constructed afterwards
+        Assert.assertEquals(Arrays.asList(repository, unresolvable), destructed);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @ComponentType(scanner = TrackingScanner.class)
+    public @interface Tracked {
+    }
+
+    @Tracked
+    @Singleton
+    public static class Repository {
+    }
+
+    @Tracked
+    @Singleton
+    public static class Service {
+        private final Repository repository;
+
+        @Inject
+        public Service(@Nonnull Repository repository) {
+            this.repository = repository;
+        }
+    }
+
+    @Tracked
+    @Singleton
+    public static class Controller {
+        private final Service service;
+
+        @Inject
+        public Controller(@Nonnull Service service) {
+            this.service = service;
+        }
+    }
+
+    @Tracked
+    public static class Registered {
+    }
+
+    @Tracked
+    @ProvidedBy(ProvidedProvider.class)
+    public static class Provided {
+    }
+
+    public static class ProvidedProvider implements Provider<Provided> {
+
+        @Override
+        public Provided get() {
+            return new Provided();
+        }
+    }
+
+    @Tracked
+    public static class Unresolvable {
+
+        @Inject
+        public Unresolvable(Repository repository) {
+        }
+
+        @Inject
+        public Unresolvable(@Named("other") Repository repository, Service service) {
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @ComponentType(scanner = FirstBatchingScanner.class)
+    public @interface FirstBatch {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @ComponentType(scanner = SecondBatchingScanner.class)
+    public @interface SecondBatch {
+    }
+
+    @FirstBatch
+    public static class FirstBatched {
+    }
+
+    @SecondBatch
+    public static class SecondBatched {
+    }
+
+    public static class FirstBatchingScanner implements ComponentTypeScanner<Annotation, Object> {
+
+        @Override
+        public void onDestruct(@Nonnull List<Annotation> annotations, @Nonnull List<Object> instances) {
+            awaitBatch(instances);
+        }
+    }
+
+    public static class SecondBatchingScanner implements ComponentTypeScanner<Annotation, Object> {
+
+        @Override
+        public void onDestruct(@Nonnull List<Annotation> annotations, @Nonnull List<Object> instances) {
+            awaitBatch(instances);
+        }
+    }
+
+    private static void awaitBatch(@Nonnull List<Object> instances) {
+        batches.add(new ArrayList<>(instances));
+        rendezvous.countDown();
+
+        try {
+            rendezvous.await();
+        } catch (InterruptedException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+
+    public static class TrackingScanner implements ComponentTypeScanner<Annotation, Object> {
+
+        @Override
+        public void onDestruct(@Nonnull Annotation annotation, @Nonnull Object instance) {
+            destructed.add(instance);
+        }
+    }
+}
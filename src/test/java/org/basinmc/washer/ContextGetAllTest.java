@@ -0,0 +1,257 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.InitializationStrategy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+import javax.inject.Provider;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ContextGetAllTest {
+    private static final AtomicInteger constructions = new AtomicInteger();
+
+    @Before
+    public void reset() {
+        constructions.set(0);
+    }
+
+    @Test
+    public void testQualifiers() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.setInstance(String.class, "first", "a");
+        context.setInstance(String.class, "second", "b");
+        context.setInstance(Integer.class, "third", 1);
+
+        List<String> instances = context.getAll(String.class);
+
+        Assert.assertEquals(2, instances.size());
+        Assert.assertTrue(instances.containsAll(Arrays.asList("a", "b")));
+        Assert.assertTrue(context.getAll(Long.class).isEmpty());
+    }
+
+    @Test
+    public void testParentPrecedence() {
+        ConcurrentContext parent = new ConcurrentContext();
+        parent.setInstance(String.class, "shared", "parent");
+        parent.setInstance(String.class, "parent", "parent");
+
+        ConcurrentContext child = new ConcurrentContext(parent);
+        child.setInstance(String.class, "shared", "child");
+
+        List<String> instances = child.getAll(String.class);
+
+        Assert.assertEquals(2, instances.size());
+        Assert.assertEquals(Arrays.asList("child", "parent"), instances);
+    }
+
+    @Test
+    public void testOrder() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.register(new TestDefinition<>(Service.class, LowService.class, "low", InitializationStrategy.LAZY, 1));
+        context.register(new TestDefinition<>(Service.class, HighService.class, "high", InitializationStrategy.LAZY, 10));
+
+        List<Service> instances = context.getAll(Service.class);
+
+        Assert.assertEquals(2, instances.size());
+        Assert.assertTrue(instances.get(0) instanceof HighService);
+        Assert.assertTrue(instances.get(1) instanceof LowService);
+    }
+
+    @Test
+    public void testLazyStream() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.bind(Service.class, "low", LowService.class);
+        context.bind(Service.class, "high", HighService.class);
+
+        Stream<Service> stream = context.streamAll(Service.class);
+        Assert.assertEquals(0, constructions.get());
+
+        Assert.assertTrue(stream.findFirst().isPresent());
+        Assert.assertEquals(1, constructions.get());
+    }
+
+    @Test
+    public void testDefaultImplementation() {
+        MinimalContext context = new MinimalContext(null);
+
+        Assert.assertTrue(context.getAll(String.class).isEmpty());
+        Assert.assertEquals(0, context.streamAll(String.class).count());
+
+        context = new MinimalContext("value");
+
+        Assert.assertEquals(Collections.singletonList("value"), context.getAll(String.class));
+        Assert.assertEquals(Collections.singletonList("value"), context.streamAll(String.class).collect(Collectors.toList()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDefaultFreeze() {
+        new MinimalContext(null).freeze();
+    }
+
+    public interface Service {
+    }
+
+    public static class LowService implements Service {
+        public LowService() {
+            constructions.incrementAndGet();
+        }
+    }
+
+    public static class HighService implements Service {
+        public HighService() {
+            constructions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Provides a context which only resolves a single string instance in order to exercise the
+     * default implementations of {@link Context}.
+     */
+    private static final class MinimalContext implements Context {
+        private final String value;
+
+        MinimalContext(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public <C> void bind(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Class<C> binding) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <C> void bindProvider(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Class<Provider<C>> providerBinding) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean canProduceInstanceLocally(@Nonnull Class<?> type, @Nonnull String qualifier) {
+            return false;
+        }
+
+        @Override
+        public void clear() {
+        }
+
+        @Override
+        public void clearAllBindings() {
+        }
+
+        @Override
+        public void clearAllBindings(@Nonnull Class<?> base) {
+        }
+
+        @Override
+        public <C> void clearBinding(@Nonnull Class<C> base, @Nonnull Predicate<Class<? extends C>> filterPredicate) {
+        }
+
+        @Override
+        public <C> void clearBinding(@Nonnull Class<C> base, @Nonnull BiPredicate<String, Class<? extends C>> filterPredicate) {
+        }
+
+        @Override
+        public void clearBinding(@Nonnull Class<?> base, @Nonnull String qualifier) {
+        }
+
+        @Override
+        public <C> void clearProviderBinding(@Nonnull Class<C> base, @Nonnull Predicate<Class<Provider<? extends C>>> filterPredicate) {
+        }
+
+        @Override
+        public <C> void clearProviderBinding(@Nonnull Class<C> base, @Nonnull BiPredicate<String, Class<Provider<? extends C>>> filterPredicate) {
+        }
+
+        @Nonnull
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Optional<T> get(@Nonnull Class<T> type, @Nonnull String qualifier) {
+            return type == String.class && qualifier.equals(this.getDefaultQualifier(type)) ? Optional.ofNullable((T) this.value) : Optional.empty();
+        }
+
+        @Nonnull
+        @Override
+        public String getDefaultQualifier(@Nonnull Class<?> type) {
+            return type.getName();
+        }
+
+        @Nonnull
+        @Override
+        public Optional<Context> getParent() {
+            return Optional.empty();
+        }
+
+        @Nonnull
+        @Override
+        public <C> Optional<Provider<C>> getProvider(@Nonnull Class<C> type, @Nonnull String qualifier) {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean hasLocalInstance(@Nonnull Class<?> type, @Nonnull String qualifier) {
+            return this.get(type, qualifier).isPresent();
+        }
+
+        @Override
+        public void inject(@Nonnull Object object) {
+        }
+
+        @Override
+        public void refresh() {
+        }
+
+        @Override
+        public void removeAllInstances(@Nonnull Class<?> type) {
+        }
+
+        @Override
+        public <C> void removeInstance(@Nonnull Class<C> type, @Nonnull Predicate<C> filterPredicate) {
+        }
+
+        @Override
+        public <C> void removeInstance(@Nonnull Class<C> type, @Nonnull BiPredicate<String, C> filterPredicate) {
+        }
+
+        @Override
+        public void removeInstance(@Nonnull Class<?> type, @Nonnull String qualifier) {
+        }
+
+        @Override
+        public <C> void removeInstance(@Nonnull Class<? super C> type, @Nonnull C instance) {
+        }
+
+        @Override
+        public <C> void setInstance(@Nonnull Class<? super C> base, @Nonnull String qualifier, @Nonnull Object instance) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.annotation.ComponentType;
+import org.basinmc.washer.component.ComponentTypeScanner;
+import org.basinmc.washer.component.Lazy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ContextLazyTest {
+    private static final AtomicInteger constructions = new AtomicInteger();
+    private static final AtomicInteger notifications = new AtomicInteger();
+    private static volatile CountDownLatch release;
+
+    @Before
+    public void reset() {
+        constructions.set(0);
+        notifications.set(0);
+        release = new CountDownLatch(1);
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentFirstAccess() throws InterruptedException, ExecutionException {
+        ConcurrentContext context = new ConcurrentContext();
+        Lazy<SlowComponent> lazy = context.getLazy(SlowComponent.class);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<SlowComponent>> futures = new ArrayList<>();
+
+            for (int i = 0; i < 8; ++i) {
+                futures.add(executor.submit(lazy::getInstance));
+            }
+
+            while (constructions.get() == 0) {
+                Thread.sleep(1);
+            }
+
+            release.countDown();
+            SlowComponent instance = futures.get(0).get();
+
+            for (Future<SlowComponent> future : futures) {
+                Assert.assertSame(instance, future.get());
+            }
+
+            Assert.assertEquals(1, constructions.get());
+            Assert.assertEquals(1, notifications.get());
+            Assert.assertTrue(lazy.isInitialized());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testContendedGet() throws InterruptedException, ExecutionException {
+        ConcurrentContext context = new ConcurrentContext();
+        Lazy<SlowComponent> lazy = context.getLazy(SlowComponent.class);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<SlowComponent> future = executor.submit(lazy::getInstance);
+
+            while (constructions.get() == 0) {
+                Thread.sleep(1);
+            }
+
+            // the resolution remains in progress until the latch is released below and would thus
+            // block this thread indefinitely
+            Assert.assertFalse(lazy.get().isPresent());
+            Assert.assertFalse(lazy.isInitialized());
+            Assert.assertFalse(future.isDone());
+
+            release.countDown();
+            SlowComponent instance = future.get();
+
+            Assert.assertSame(instance, lazy.get().orElse(null));
+            Assert.assertEquals(1, constructions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedResolution() {
+        ConcurrentContext context = new ConcurrentContext();
+        Lazy<Runnable> lazy = context.getLazy(Runnable.class);
+
+        Assert.assertFalse(lazy.get().isPresent());
+        Assert.assertFalse(lazy.isInitialized());
+
+        try {
+            lazy.getInstance();
+            Assert.fail("Expected resolution to fail");
+        } catch (InjectionException ignore) {
+        }
+
+        Runnable instance = () -> {
+        };
+        context.setInstance(Runnable.class, instance);
+
+        Assert.assertTrue(lazy.isInitialized());
+        Assert.assertSame(instance, lazy.getInstance());
+        Assert.assertSame(instance, lazy.get().orElse(null));
+    }
+
+    @Test
+    public void testProxy() {
+        ConcurrentContext context = new ConcurrentContext();
+        AtomicInteger invocations = new AtomicInteger();
+        Runnable proxy = context.getLazyProxy(Runnable.class, context.getDefaultQualifier(Runnable.class));
+
+        Runnable instance = invocations::incrementAndGet;
+        context.setInstance(Runnable.class, instance);
+        proxy.run();
+        proxy.run();
+
+        Assert.assertEquals(2, invocations.get());
+        Assert.assertEquals(proxy, proxy);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @ComponentType(scanner = CountingScanner.class)
+    public @interface Counted {
+    }
+
+    @Counted
+    public static class SlowComponent {
+
+        public SlowComponent() throws InterruptedException {
+            constructions.incrementAndGet();
+            release.await();
+        }
+    }
+
+    public static class CountingScanner implements ComponentTypeScanner<Annotation, Object> {
+
+        @Override
+        public void onConstruct(@Nonnull Annotation annotation, @Nonnull Object instance) {
+            notifications.incrementAndGet();
+        }
+    }
+}
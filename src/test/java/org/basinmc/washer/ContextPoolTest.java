@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.annotation.ComponentType;
+import org.basinmc.washer.component.ComponentTypeScanner;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ContextPoolTest {
+    private static final AtomicInteger destructions = new AtomicInteger();
+
+    @Before
+    public void reset() {
+        destructions.set(0);
+    }
+
+    @Test
+    public void testRecycle() {
+        ConcurrentContext parent = new ConcurrentContext();
+        Service shared = new Service();
+        parent.setInstance(Service.class, shared);
+
+        ContextPool pool = new ContextPool(parent);
+        ConcurrentContext context = pool.acquire();
+        context.setInstance(TrackedService.class, new TrackedService());
+        pool.release(context);
+
+        Assert.assertEquals(1, destructions.get());
+
+        ConcurrentContext reused = pool.acquire();
+        Assert.assertSame(context, reused);
+        Assert.assertFalse(reused.hasLocalInstance(TrackedService.class));
+        Assert.assertSame(shared, reused.get(Service.class).orElse(null));
+
+        pool.release(reused);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleRelease() {
+        ContextPool pool = new ContextPool(new ConcurrentContext());
+        ConcurrentContext context = pool.acquire();
+
+        pool.release(context);
+        pool.release(context);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleReleaseBeyondCapacity() {
+        ContextPool pool = new ContextPool(new ConcurrentContext(), 0);
+        ConcurrentContext context = pool.acquire();
+
+        pool.release(context);
+        pool.release(context);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForeignContext() {
+        ContextPool pool = new ContextPool(new ConcurrentContext());
+        pool.release(new ConcurrentContext(new ConcurrentContext()));
+    }
+
+    @Test
+    public void testCapacity() {
+        ContextPool pool = new ContextPool(new ConcurrentContext(), 1);
+        ConcurrentContext first = pool.acquire();
+        ConcurrentContext second = pool.acquire();
+
+        pool.release(first);
+        pool.release(second);
+
+        Assert.assertSame(first, pool.acquire());
+        Assert.assertNotSame(second, pool.acquire());
+    }
+
+    @Test
+    public void testLazyAllocation() throws ReflectiveOperationException {
+        ConcurrentContext parent = new ConcurrentContext();
+        parent.setInstance(Service.class, new Service());
+
+        ContextPool pool = new ContextPool(parent);
+        ConcurrentContext context = pool.acquire();
+
+        Assert.assertTrue(context.get(Service.class).isPresent());
+        Assert.assertTrue(context.hasInstance(Service.class));
+        Assert.assertEquals(1, context.getAll(Service.class).size());
+        Assert.assertNull(getField(context, "storage"));
+        Assert.assertNull(getField(context, "state"));
+
+        context.setInstance(TrackedService.class, new TrackedService());
+        Assert.assertNotNull(getField(context, "storage"));
+
+        pool.release(context);
+        Assert.assertNull(getField(context, "storage"));
+    }
+
+    private static Object getField(@Nonnull ConcurrentContext context, @Nonnull String name) throws ReflectiveOperationException {
+        Field field = ConcurrentContext.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(context);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @ComponentType(scanner = TrackingScanner.class)
+    public @interface Tracked {
+    }
+
+    public static class Service {
+    }
+
+    @Tracked
+    public static class TrackedService {
+    }
+
+    public static class TrackingScanner implements ComponentTypeScanner<Annotation, Object> {
+
+        @Override
+        public void onDestruct(@Nonnull Annotation annotation, @Nonnull Object instance) {
+            destructions.incrementAndGet();
+        }
+    }
+}
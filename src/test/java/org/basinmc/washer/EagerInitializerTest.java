@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.InitializationStrategy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class EagerInitializerTest {
+    private static final List<Class<?>> constructed = Collections.synchronizedList(new ArrayList<>());
+    private static volatile CountDownLatch latch;
+
+    @Before
+    public void reset() {
+        constructed.clear();
+        latch = new CountDownLatch(2);
+    }
+
+    @Test
+    public void testDependencyOrder() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.register(TestDefinition.eager(Dependent.class));
+        context.register(TestDefinition.eager(Dependency.class));
+        context.register(new TestDefinition<>(Lazy.class, Lazy.class, InitializationStrategy.LAZY, 0));
+        context.initialize();
+
+        Assert.assertEquals(2, constructed.size());
+        Assert.assertEquals(Dependency.class, constructed.get(0));
+        Assert.assertEquals(Dependent.class, constructed.get(1));
+        Assert.assertTrue(context.hasLocalInstance(Dependent.class));
+        Assert.assertTrue(context.hasLocalInstance(Dependency.class));
+        Assert.assertFalse(context.hasLocalInstance(Lazy.class));
+    }
+
+    @Test
+    public void testPriorityOrder() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.register(new TestDefinition<>(Lazy.class, Lazy.class, InitializationStrategy.EAGER, 0));
+        context.register(new TestDefinition<>(Dependency.class, Dependency.class, InitializationStrategy.EAGER, 10));
+        context.initialize();
+
+        Assert.assertEquals(Dependency.class, constructed.get(0));
+        Assert.assertEquals(Lazy.class, constructed.get(1));
+        Assert.assertTrue(context.hasLocalInstance(Lazy.class));
+    }
+
+    @Test(timeout = 10000)
+    public void testParallelInitialization() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            ConcurrentContext context = new ConcurrentContext();
+            context.register(TestDefinition.eager(FirstRendezvous.class));
+            context.register(TestDefinition.eager(SecondRendezvous.class));
+            context.initialize(executor);
+
+            Assert.assertTrue(context.hasLocalInstance(FirstRendezvous.class));
+            Assert.assertTrue(context.hasLocalInstance(SecondRendezvous.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = InjectionException.class)
+    public void testUnsatisfiedDependency() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.register(TestDefinition.eager(Unsatisfied.class));
+        context.initialize();
+    }
+
+    private static void await() {
+        latch.countDown();
+
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Independent components have not been initialized concurrently");
+            }
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Singleton
+    public static class Dependency {
+
+        public Dependency() {
+            constructed.add(Dependency.class);
+        }
+    }
+
+    @Singleton
+    public static class Dependent {
+
+        @Inject
+        public Dependent(Dependency dependency) {
+            constructed.add(Dependent.class);
+        }
+    }
+
+    public static class Lazy {
+
+        public Lazy() {
+            constructed.add(Lazy.class);
+        }
+    }
+
+    public static class FirstRendezvous {
+
+        public FirstRendezvous() {
+            await();
+        }
+    }
+
+    public static class SecondRendezvous {
+
+        public SecondRendezvous() {
+            await();
+        }
+    }
+
+    public static class Unsatisfied {
+
+        @Inject
+        public Unsatisfied(Runnable dependency) {
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class FrozenContextTest {
+    private static final AtomicInteger constructions = new AtomicInteger();
+
+    @Before
+    public void reset() {
+        constructions.set(0);
+    }
+
+    @Test(timeout = 10000)
+    public void testCollidingQualifiers() {
+        Assert.assertEquals(Key.of(String.class, "Aa").hashCode(), Key.of(String.class, "BB").hashCode());
+
+        ConcurrentContext context = new ConcurrentContext();
+        context.setInstance(String.class, "Aa", "first");
+        context.setInstance(String.class, "BB", "second");
+        context.setInstance(String.class, "C#", "third");
+
+        FrozenContext frozen = context.freeze();
+
+        Assert.assertEquals("first", frozen.get(String.class, "Aa").orElse(null));
+        Assert.assertEquals("second", frozen.get(String.class, "BB").orElse(null));
+        Assert.assertEquals("third", frozen.get(String.class, "C#").orElse(null));
+        Assert.assertFalse(frozen.get(String.class, "Ab").isPresent());
+    }
+
+    @Test
+    public void testLargeSnapshot() {
+        ConcurrentContext context = new ConcurrentContext();
+
+        for (int i = 0; i < 1000; ++i) {
+            context.setInstance(Integer.class, "value" + i, i);
+        }
+
+        FrozenContext frozen = context.freeze();
+
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertEquals(Integer.valueOf(i), frozen.get(Integer.class, "value" + i).orElse(null));
+        }
+    }
+
+    @Test
+    public void testIsolation() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.setInstance(String.class, "frozen", "value");
+
+        FrozenContext frozen = context.freeze();
+        context.setInstance(String.class, "late", "value");
+
+        Assert.assertTrue(frozen.get(String.class, "frozen").isPresent());
+        Assert.assertFalse(frozen.get(String.class, "late").isPresent());
+        Assert.assertFalse(frozen.hasInstance(String.class, "late"));
+        Assert.assertEquals(1, frozen.getAll(String.class).size());
+        Assert.assertEquals(2, context.getAll(String.class).size());
+    }
+
+    @Test
+    public void testMissDoesNotModifySource() {
+        ConcurrentContext context = new ConcurrentContext();
+        FrozenContext frozen = context.freeze();
+
+        Assert.assertFalse(frozen.get(ImplicitSingleton.class).isPresent());
+        Assert.assertFalse(frozen.canProduceInstance(ImplicitSingleton.class));
+        Assert.assertFalse(context.hasLocalInstance(ImplicitSingleton.class));
+        Assert.assertEquals(0, constructions.get());
+    }
+
+    @Test
+    public void testImplicitDependencies() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.bind(Service.class, ServiceImpl.class);
+
+        FrozenContext frozen = context.freeze();
+        Assert.assertEquals(1, constructions.get());
+
+        ServiceImpl first = (ServiceImpl) frozen.get(Service.class).orElse(null);
+        ServiceImpl second = (ServiceImpl) frozen.get(Service.class).orElse(null);
+
+        Assert.assertNotNull(first);
+        Assert.assertNotNull(second);
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(first.singleton, second.singleton);
+        Assert.assertNotSame(first.helper, second.helper);
+        Assert.assertEquals(1, constructions.get());
+    }
+
+    @Test
+    public void testParent() {
+        ConcurrentContext parent = new ConcurrentContext();
+        parent.setInstance(String.class, "parent", "value");
+
+        ConcurrentContext child = new ConcurrentContext(parent);
+        child.setInstance(String.class, "child", "value");
+
+        FrozenContext frozen = child.freeze();
+        parent.setInstance(String.class, "late", "value");
+
+        Assert.assertTrue(frozen.getParent().orElse(null) instanceof FrozenContext);
+        Assert.assertTrue(frozen.get(String.class, "parent").isPresent());
+        Assert.assertTrue(frozen.get(String.class, "child").isPresent());
+        Assert.assertFalse(frozen.get(String.class, "late").isPresent());
+
+        List<String> all = frozen.getAll(String.class);
+        Assert.assertEquals(2, all.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testModification() {
+        new ConcurrentContext().freeze().setInstance(String.class, "value");
+    }
+
+    public interface Service {
+    }
+
+    @Singleton
+    public static class ImplicitSingleton {
+        public ImplicitSingleton() {
+            constructions.incrementAndGet();
+        }
+    }
+
+    public static class Helper {
+    }
+
+    public static class ServiceImpl implements Service {
+        private final ImplicitSingleton singleton;
+        private final Helper helper;
+
+        @Inject
+        public ServiceImpl(ImplicitSingleton singleton, Helper helper) {
+            this.singleton = singleton;
+            this.helper = helper;
+        }
+    }
+}
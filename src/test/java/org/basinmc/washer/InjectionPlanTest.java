@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.ComponentInjector;
+import org.basinmc.washer.processor.TestCompilation;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class InjectionPlanTest {
+
+    @Test
+    public void testHierarchyOrder() throws ReflectiveOperationException {
+        TestCompilation compilation = TestCompilation.compile(
+                "test.Tracker", "package test;\n" +
+                        "public class Tracker {\n" +
+                        "    private static int sequence;\n" +
+                        "    public final int order = ++sequence;\n" +
+                        "}",
+                "test.Base", "package test;\n" +
+                        "import javax.inject.Inject;\n" +
+                        "public class Base {\n" +
+                        "    @Inject private Tracker base;\n" +
+                        "    public Tracker getBase() { return this.base; }\n" +
+                        "}",
+                "test.Middle", "package test;\n" +
+                        "import javax.inject.Inject;\n" +
+                        "public class Middle extends Base {\n" +
+                        "    @Inject public Tracker middle;\n" +
+                        "}",
+                "test.Component", "package test;\n" +
+                        "import javax.inject.Inject;\n" +
+                        "public class Component extends Middle {\n" +
+                        "    @Inject private Tracker component;\n" +
+                        "    public Tracker getComponent() { return this.component; }\n" +
+                        "}"
+        );
+
+        Assert.assertFalse(compilation.hasClass("test.Base" + ComponentInjector.CLASS_NAME_SUFFIX));
+        Assert.assertTrue(compilation.hasClass("test.Middle" + ComponentInjector.CLASS_NAME_SUFFIX));
+
+        Class<?> type = compilation.loadClass("test.Component");
+        Object component = type.getConstructor().newInstance();
+        new ConcurrentContext().inject(component);
+
+        int base = getOrder(type.getMethod("getBase").invoke(component));
+        int middle = getOrder(type.getField("middle").get(component));
+        int own = getOrder(type.getMethod("getComponent").invoke(component));
+
+        Assert.assertTrue("Base fields have to be injected first", base < middle);
+        Assert.assertTrue("Subtype fields have to be injected last", middle < own);
+    }
+
+    @Test
+    public void testInjectByDefault() {
+        Injected injected = new Injected();
+        ConcurrentContext context = new ConcurrentContext();
+        context.setInstance(String.class, "value");
+        context.inject(injected);
+
+        Assert.assertEquals("value", injected.value);
+        Assert.assertNull(Injected.ignored);
+    }
+
+    private static int getOrder(Object tracker) throws ReflectiveOperationException {
+        return tracker.getClass().getField("order").getInt(tracker);
+    }
+
+    @org.basinmc.washer.annotation.InjectByDefault
+    public static class Injected {
+        private static String ignored;
+        private String value;
+    }
+}
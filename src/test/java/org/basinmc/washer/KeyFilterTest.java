@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class KeyFilterTest {
+
+    private static KeyFilter getFilter(@Nonnull ConcurrentContext context) throws ReflectiveOperationException {
+        Field field = ConcurrentContext.class.getDeclaredField("filter");
+        field.setAccessible(true);
+        return (KeyFilter) field.get(context);
+    }
+
+    @Test
+    public void testMembership() {
+        List<Key<?>> keys = new ArrayList<>();
+
+        for (int i = 0; i < 1000; ++i) {
+            keys.add(Key.of(String.class, "key" + i));
+        }
+
+        KeyFilter filter = KeyFilter.of(0, keys);
+        int positives = 0;
+
+        for (Key<?> key : keys) {
+            Assert.assertTrue(filter.mightContain(key));
+        }
+
+        for (int i = 0; i < 1000; ++i) {
+            if (filter.mightContain(Key.of(String.class, "absent" + i))) {
+                ++positives;
+            }
+        }
+
+        Assert.assertTrue("Too many false positives: " + positives, positives < 100);
+    }
+
+    @Test
+    public void testCapacity() {
+        KeyFilter filter = KeyFilter.of(0, Collections.emptyList());
+        int i = 0;
+
+        while (filter.add(Key.of(String.class, "key" + i))) {
+            ++i;
+        }
+
+        Assert.assertTrue(i >= 64);
+    }
+
+    @Test
+    public void testAdvance() {
+        KeyFilter filter = KeyFilter.of(5, Collections.emptyList());
+
+        Assert.assertFalse(filter.advance(4, 5));
+        Assert.assertEquals(5, filter.getVersion());
+        Assert.assertTrue(filter.advance(5, 6));
+        Assert.assertEquals(6, filter.getVersion());
+        Assert.assertFalse(filter.advance(5, 6));
+    }
+
+    @Test
+    public void testWriterRebuild() throws ReflectiveOperationException {
+        ConcurrentContext parent = new ConcurrentContext();
+        ConcurrentContext child = new ConcurrentContext(parent);
+
+        Assert.assertFalse(child.get(CharSequence.class).isPresent());
+        Assert.assertNull(getFilter(parent));
+
+        parent.setInstance(CharSequence.class, "value");
+        KeyFilter filter = getFilter(parent);
+
+        Assert.assertNotNull(filter);
+        Assert.assertTrue(filter.mightContain(parent.getKey(CharSequence.class)));
+        Assert.assertEquals("value", child.get(CharSequence.class).orElse(null));
+
+        for (int i = 0; i < 1000; ++i) {
+            parent.setInstance(Integer.class, "value" + i, i);
+        }
+
+        Assert.assertNotSame(filter, getFilter(parent));
+
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertEquals(Integer.valueOf(i), child.get(Integer.class, "value" + i).orElse(null));
+        }
+
+        Assert.assertSame(getFilter(parent), getFilter(parent));
+        Assert.assertTrue(getFilter(parent).mightContain(Key.of(Integer.class, "value999")));
+    }
+}
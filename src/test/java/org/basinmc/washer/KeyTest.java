@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.inject.Named;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class KeyTest {
+
+    @Test
+    public void testEquality() {
+        String qualifier = new String(new char[]{'t', 'e', 's', 't'});
+        Key<String> key = Key.of(String.class, qualifier);
+
+        Assert.assertSame(qualifier, key.getQualifier());
+        Assert.assertEquals(Key.of(String.class, "test"), key);
+        Assert.assertEquals(Key.of(String.class, "test").hashCode(), key.hashCode());
+        Assert.assertNotEquals(Key.of(String.class, "other"), key);
+        Assert.assertNotEquals(Key.of(Object.class, "test"), key);
+    }
+
+    @Test
+    public void testDefaultKey() {
+        ConcurrentContext context = new ConcurrentContext();
+        Key<NamedType> key = context.getKey(NamedType.class);
+
+        Assert.assertSame(key, context.getKey(NamedType.class));
+        Assert.assertSame(key, new ConcurrentContext().getKey(NamedType.class));
+        Assert.assertEquals("named", key.getQualifier());
+        Assert.assertEquals(String.class.getName(), context.getKey(String.class).getQualifier());
+    }
+
+    @Test
+    public void testLookup() {
+        ConcurrentContext context = new ConcurrentContext();
+        NamedType instance = new NamedType();
+        context.setInstance(Key.of(NamedType.class, "named"), instance);
+
+        Assert.assertSame(instance, context.getOrNull(context.getKey(NamedType.class)));
+        Assert.assertSame(instance, context.get(NamedType.class).orElse(null));
+        Assert.assertNull(context.getOrNull(Key.of(Runnable.class, "absent")));
+    }
+
+    @Named("named")
+    public static class NamedType {
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.annotation.ComponentType;
+import org.basinmc.washer.component.ComponentTypeScanner;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class LifecycleTest {
+    private static final AtomicInteger constructions = new AtomicInteger();
+    private static final AtomicInteger destructions = new AtomicInteger();
+    private static final AtomicInteger postDestructions = new AtomicInteger();
+
+    @Before
+    public void reset() {
+        constructions.set(0);
+        destructions.set(0);
+        postDestructions.set(0);
+    }
+
+    @Test
+    public void testPermanent() {
+        Assert.assertTrue(Lifecycle.PERMANENT.isPermanent());
+        Assert.assertTrue(Lifecycle.retained(Lifecycle.Retention.STRONG).isPermanent());
+        Assert.assertFalse(Lifecycle.retained(Lifecycle.Retention.WEAK).isPermanent());
+        Assert.assertFalse(Lifecycle.timeToLive(Duration.ofSeconds(1)).isPermanent());
+        Assert.assertFalse(Lifecycle.idleTimeout(Duration.ofSeconds(1)).isPermanent());
+        Assert.assertFalse(Lifecycle.boundTo(new Object()).isPermanent());
+    }
+
+    @Test
+    public void testTimeToLive() throws InterruptedException {
+        ConcurrentContext context = new ConcurrentContext();
+        Service instance = new Service();
+        context.setInstance(Service.class, "ttl", instance, Lifecycle.timeToLive(Duration.ofMillis(50)));
+
+        context.refresh();
+        Assert.assertSame(instance, context.get(Service.class, "ttl").orElse(null));
+
+        Thread.sleep(250);
+        context.refresh();
+        Assert.assertFalse(context.hasLocalInstance(Service.class, "ttl"));
+    }
+
+    @Test
+    public void testIdleTimeout() throws InterruptedException {
+        ConcurrentContext context = new ConcurrentContext();
+        Service instance = new Service();
+        context.setInstance(Service.class, "idle", instance, Lifecycle.idleTimeout(Duration.ofMillis(500)));
+
+        for (int i = 0; i < 8; ++i) {
+            Thread.sleep(100);
+            context.refresh();
+            Assert.assertSame(instance, context.get(Service.class, "idle").orElse(null));
+        }
+
+        Thread.sleep(1000);
+        context.refresh();
+        Assert.assertFalse(context.hasLocalInstance(Service.class, "idle"));
+    }
+
+    @Test(timeout = 30000)
+    public void testOwner() throws InterruptedException {
+        ConcurrentContext context = new ConcurrentContext();
+        Object owner = new Object();
+        context.setInstance(Service.class, "owned", new Service(), Lifecycle.boundTo(owner));
+
+        context.refresh();
+        Assert.assertTrue(context.hasLocalInstance(Service.class, "owned"));
+
+        owner = null;
+
+        while (context.hasLocalInstance(Service.class, "owned")) {
+            System.gc();
+            Thread.sleep(10);
+            context.refresh();
+        }
+    }
+
+    @Test
+    public void testPermanentInstance() {
+        ConcurrentContext context = new ConcurrentContext();
+        context.setInstance(Service.class, "permanent", new Service(), Lifecycle.PERMANENT);
+        context.refresh();
+
+        Assert.assertTrue(context.hasLocalInstance(Service.class, "permanent"));
+    }
+
+    @Test(timeout = 30000)
+    public void testWeakRetention() throws InterruptedException {
+        ConcurrentContext context = new ConcurrentContext();
+        TrackedService instance = new TrackedService();
+        context.setInstance(TrackedService.class, "weak", instance, Lifecycle.retained(Lifecycle.Retention.WEAK));
+
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+            context.refresh();
+        }
+
+        Assert.assertSame(instance, context.get(TrackedService.class, "weak").orElse(null));
+
+        instance = null;
+
+        while (context.hasLocalInstance(TrackedService.class, "weak")) {
+            System.gc();
+            Thread.sleep(10);
+            context.refresh();
+        }
+
+        Assert.assertEquals(0, destructions.get());
+        Assert.assertEquals(1, postDestructions.get());
+    }
+
+    @Test
+    public void testReplacedReachableInstance() {
+        ConcurrentContext context = new ConcurrentContext();
+        TrackedService instance = new TrackedService();
+        context.setInstance(TrackedService.class, "soft", instance, Lifecycle.retained(Lifecycle.Retention.SOFT));
+        context.setInstance(TrackedService.class, "soft", new TrackedService());
+
+        Assert.assertEquals(1, destructions.get());
+        Assert.assertEquals(1, postDestructions.get());
+        Assert.assertNotSame(instance, context.get(TrackedService.class, "soft").orElse(null));
+    }
+
+    @Test(timeout = 30000)
+    public void testReclaimedResolution() throws InterruptedException {
+        ConcurrentContext context = new ConcurrentContext();
+        Key<TrackedService> key = context.getKey(TrackedService.class);
+        TrackedService instance = new TrackedService();
+        context.setInstance(key, instance, Lifecycle.retained(Lifecycle.Retention.WEAK));
+
+        instance = null;
+
+        while (postDestructions.get() == 0) {
+            System.gc();
+            Thread.sleep(10);
+            context.refresh();
+        }
+
+        Assert.assertTrue(context.get(key).isPresent());
+        Assert.assertEquals(2, constructions.get());
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @ComponentType(scanner = TrackingScanner.class)
+    public @interface Tracked {
+    }
+
+    public static class Service {
+    }
+
+    @Tracked
+    public static class TrackedService {
+
+        public TrackedService() {
+            constructions.incrementAndGet();
+        }
+    }
+
+    public static class TrackingScanner implements ComponentTypeScanner<Annotation, Object> {
+
+        @Override
+        public void onDestruct(@Nonnull Annotation annotation, @Nonnull Object instance) {
+            destructions.incrementAndGet();
+        }
+
+        @Override
+        public void onPostDestruct(@Nonnull Annotation annotation, @Nonnull Class<?> type) {
+            postDestructions.incrementAndGet();
+        }
+    }
+}
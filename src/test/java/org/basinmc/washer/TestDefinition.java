@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.basinmc.washer.component.ComponentDefinition;
+import org.basinmc.washer.component.InitializationStrategy;
+import org.basinmc.washer.component.constraint.ComponentConstraint;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.inject.Provider;
+
+/**
+ * Provides a component definition which binds an implementation without any constraints.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+final class TestDefinition<C> implements ComponentDefinition<C> {
+    private final Class<C> type;
+    private final Class<? extends C> implementationType;
+    private final String qualifier;
+    private final InitializationStrategy initializationStrategy;
+    private final int order;
+
+    TestDefinition(@Nonnull Class<C> type, @Nonnull Class<? extends C> implementationType, @Nonnull InitializationStrategy initializationStrategy, int order) {
+        this(type, implementationType, type.getName(), initializationStrategy, order);
+    }
+
+    TestDefinition(@Nonnull Class<C> type, @Nonnull Class<? extends C> implementationType, @Nonnull String qualifier, @Nonnull InitializationStrategy initializationStrategy, int order) {
+        this.type = type;
+        this.implementationType = implementationType;
+        this.qualifier = qualifier;
+        this.initializationStrategy = initializationStrategy;
+        this.order = order;
+    }
+
+    @Nonnull
+    static <C> TestDefinition<C> eager(@Nonnull Class<C> type) {
+        return new TestDefinition<>(type, type, InitializationStrategy.EAGER, 0);
+    }
+
+    @Nonnull
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Deque<ComponentConstraint> getConstraints() {
+        return new ArrayDeque<>();
+    }
+
+    @Nonnull
+    @Override
+    public Class<C> getType() {
+        return this.type;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Class<? extends C>> getImplementationType() {
+        return Optional.of(this.implementationType);
+    }
+
+    @Nonnull
+    @Override
+    public InitializationStrategy getInitializationStrategy() {
+        return this.initializationStrategy;
+    }
+
+    @Override
+    public int getOrder() {
+        return this.order;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Class<? extends Provider<C>>> getProviderType() {
+        return Optional.empty();
+    }
+
+    @Nonnull
+    @Override
+    public String getQualifier() {
+        return this.qualifier;
+    }
+
+    @Override
+    public boolean matchesConstraints() {
+        return true;
+    }
+}
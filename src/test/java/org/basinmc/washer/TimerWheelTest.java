@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class TimerWheelTest {
+    private static final long ORIGIN = 1L << 40;
+
+    @Test
+    public void testExpiration() {
+        TimerWheel wheel = new TimerWheel(ORIGIN);
+        long[] delays = {
+                TimeUnit.MILLISECONDS.toNanos(5),
+                TimeUnit.SECONDS.toNanos(2),
+                TimeUnit.MINUTES.toNanos(3),
+                TimeUnit.HOURS.toNanos(5),
+                TimeUnit.DAYS.toNanos(5)
+        };
+        List<TimerWheel.Node> nodes = new ArrayList<>();
+
+        for (long delay : delays) {
+            TimerWheel.Node node = new TimerWheel.Node(ORIGIN + delay);
+            nodes.add(node);
+            wheel.schedule(node);
+        }
+
+        List<TimerWheel.Node> expired = new ArrayList<>();
+        long step = TimeUnit.MILLISECONDS.toNanos(10);
+        long[] reported = new long[delays.length];
+
+        // advance in coarse steps which still permit each node to be reported within one bucket
+        for (long time = 0; time <= delays[delays.length - 1] + TimeUnit.DAYS.toNanos(1); time += time < TimeUnit.SECONDS.toNanos(10) ? step : TimeUnit.SECONDS.toNanos(1)) {
+            long now = time;
+
+            wheel.advance(ORIGIN + now, (n) -> {
+                expired.add(n);
+                reported[nodes.indexOf(n)] = now;
+            });
+        }
+
+        Assert.assertEquals(nodes, expired);
+
+        for (int i = 0; i < delays.length; ++i) {
+            Assert.assertTrue("Node " + i + " reported early", reported[i] >= delays[i]);
+        }
+
+        Assert.assertTrue(reported[0] - delays[0] <= TimeUnit.MILLISECONDS.toNanos(30));
+    }
+
+    @Test
+    public void testDeschedule() {
+        TimerWheel wheel = new TimerWheel(ORIGIN);
+        TimerWheel.Node first = new TimerWheel.Node(ORIGIN + TimeUnit.MILLISECONDS.toNanos(50));
+        TimerWheel.Node second = new TimerWheel.Node(ORIGIN + TimeUnit.MILLISECONDS.toNanos(50));
+        wheel.schedule(first);
+        wheel.schedule(second);
+        wheel.deschedule(first);
+        wheel.deschedule(first);
+
+        List<TimerWheel.Node> expired = new ArrayList<>();
+        wheel.advance(ORIGIN + TimeUnit.SECONDS.toNanos(1), expired::add);
+
+        Assert.assertEquals(1, expired.size());
+        Assert.assertSame(second, expired.get(0));
+    }
+
+    @Test
+    public void testReschedule() {
+        TimerWheel wheel = new TimerWheel(ORIGIN);
+        TimerWheel.Node node = new TimerWheel.Node(ORIGIN + TimeUnit.MILLISECONDS.toNanos(50));
+        wheel.schedule(node);
+
+        node.time = ORIGIN + TimeUnit.MINUTES.toNanos(2);
+        wheel.schedule(node);
+
+        List<TimerWheel.Node> expired = new ArrayList<>();
+        wheel.advance(ORIGIN + TimeUnit.SECONDS.toNanos(1), expired::add);
+        Assert.assertTrue(expired.isEmpty());
+
+        wheel.advance(ORIGIN + TimeUnit.MINUTES.toNanos(3), expired::add);
+        Assert.assertEquals(1, expired.size());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class TypeIndexTest {
+
+    @Test
+    public void testSupertypes() {
+        Assert.assertEquals(Arrays.asList(Base.class, Child.class, Serializable.class, Runnable.class), Arrays.asList(TypeIndex.getSupertypes(Leaf.class)));
+        Assert.assertEquals(0, TypeIndex.getSupertypes(Object.class).length);
+    }
+
+    @Test
+    public void testAdd() {
+        TypeIndex index = new TypeIndex();
+        Key<Leaf> key = Key.of(Leaf.class, "leaf");
+        index.add(key);
+
+        Assert.assertEquals(Collections.singleton(key), index.getKeys(Leaf.class));
+        Assert.assertEquals(Collections.singleton(key), index.getSubtypeKeys(Base.class));
+        Assert.assertEquals(Collections.singleton(key), index.getSubtypeKeys(Runnable.class));
+        Assert.assertEquals(Collections.singleton(key), index.getSubtypeKeys(Serializable.class));
+        Assert.assertTrue(index.getKeys(Base.class).isEmpty());
+        Assert.assertTrue(index.getSubtypeKeys(Leaf.class).isEmpty());
+        Assert.assertTrue(index.getSubtypeKeys(Object.class).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        TypeIndex index = new TypeIndex();
+        Key<Leaf> first = Key.of(Leaf.class, "first");
+        Key<Leaf> second = Key.of(Leaf.class, "second");
+        index.add(first);
+        index.add(second);
+        index.remove(first);
+
+        Assert.assertEquals(Collections.singleton(second), index.getKeys(Leaf.class));
+        Assert.assertEquals(Collections.singleton(second), index.getSubtypeKeys(Runnable.class));
+
+        index.remove(second);
+
+        Assert.assertTrue(index.getKeys(Leaf.class).isEmpty());
+        Assert.assertTrue(index.getSubtypeKeys(Runnable.class).isEmpty());
+    }
+
+    @Test
+    public void testUpdate() {
+        TypeIndex index = new TypeIndex();
+        Key<Leaf> key = Key.of(Leaf.class, "leaf");
+
+        index.update(key, true, true);
+        Assert.assertTrue(index.getKeys(Leaf.class).isEmpty());
+
+        index.update(key, false, true);
+        Assert.assertEquals(Collections.singleton(key), index.getKeys(Leaf.class));
+
+        index.update(key, false, false);
+        Assert.assertEquals(Collections.singleton(key), index.getKeys(Leaf.class));
+
+        index.update(key, true, false);
+        Assert.assertTrue(index.getKeys(Leaf.class).isEmpty());
+    }
+
+    public interface Child extends Runnable {
+    }
+
+    public static abstract class Base implements Serializable {
+    }
+
+    public static class Leaf extends Base implements Child {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.metrics;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.basinmc.washer.Key;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class BootProfilerTest {
+
+    @Test
+    public void testConstruction() {
+        BootProfiler profiler = ContextMetrics.bootProfiler();
+        ConcurrentContext context = new ConcurrentContext(null, profiler);
+
+        Assert.assertTrue(context.get(Dependent.class).isPresent());
+
+        List<BootReport.Component> components = profiler.report().getComponents();
+        Assert.assertEquals(1, components.size());
+
+        BootReport.Component dependent = components.get(0);
+        Assert.assertEquals(Dependent.class.getName(), dependent.getName());
+        Assert.assertEquals(1, dependent.getDependencies().size());
+        Assert.assertEquals(Dependency.class.getName(), dependent.getDependencies().get(0).getName());
+        Assert.assertTrue(dependent.getInstantiationTime() > 0);
+    }
+
+    @Test
+    public void testPhases() {
+        BootProfiler profiler = ContextMetrics.bootProfiler();
+        profiler.onDiscover(Dependency.class, 1);
+        profiler.onDiscover(Dependency.class, 2);
+        profiler.onPreConstructScan(Dependency.class, 4);
+        profiler.onInstantiate(Dependency.class, 5);
+        profiler.onConstructScan(Dependency.class, 6);
+        profiler.onConstruct(Dependency.class, 20);
+
+        BootReport.Component component = profiler.report().getComponents().get(0);
+        Assert.assertEquals(3, component.getDiscoveryTime());
+        Assert.assertEquals(4, component.getPreConstructTime());
+        Assert.assertEquals(5, component.getInstantiationTime());
+        Assert.assertEquals(6, component.getConstructTime());
+        Assert.assertEquals(20, component.getDuration());
+    }
+
+    @Test
+    public void testNesting() {
+        BootProfiler profiler = ContextMetrics.bootProfiler();
+        profiler.onConstruct(Dependency.class, 3);
+        profiler.onProvide(Key.of(String.class, "value"), Provider.class, 2);
+        profiler.onConstruct(Dependent.class, 1_000_000_000L);
+
+        List<BootReport.Component> components = profiler.report().getComponents();
+        Assert.assertEquals(1, components.size());
+
+        List<String> dependencies = components.get(0).getDependencies().stream()
+                .map(BootReport.Component::getName)
+                .collect(Collectors.toList());
+        Assert.assertEquals(2, dependencies.size());
+        Assert.assertEquals(Dependency.class.getName(), dependencies.get(0));
+        Assert.assertTrue(dependencies.get(1).endsWith(" via " + Provider.class.getName()));
+    }
+
+    @Test
+    public void testInitialization() {
+        BootProfiler profiler = ContextMetrics.bootProfiler();
+        Key<Dependency> first = Key.of(Dependency.class, "first");
+        Key<Dependent> second = Key.of(Dependent.class, "second");
+        Key<Dependent> skipped = Key.of(Dependent.class, "skipped");
+
+        profiler.onEvaluateConstraints(skipped, false, 3);
+        profiler.onInitialize(skipped, Collections.emptySet(), 30);
+        profiler.onEvaluateConstraints(first, true, 7);
+        profiler.onInitialize(first, Collections.emptySet(), 20);
+        profiler.onInitialize(second, Collections.singleton(first), 10);
+
+        BootReport report = profiler.report();
+        List<BootReport.Component> components = report.getComponents();
+        Assert.assertEquals(3, components.size());
+
+        BootReport.Component firstComponent = find(components, first);
+        BootReport.Component secondComponent = find(components, second);
+        BootReport.Component skippedComponent = find(components, skipped);
+
+        Assert.assertEquals(7, firstComponent.getConstraintTime());
+        Assert.assertFalse(firstComponent.isSkipped());
+        Assert.assertEquals(Collections.singletonList(first.toString()), secondComponent.getPrerequisites());
+        Assert.assertTrue(skippedComponent.isSkipped());
+        Assert.assertEquals(3, skippedComponent.getConstraintTime());
+        Assert.assertEquals(Arrays.asList(firstComponent, secondComponent), report.getCriticalPath());
+        Assert.assertTrue(report.toJson().contains(second.toString().replace("\"", "\\\"")));
+        Assert.assertTrue(report.toText().contains(first.toString()));
+    }
+
+    @Test
+    public void testThreads() throws InterruptedException {
+        BootProfiler profiler = ContextMetrics.bootProfiler();
+        profiler.onConstruct(Dependent.class, 1_000_000_000L);
+
+        Thread thread = new Thread(() -> profiler.onConstruct(Dependency.class, 1));
+        thread.start();
+        thread.join();
+
+        List<BootReport.Component> components = profiler.report().getComponents();
+        Assert.assertEquals(2, components.size());
+        Assert.assertTrue(components.stream().allMatch((c) -> c.getDependencies().isEmpty()));
+    }
+
+    @Test
+    public void testStop() throws ReflectiveOperationException, InterruptedException {
+        BootProfiler profiler = ContextMetrics.bootProfiler();
+        ConcurrentContext context = new ConcurrentContext(null, profiler);
+
+        Assert.assertTrue(context.get(Dependent.class).isPresent());
+
+        BootReport report = profiler.stop();
+        Assert.assertEquals(1, report.getComponents().size());
+
+        Assert.assertTrue(context.get(Dependent.class).isPresent());
+        profiler.onDiscover(Dependency.class, 1);
+
+        Thread thread = new Thread(() -> profiler.onConstruct(Dependency.class, 1));
+        thread.start();
+        thread.join();
+
+        Assert.assertSame(report, profiler.report());
+        Assert.assertSame(report, profiler.stop());
+        Assert.assertTrue(((Collection<?>) getField(profiler, "frames")).isEmpty());
+        Assert.assertTrue(((Map<?, ?>) getField(profiler, "discoveries")).isEmpty());
+    }
+
+    private static Object getField(BootProfiler profiler, String name) throws ReflectiveOperationException {
+        Field field = BootProfiler.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(profiler);
+    }
+
+    private static BootReport.Component find(List<BootReport.Component> components, Key<?> key) {
+        return components.stream()
+                .filter((c) -> c.getName().equals(key.toString()))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+    }
+
+    public static class Dependency {
+    }
+
+    public static class Dependent {
+        @Inject
+        public Dependent(Dependency dependency) {
+        }
+    }
+
+    public static class Provider {
+    }
+}
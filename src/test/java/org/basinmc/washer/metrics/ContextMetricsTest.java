@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.metrics;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.basinmc.washer.Key;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ContextMetricsTest {
+
+    @Test
+    public void testConstruction() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        ConcurrentContext context = new ConcurrentContext(null, metrics);
+
+        Assert.assertTrue(context.get(Dependent.class).isPresent());
+        Assert.assertEquals(2, metrics.constructions.size());
+        Assert.assertEquals(Dependency.class, metrics.constructions.get(0));
+        Assert.assertEquals(Dependent.class, metrics.constructions.get(1));
+        Assert.assertTrue(metrics.instantiations.contains(Dependent.class));
+        Assert.assertTrue(metrics.instantiations.contains(Dependency.class));
+    }
+
+    @Test
+    public void testResolution() {
+        ConcurrentContext parent = new ConcurrentContext();
+        parent.setInstance(Dependency.class, new Dependency());
+
+        RecordingMetrics metrics = new RecordingMetrics();
+        ConcurrentContext child = new ConcurrentContext(parent, metrics);
+        Key<Dependency> key = child.getKey(Dependency.class);
+
+        Assert.assertTrue(child.get(key).isPresent());
+        Assert.assertTrue(child.get(key).isPresent());
+        Assert.assertEquals(Collections.singletonList(key + ":1:false"), metrics.resolutions.subList(0, 1));
+        Assert.assertEquals(key + ":0:true", metrics.resolutions.get(metrics.resolutions.size() - 1));
+    }
+
+    @Test
+    public void testUnmeasuredContext() {
+        ConcurrentContext context = new ConcurrentContext(null, ContextMetrics.NONE);
+        Assert.assertTrue(context.get(Dependent.class).isPresent());
+    }
+
+    @Test
+    public void testFlightRecorder() {
+        ContextMetrics metrics = ContextMetrics.flightRecorder();
+        Assert.assertNotNull(metrics);
+
+        // the Flight Recorder is available on all supported VMs beyond Java 8 (see
+        // FlightRecorderMetricsTest for the recorded events)
+        if (!System.getProperty("java.specification.version").startsWith("1.")) {
+            Assert.assertNotSame(ContextMetrics.NONE, metrics);
+        }
+
+        ConcurrentContext context = new ConcurrentContext(null, metrics);
+        Assert.assertTrue(context.get(Dependent.class).isPresent());
+    }
+
+    public static class Dependency {
+    }
+
+    public static class Dependent {
+
+        @Inject
+        public Dependent(Dependency dependency) {
+        }
+    }
+
+    private static final class RecordingMetrics implements ContextMetrics {
+        private final List<Class<?>> constructions = Collections.synchronizedList(new ArrayList<>());
+        private final List<Class<?>> instantiations = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> resolutions = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onConstruct(@Nonnull Class<?> type, long duration) {
+            Assert.assertTrue(duration >= 0);
+            this.constructions.add(type);
+        }
+
+        @Override
+        public void onInstantiate(@Nonnull Class<?> type, long duration) {
+            this.instantiations.add(type);
+        }
+
+        @Override
+        public void onResolution(@Nonnull Key<?> key, int hops, boolean cached) {
+            this.resolutions.add(key + ":" + hops + ":" + cached);
+        }
+    }
+}
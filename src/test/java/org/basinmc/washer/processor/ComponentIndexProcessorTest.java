@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.processor;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.basinmc.washer.component.ComponentDefinition;
+import org.basinmc.washer.component.ComponentIndex;
+import org.basinmc.washer.component.ComponentTypeScanner;
+import org.basinmc.washer.component.constraint.ComponentConstraint;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ComponentIndexProcessorTest {
+    private static final List<Class<?>> discovered = Collections.synchronizedList(new ArrayList<>());
+    private static final List<Object> constructed = Collections.synchronizedList(new ArrayList<>());
+
+    private static TestCompilation compilePlugins() {
+        return TestCompilation.compile(
+                "test.Plugin", "package test;\n" +
+                        "import java.lang.annotation.Retention;\n" +
+                        "import java.lang.annotation.RetentionPolicy;\n" +
+                        "import org.basinmc.washer.annotation.ComponentType;\n" +
+                        "import org.basinmc.washer.component.InitializationStrategy;\n" +
+                        "@Retention(RetentionPolicy.RUNTIME)\n" +
+                        "@ComponentType(scanner = org.basinmc.washer.processor.ComponentIndexProcessorTest.RecordingScanner.class, type = Runnable.class, initialization = InitializationStrategy.EAGER)\n" +
+                        "public @interface Plugin {}",
+                "test.Disabled", "package test;\n" +
+                        "import java.lang.annotation.Retention;\n" +
+                        "import java.lang.annotation.RetentionPolicy;\n" +
+                        "import org.basinmc.washer.component.constraint.Constraint;\n" +
+                        "@Retention(RetentionPolicy.RUNTIME)\n" +
+                        "@Constraint(org.basinmc.washer.processor.ComponentIndexProcessorTest.RejectingConstraint.class)\n" +
+                        "public @interface Disabled {}",
+                "test.EnabledPlugin", "package test; @Plugin public class EnabledPlugin implements Runnable { public void run() {} }",
+                "test.DisabledPlugin", "package test; @Plugin @Disabled public class DisabledPlugin implements Runnable { public void run() {} }",
+                "test.Unrelated", "package test; public class Unrelated {}"
+        );
+    }
+
+    @Before
+    public void reset() {
+        discovered.clear();
+        constructed.clear();
+    }
+
+    @Test
+    public void testIndex() {
+        ComponentIndex index = ComponentIndex.load(compilePlugins().getClassLoader());
+
+        Assert.assertEquals(2, index.getComponentNames().size());
+        Assert.assertTrue(index.getComponentNames().contains("test.EnabledPlugin"));
+        Assert.assertTrue(index.getComponentNames().contains("test.DisabledPlugin"));
+
+        List<ComponentIndex.Entry> entries = index.getEntries("test.DisabledPlugin");
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals("test.Plugin", entries.get(0).getAnnotationName());
+        Assert.assertEquals(ComponentIndex.Kind.COMPONENT_TYPE, entries.get(0).getKind());
+        Assert.assertEquals(RecordingScanner.class.getName(), entries.get(0).getHandlerName());
+        Assert.assertEquals(Runnable.class.getName(), entries.get(0).getTypeName());
+        Assert.assertEquals("test.Disabled", entries.get(1).getAnnotationName());
+        Assert.assertEquals(ComponentIndex.Kind.CONSTRAINT, entries.get(1).getKind());
+        Assert.assertEquals(RejectingConstraint.class.getName(), entries.get(1).getHandlerName());
+    }
+
+    @Test
+    public void testDiscovery() {
+        TestCompilation compilation = compilePlugins();
+        Class<?> enabledType = compilation.loadClass("test.EnabledPlugin");
+        Class<?> disabledType = compilation.loadClass("test.DisabledPlugin");
+
+        ConcurrentContext context = new ConcurrentContext();
+        context.discover(compilation.getClassLoader());
+
+        Assert.assertEquals(2, discovered.size());
+        Assert.assertTrue(discovered.contains(enabledType));
+        Assert.assertTrue(discovered.contains(disabledType));
+        Assert.assertTrue(constructed.isEmpty());
+
+        context.initialize();
+
+        Assert.assertEquals(1, constructed.size());
+        Assert.assertTrue(enabledType.isInstance(constructed.get(0)));
+        Assert.assertTrue(context.hasLocalInstance(enabledType));
+        Assert.assertFalse(context.hasLocalInstance(disabledType));
+    }
+
+    public static class RecordingScanner implements ComponentTypeScanner<Annotation, Runnable> {
+
+        @Override
+        public void onDiscovery(@Nonnull Annotation annotation, @Nonnull Class<? extends Runnable> type) {
+            discovered.add(type);
+        }
+
+        @Override
+        public void onConstruct(@Nonnull Annotation annotation, @Nonnull Runnable instance) {
+            constructed.add(instance);
+        }
+    }
+
+    public static class RejectingConstraint implements ComponentConstraint<Annotation> {
+
+        @Override
+        public boolean matches(@Nonnull Annotation annotation, @Nonnull ComponentDefinition<?> definition) {
+            return false;
+        }
+    }
+}
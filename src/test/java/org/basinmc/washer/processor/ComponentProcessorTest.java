@@ -0,0 +1,229 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.processor;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.basinmc.washer.InjectionException;
+import org.basinmc.washer.component.ComponentDependency;
+import org.basinmc.washer.component.ComponentDependency.Kind;
+import org.basinmc.washer.component.ComponentFactory;
+import org.basinmc.washer.component.ComponentInjector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class ComponentProcessorTest {
+
+    private static TestCompilation compileComponent() {
+        return TestCompilation.compile(
+                "test.Dependency", "package test; public interface Dependency {}",
+                "test.DependencyImplementation", "package test; public class DependencyImplementation implements Dependency {}",
+                "test.Component", "package test;\n" +
+                        "import javax.inject.Inject;\n" +
+                        "import javax.inject.Named;\n" +
+                        "import javax.inject.Provider;\n" +
+                        "public class Component {\n" +
+                        "    public final Dependency unqualified;\n" +
+                        "    public final Dependency qualified;\n" +
+                        "    @Inject public Provider<Dependency> provider;\n" +
+                        "    @Inject @Named(\"field\") public Dependency field;\n" +
+                        "    @Inject public Component(Dependency unqualified, @Named(\"parameter\") Dependency qualified) {\n" +
+                        "        this.unqualified = unqualified;\n" +
+                        "        this.qualified = qualified;\n" +
+                        "    }\n" +
+                        "}"
+        );
+    }
+
+    @Test
+    public void testGeneratedSources() {
+        TestCompilation compilation = compileComponent();
+        String factory = compilation.getGeneratedSource("test.Component" + ComponentFactory.CLASS_NAME_SUFFIX);
+        String injector = compilation.getGeneratedSource("test.Component" + ComponentInjector.CLASS_NAME_SUFFIX);
+
+        Assert.assertTrue(factory.contains("context.getOrNull(context.getKey(test.Dependency.class))"));
+        Assert.assertTrue(factory.contains("org.basinmc.washer.Key.of(test.Dependency.class, \"parameter\")"));
+        Assert.assertFalse(factory.contains("orElseThrow"));
+        Assert.assertTrue(injector.contains("org.basinmc.washer.Key.of(test.Dependency.class, \"field\")"));
+        Assert.assertTrue(injector.contains("context.getProvider(context.getKey(test.Dependency.class)).orElseThrow"));
+    }
+
+    @Test
+    public void testConstruction() throws ReflectiveOperationException {
+        TestCompilation compilation = compileComponent();
+        Class<?> dependencyType = compilation.loadClass("test.Dependency");
+        Class<?> implementationType = compilation.loadClass("test.DependencyImplementation");
+        Class<?> componentType = compilation.loadClass("test.Component");
+
+        ConcurrentContext context = new ConcurrentContext();
+        Object unqualified = implementationType.getConstructor().newInstance();
+        Object qualified = implementationType.getConstructor().newInstance();
+        Object field = implementationType.getConstructor().newInstance();
+        context.setInstance(dependencyType, unqualified);
+        context.setInstance(dependencyType, "parameter", qualified);
+        context.setInstance(dependencyType, "field", field);
+
+        Object component = context.get(componentType).orElseThrow(AssertionError::new);
+
+        Assert.assertSame(unqualified, componentType.getField("unqualified").get(component));
+        Assert.assertSame(qualified, componentType.getField("qualified").get(component));
+        Assert.assertSame(field, componentType.getField("field").get(component));
+        Assert.assertSame(unqualified, ((javax.inject.Provider<?>) componentType.getField("provider").get(component)).get());
+    }
+
+    @Test
+    public void testMissingDependency() throws ReflectiveOperationException {
+        TestCompilation compilation = compileComponent();
+        Class<?> dependencyType = compilation.loadClass("test.Dependency");
+        Class<?> implementationType = compilation.loadClass("test.DependencyImplementation");
+        Class<?> componentType = compilation.loadClass("test.Component");
+
+        ConcurrentContext context = new ConcurrentContext();
+        context.setInstance(dependencyType, implementationType.getConstructor().newInstance());
+
+        try {
+            context.get(componentType);
+            Assert.fail("Expected unqualified dependency to be unresolvable");
+        } catch (InjectionException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("with qualifier \"parameter\""));
+        }
+    }
+
+    @Test
+    public void testPrivateFieldFallback() {
+        TestCompilation compilation = TestCompilation.compile(
+                "test.Component", "package test;\n" +
+                        "import javax.inject.Inject;\n" +
+                        "public class Component {\n" +
+                        "    @Inject private Object field;\n" +
+                        "}"
+        );
+
+        Assert.assertFalse(compilation.hasClass("test.Component" + ComponentInjector.CLASS_NAME_SUFFIX));
+        Assert.assertTrue(compilation.hasClass("test.Component" + ComponentFactory.CLASS_NAME_SUFFIX));
+        Assert.assertFalse(compilation.getWarnings().isEmpty());
+    }
+
+    @Test
+    public void testPrimitiveDependencies() throws ReflectiveOperationException {
+        TestCompilation compilation = TestCompilation.compile(
+                "test.Component", "package test;\n" +
+                        "import javax.inject.Inject;\n" +
+                        "import javax.inject.Named;\n" +
+                        "public class Component {\n" +
+                        "    @Inject @Named(\"port\") public int port;\n" +
+                        "    @Inject public boolean enabled;\n" +
+                        "    @Inject public Component(@Named(\"id\") long id, double ratio) {\n" +
+                        "    }\n" +
+                        "}"
+        );
+
+        Assert.assertTrue(compilation.hasClass("test.Component" + ComponentFactory.CLASS_NAME_SUFFIX));
+        Assert.assertTrue(compilation.hasClass("test.Component" + ComponentInjector.CLASS_NAME_SUFFIX));
+
+        String factory = compilation.getGeneratedSource("test.Component" + ComponentFactory.CLASS_NAME_SUFFIX);
+        String injector = compilation.getGeneratedSource("test.Component" + ComponentInjector.CLASS_NAME_SUFFIX);
+
+        Assert.assertTrue(factory.contains("java.lang.Long arg0 = (java.lang.Long) context.getOrNull(KEY_ARG0);"));
+        Assert.assertTrue(factory.contains("java.lang.Double arg1 = context.getOrNull(context.getKey(double.class));"));
+        Assert.assertTrue(injector.contains("java.lang.Integer value0 = (java.lang.Integer) context.getOrNull(KEY_VALUE0);"));
+        Assert.assertTrue(injector.contains("java.lang.Boolean value1 = context.getOrNull(context.getKey(boolean.class));"));
+
+        try {
+            new ConcurrentContext().get(compilation.loadClass("test.Component"));
+            Assert.fail("Expected primitive dependency to be unresolvable");
+        } catch (InjectionException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("Cannot resolve dependency long"));
+        }
+    }
+
+    @Test
+    public void testDependencies() throws ReflectiveOperationException {
+        TestCompilation compilation = compileComponent();
+        Class<?> dependencyType = compilation.loadClass("test.Dependency");
+        ComponentFactory<?> factory = (ComponentFactory<?>) compilation.loadClass("test.Component" + ComponentFactory.CLASS_NAME_SUFFIX).getConstructor().newInstance();
+
+        List<ComponentDependency> expected = Arrays.asList(
+                ComponentDependency.of(dependencyType, null, Kind.INSTANCE),
+                ComponentDependency.of(dependencyType, "parameter", Kind.INSTANCE),
+                ComponentDependency.of(dependencyType, null, Kind.PROVIDER),
+                ComponentDependency.of(dependencyType, "field", Kind.INSTANCE)
+        );
+
+        Assert.assertEquals(expected, factory.getDependencies());
+    }
+
+    @Test
+    public void testInheritedDependencies() throws ReflectiveOperationException {
+        TestCompilation compilation = TestCompilation.compile(
+                "test.Base", "package test;\n" +
+                        "import javax.inject.Inject;\n" +
+                        "import org.basinmc.washer.component.Lazy;\n" +
+                        "public abstract class Base {\n" +
+                        "    @Inject private Lazy<Runnable> runnable;\n" +
+                        "}",
+                "test.Component", "package test;\n" +
+                        "import javax.inject.Inject;\n" +
+                        "public class Component extends Base {\n" +
+                        "    @Inject public Object field;\n" +
+                        "}"
+        );
+        ComponentFactory<?> factory = (ComponentFactory<?>) compilation.loadClass("test.Component" + ComponentFactory.CLASS_NAME_SUFFIX).getConstructor().newInstance();
+
+        List<ComponentDependency> expected = Arrays.asList(
+                ComponentDependency.of(Object.class, null, Kind.INSTANCE),
+                ComponentDependency.of(Runnable.class, null, Kind.LAZY)
+        );
+
+        Assert.assertEquals(expected, factory.getDependencies());
+    }
+
+    @Test
+    public void testInvisibleDependencies() throws ReflectiveOperationException {
+        TestCompilation compilation = TestCompilation.compile(
+                "test.Component", "package test;\n" +
+                        "import javax.inject.Inject;\n" +
+                        "public class Component {\n" +
+                        "    @Inject public Component(other.Holder holder) {\n" +
+                        "    }\n" +
+                        "}",
+                "other.Holder", "package other;\n" +
+                        "public class Holder {\n" +
+                        "    @javax.inject.Inject Hidden hidden;\n" +
+                        "}\n" +
+                        "class Hidden {\n" +
+                        "}",
+                "test.Child", "package test;\n" +
+                        "import javax.inject.Inject;\n" +
+                        "public class Child extends other.Holder {\n" +
+                        "    @Inject public Child() {\n" +
+                        "    }\n" +
+                        "}"
+        );
+
+        ComponentFactory<?> component = (ComponentFactory<?>) compilation.loadClass("test.Component" + ComponentFactory.CLASS_NAME_SUFFIX).getConstructor().newInstance();
+        ComponentFactory<?> child = (ComponentFactory<?>) compilation.loadClass("test.Child" + ComponentFactory.CLASS_NAME_SUFFIX).getConstructor().newInstance();
+
+        Assert.assertEquals(1, component.getDependencies().size());
+        Assert.assertNull(child.getDependencies());
+    }
+}
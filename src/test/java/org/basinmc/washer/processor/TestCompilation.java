@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.processor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles a set of sources while executing the annotation processors of this library and
+ * provides access to the resulting classes and generated sources.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public final class TestCompilation {
+    private final Path classDirectory;
+    private final Path sourceDirectory;
+    private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+    private final ClassLoader classLoader;
+
+    private TestCompilation(@Nonnull Path classDirectory, @Nonnull Path sourceDirectory, @Nonnull List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        this.classDirectory = classDirectory;
+        this.sourceDirectory = sourceDirectory;
+        this.diagnostics = diagnostics;
+
+        try {
+            this.classLoader = new URLClassLoader(new URL[]{classDirectory.toUri().toURL()}, TestCompilation.class.getClassLoader());
+        } catch (MalformedURLException ex) {
+            throw new IllegalStateException("Cannot create class loader for " + classDirectory, ex);
+        }
+    }
+
+    /**
+     * Compiles a set of sources.
+     *
+     * @param sources alternating fully qualified type names and their respective sources.
+     * @return a compilation.
+     *
+     * @throws AssertionError when the compilation fails.
+     */
+    @Nonnull
+    public static TestCompilation compile(@Nonnull String... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        List<JavaFileObject> units = new ArrayList<>();
+
+        for (int i = 0; i < sources.length; i += 2) {
+            units.add(new StringSource(sources[i], sources[i + 1]));
+        }
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(collector, null, StandardCharsets.UTF_8)) {
+            Path classDirectory = Files.createTempDirectory("washer-classes");
+            Path sourceDirectory = Files.createTempDirectory("washer-sources");
+            String classPath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+            List<String> options = Arrays.asList("-classpath", classPath, "-d", classDirectory.toString(), "-s", sourceDirectory.toString());
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, collector, options, null, units);
+            task.setProcessors(Arrays.asList(new ComponentProcessor(), new ComponentIndexProcessor()));
+
+            if (!task.call()) {
+                throw new AssertionError("Compilation failed: " + collector.getDiagnostics());
+            }
+
+            return new TestCompilation(classDirectory, sourceDirectory, collector.getDiagnostics());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Retrieves the class loader which provides all compiled and generated classes.
+     */
+    @Nonnull
+    public ClassLoader getClassLoader() {
+        return this.classLoader;
+    }
+
+    /**
+     * Retrieves the source of a generated type.
+     *
+     * @param name a fully qualified type name.
+     * @return a source.
+     *
+     * @throws AssertionError when no such source has been generated.
+     */
+    @Nonnull
+    public String getGeneratedSource(@Nonnull String name) {
+        Path path = this.sourceDirectory.resolve(name.replace('.', '/') + ".java");
+
+        if (!Files.exists(path)) {
+            throw new AssertionError("No source has been generated for " + name);
+        }
+
+        try {
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Retrieves the messages of all warnings which have been reported during compilation.
+     */
+    @Nonnull
+    public List<String> getWarnings() {
+        return this.diagnostics.stream()
+                .filter((d) -> d.getKind() == Diagnostic.Kind.WARNING || d.getKind() == Diagnostic.Kind.MANDATORY_WARNING)
+                .map((d) -> d.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks whether a class has been written by the compiler (either from a passed or a
+     * generated source).
+     *
+     * @param name a binary type name.
+     * @return true if present, false otherwise.
+     */
+    public boolean hasClass(@Nonnull String name) {
+        return Files.exists(this.classDirectory.resolve(name.replace('.', '/') + ".class"));
+    }
+
+    /**
+     * Loads a compiled class.
+     *
+     * @param name a binary type name.
+     * @return a class.
+     */
+    @Nonnull
+    public Class<?> loadClass(@Nonnull String name) {
+        try {
+            return Class.forName(name, true, this.classLoader);
+        } catch (ClassNotFoundException ex) {
+            throw new AssertionError("Class " + name + " has not been compiled", ex);
+        }
+    }
+
+    /**
+     * Provides a source which is held in memory.
+     */
+    private static final class StringSource extends SimpleJavaFileObject {
+        private final String source;
+
+        private StringSource(@Nonnull String name, @Nonnull String source) {
+            super(URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return this.source;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.metrics;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+public class FlightRecorderMetricsTest {
+
+    @Test
+    public void testAvailability() {
+        // the versioned type is not visible to the compiler and is thus identified by its name
+        Assert.assertEquals("org.basinmc.washer.metrics.FlightRecorderMetrics", ContextMetrics.flightRecorder().getClass().getName());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEvents() throws IOException {
+        Path file = Files.createTempFile("washer", ".jfr");
+
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("org.basinmc.washer.Construction");
+                recording.enable("org.basinmc.washer.Provision");
+                recording.enable("org.basinmc.washer.Resolution");
+                recording.start();
+
+                ConcurrentContext context = new ConcurrentContext(null, ContextMetrics.flightRecorder());
+                context.setInstance(Dependency.class, new Dependency());
+                context.bindProvider(Provided.class, (Class<Provider<Provided>>) (Class<?>) ProvidedProvider.class);
+
+                ConcurrentContext child = new ConcurrentContext(context, ContextMetrics.flightRecorder());
+
+                Assert.assertTrue(context.get(Dependent.class).isPresent());
+                Assert.assertTrue(context.get(Provided.class).isPresent());
+                Assert.assertTrue(child.get(Dependency.class).isPresent());
+
+                recording.stop();
+                recording.dump(file);
+            }
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Set<String> types = events.stream()
+                    .map((e) -> e.getEventType().getName())
+                    .collect(Collectors.toSet());
+
+            Assert.assertTrue(types.toString(), types.contains("org.basinmc.washer.Construction"));
+            Assert.assertTrue(types.toString(), types.contains("org.basinmc.washer.Provision"));
+            Assert.assertTrue(types.toString(), types.contains("org.basinmc.washer.Resolution"));
+
+            Assert.assertTrue(events.stream().anyMatch((e) -> e.getEventType().getName().equals("org.basinmc.washer.Construction") && e.getClass("componentType").getName().equals(Dependent.class.getName())));
+            Assert.assertTrue(events.stream().anyMatch((e) -> e.getEventType().getName().equals("org.basinmc.washer.Provision") && e.getClass("providerType").getName().equals(ProvidedProvider.class.getName())));
+            Assert.assertTrue(events.stream().anyMatch((e) -> e.getEventType().getName().equals("org.basinmc.washer.Resolution") && e.getClass("componentType").getName().equals(Dependency.class.getName()) && e.getInt("hops") == 1));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public static class Dependency {
+    }
+
+    public static class Dependent {
+
+        @Inject
+        public Dependent(Dependency dependency) {
+        }
+    }
+
+    public static class Provided {
+    }
+
+    public static class ProvidedProvider implements Provider<Provided> {
+
+        @Override
+        public Provided get() {
+            return new Provided();
+        }
+    }
+}
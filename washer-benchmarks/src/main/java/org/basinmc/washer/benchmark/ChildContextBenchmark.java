@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.benchmark;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.basinmc.washer.ContextPool;
+import org.basinmc.washer.Key;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of creating, using and clearing a short-lived child context (such as a
+ * context which is created for each request) with and without pooling.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ChildContextBenchmark {
+    private static final Key<Service> SERVICE = Key.of(Service.class, "service");
+    private static final Key<Request> REQUEST = Key.of(Request.class, "request");
+
+    private final Request request = new Request();
+    private ConcurrentContext parent;
+    private ContextPool pool;
+
+    @Setup
+    public void setup() {
+        this.parent = new ConcurrentContext();
+        this.parent.setInstance(SERVICE, new Service());
+        this.pool = new ContextPool(this.parent);
+    }
+
+    @Benchmark
+    public Object createChild() {
+        ConcurrentContext context = new ConcurrentContext(this.parent);
+        context.setInstance(REQUEST, this.request);
+        Object service = context.getOrNull(SERVICE);
+        context.clear();
+        return service;
+    }
+
+    @Benchmark
+    public Object acquirePooledChild() {
+        ConcurrentContext context = this.pool.acquire();
+        context.setInstance(REQUEST, this.request);
+        Object service = context.getOrNull(SERVICE);
+        this.pool.release(context);
+        return service;
+    }
+
+    /**
+     * Represents a component which is stored within the parent context.
+     */
+    public static final class Service {
+    }
+
+    /**
+     * Represents a component which is stored within each child context.
+     */
+    public static final class Request {
+    }
+}
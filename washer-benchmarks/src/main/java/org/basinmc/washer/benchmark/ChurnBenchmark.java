@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.benchmark;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.basinmc.washer.Key;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of repeatedly storing and removing instances.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ChurnBenchmark {
+    private static final Key<Service> KEY = Key.of(Service.class, "service");
+
+    private final Service instance = new Service();
+    private ConcurrentContext context;
+
+    @Setup
+    public void setup() {
+        this.context = new ConcurrentContext();
+    }
+
+    @Benchmark
+    public void setAndRemoveInstance() {
+        this.context.setInstance(KEY, this.instance);
+        this.context.removeInstance(KEY);
+    }
+
+    @Benchmark
+    public void replaceInstance() {
+        this.context.setInstance(KEY, this.instance);
+    }
+
+    /**
+     * Represents the component which is stored and removed.
+     */
+    public static final class Service {
+    }
+}
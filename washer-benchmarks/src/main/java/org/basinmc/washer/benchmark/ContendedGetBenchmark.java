@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.benchmark;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.basinmc.washer.Context;
+import org.basinmc.washer.Key;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of concurrent lookups while a background thread continuously modifies
+ * the bindings of the root context.<br>
+ * <br>
+ * The number of reading threads is controlled through the JMH thread count (for instance {@code -t
+ * 1}, {@code -t 8} or {@code -t 64}).
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ContendedGetBenchmark {
+    private static final Key<Service> KEY = Key.of(Service.class, "service");
+
+    private ConcurrentContext root;
+    private Context child;
+    private Thread binder;
+    private volatile boolean running;
+
+    @Setup
+    public void setup() {
+        this.root = new ConcurrentContext();
+        this.root.setInstance(KEY, new Service());
+        this.child = new ConcurrentContext(this.root);
+
+        this.running = true;
+        this.binder = new Thread(() -> {
+            int i = 0;
+
+            while (this.running) {
+                this.root.bind(Binding.class, "binding-" + (i++ & 1023), Binding.class);
+            }
+        }, "binder");
+        this.binder.setDaemon(true);
+        this.binder.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        this.running = false;
+        this.binder.join();
+    }
+
+    @Benchmark
+    public Object getFromChild() {
+        return this.child.getOrNull(KEY);
+    }
+
+    @Benchmark
+    public Object getFromRoot() {
+        return this.root.getOrNull(KEY);
+    }
+
+    /**
+     * Represents the component which is resolved by all readers.
+     */
+    public static final class Service {
+    }
+
+    /**
+     * Represents the type which is bound continuously by the background thread.
+     */
+    public static final class Binding {
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.benchmark;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.basinmc.washer.component.ComponentDefinition;
+import org.basinmc.washer.component.InitializationStrategy;
+import org.basinmc.washer.component.constraint.ComponentConstraint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * Measures the time required to eagerly initialize a context with a large number of synthetic
+ * component definitions.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class EagerStartupBenchmark {
+
+    /**
+     * Defines the number of eager component definitions.
+     */
+    @Param({"1000"})
+    public int components;
+
+    /**
+     * Defines whether components are initialized in parallel (on the common pool) or on the
+     * calling thread.
+     */
+    @Param({"true", "false"})
+    public boolean parallel;
+
+    private ConcurrentContext context;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        this.context = new ConcurrentContext();
+
+        for (int i = 0; i < this.components; ++i) {
+            this.context.register(new SyntheticDefinition("component-" + i, i % 10));
+        }
+    }
+
+    @Benchmark
+    public ConcurrentContext initialize() {
+        this.context.initialize(this.parallel ? ForkJoinPool.commonPool() : Runnable::run);
+        return this.context;
+    }
+
+    /**
+     * Represents a dependency which is shared by all synthetic components.
+     */
+    @Singleton
+    public static final class SharedDependency {
+    }
+
+    /**
+     * Represents a synthetic component.
+     */
+    @Singleton
+    public static final class SyntheticComponent {
+        private final SharedDependency dependency;
+
+        @Inject
+        public SyntheticComponent(SharedDependency dependency) {
+            this.dependency = dependency;
+        }
+    }
+
+    /**
+     * Declares an eager synthetic component with a unique qualifier.
+     */
+    private static final class SyntheticDefinition implements ComponentDefinition<SyntheticComponent> {
+        private final String qualifier;
+        private final int order;
+
+        private SyntheticDefinition(@Nonnull String qualifier, int order) {
+            this.qualifier = qualifier;
+            this.order = order;
+        }
+
+        @Nonnull
+        @Override
+        public Deque<ComponentConstraint> getConstraints() {
+            return new ArrayDeque<>();
+        }
+
+        @Nonnull
+        @Override
+        public Class<SyntheticComponent> getType() {
+            return SyntheticComponent.class;
+        }
+
+        @Nonnull
+        @Override
+        public Optional<Class<? extends SyntheticComponent>> getImplementationType() {
+            return Optional.empty();
+        }
+
+        @Nonnull
+        @Override
+        public InitializationStrategy getInitializationStrategy() {
+            return InitializationStrategy.EAGER;
+        }
+
+        @Override
+        public int getOrder() {
+            return this.order;
+        }
+
+        @Nonnull
+        @Override
+        public Optional<Class<? extends Provider<SyntheticComponent>>> getProviderType() {
+            return Optional.empty();
+        }
+
+        @Nonnull
+        @Override
+        public String getQualifier() {
+            return this.qualifier;
+        }
+
+        @Override
+        public boolean matchesConstraints() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.benchmark;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.basinmc.washer.FrozenContext;
+import org.basinmc.washer.Key;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency of resolving instances from a root context and from a frozen snapshot of
+ * the same context at varying sizes.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class FrozenContextBenchmark {
+
+    /**
+     * Defines the number of instances within the context.
+     */
+    @Param({"16", "1024", "65536"})
+    public int size;
+
+    private ConcurrentContext context;
+    private FrozenContext snapshot;
+    private Key<Service>[] keys;
+    private int index;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        this.context = new ConcurrentContext();
+        this.keys = new Key[this.size];
+
+        for (int i = 0; i < this.size; ++i) {
+            this.keys[i] = Key.of(Service.class, "service-" + i);
+            this.context.setInstance(this.keys[i], new Service());
+        }
+
+        this.snapshot = this.context.freeze();
+    }
+
+    @Benchmark
+    public Object getConcurrent() {
+        return this.context.getOrNull(this.next());
+    }
+
+    @Benchmark
+    public Object getFrozen() {
+        return this.snapshot.getOrNull(this.next());
+    }
+
+    /**
+     * Selects the next key in a round robin fashion.
+     */
+    private Key<Service> next() {
+        int index = this.index;
+        this.index = index + 1 == this.size ? 0 : index + 1;
+        return this.keys[index];
+    }
+
+    /**
+     * Represents the component which is resolved.
+     */
+    public static final class Service {
+    }
+}
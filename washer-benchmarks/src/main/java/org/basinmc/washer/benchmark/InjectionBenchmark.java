@@ -0,0 +1,217 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.benchmark;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.basinmc.washer.annotation.InjectByDefault;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Singleton;
+
+/**
+ * Measures the throughput of {@link ConcurrentContext#inject(Object)} on components which declare
+ * a varying number of injectable fields.
+ *
+ * Since this module is compiled with the Washer annotation processor, injection is performed
+ * through the generated injectors.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class InjectionBenchmark {
+
+    /**
+     * Defines the number of injectable fields within the target component.
+     */
+    @Param({"5", "10", "25", "50"})
+    public int fields;
+
+    private ConcurrentContext context;
+    private Object target;
+
+    @Setup
+    public void setup() {
+        this.context = new ConcurrentContext();
+
+        switch (this.fields) {
+            case 5:
+                this.target = new Fields5();
+                break;
+            case 10:
+                this.target = new Fields10();
+                break;
+            case 25:
+                this.target = new Fields25();
+                break;
+            case 50:
+                this.target = new Fields50();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported number of fields: " + this.fields);
+        }
+
+        this.context.inject(this.target);
+    }
+
+    @Benchmark
+    public Object inject() {
+        this.context.inject(this.target);
+        return this.target;
+    }
+
+    /**
+     * Represents the dependency which is injected into every field.
+     */
+    @Singleton
+    public static final class Dependency {
+    }
+
+    /**
+     * Represents a component with 5 injectable fields.
+     */
+    @InjectByDefault
+    public static final class Fields5 {
+        Dependency field0;
+        Dependency field1;
+        Dependency field2;
+        Dependency field3;
+        Dependency field4;
+    }
+
+    /**
+     * Represents a component with 10 injectable fields.
+     */
+    @InjectByDefault
+    public static final class Fields10 {
+        Dependency field0;
+        Dependency field1;
+        Dependency field2;
+        Dependency field3;
+        Dependency field4;
+        Dependency field5;
+        Dependency field6;
+        Dependency field7;
+        Dependency field8;
+        Dependency field9;
+    }
+
+    /**
+     * Represents a component with 25 injectable fields.
+     */
+    @InjectByDefault
+    public static final class Fields25 {
+        Dependency field0;
+        Dependency field1;
+        Dependency field2;
+        Dependency field3;
+        Dependency field4;
+        Dependency field5;
+        Dependency field6;
+        Dependency field7;
+        Dependency field8;
+        Dependency field9;
+        Dependency field10;
+        Dependency field11;
+        Dependency field12;
+        Dependency field13;
+        Dependency field14;
+        Dependency field15;
+        Dependency field16;
+        Dependency field17;
+        Dependency field18;
+        Dependency field19;
+        Dependency field20;
+        Dependency field21;
+        Dependency field22;
+        Dependency field23;
+        Dependency field24;
+    }
+
+    /**
+     * Represents a component with 50 injectable fields.
+     */
+    @InjectByDefault
+    public static final class Fields50 {
+        Dependency field0;
+        Dependency field1;
+        Dependency field2;
+        Dependency field3;
+        Dependency field4;
+        Dependency field5;
+        Dependency field6;
+        Dependency field7;
+        Dependency field8;
+        Dependency field9;
+        Dependency field10;
+        Dependency field11;
+        Dependency field12;
+        Dependency field13;
+        Dependency field14;
+        Dependency field15;
+        Dependency field16;
+        Dependency field17;
+        Dependency field18;
+        Dependency field19;
+        Dependency field20;
+        Dependency field21;
+        Dependency field22;
+        Dependency field23;
+        Dependency field24;
+        Dependency field25;
+        Dependency field26;
+        Dependency field27;
+        Dependency field28;
+        Dependency field29;
+        Dependency field30;
+        Dependency field31;
+        Dependency field32;
+        Dependency field33;
+        Dependency field34;
+        Dependency field35;
+        Dependency field36;
+        Dependency field37;
+        Dependency field38;
+        Dependency field39;
+        Dependency field40;
+        Dependency field41;
+        Dependency field42;
+        Dependency field43;
+        Dependency field44;
+        Dependency field45;
+        Dependency field46;
+        Dependency field47;
+        Dependency field48;
+        Dependency field49;
+    }
+}
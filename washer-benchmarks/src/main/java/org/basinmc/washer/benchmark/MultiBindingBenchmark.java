@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.benchmark;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of retrieving all listeners of a type which are spread across a child
+ * context and its parent (e.g. the dispatch of an event to all of its listeners).
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MultiBindingBenchmark {
+
+    /**
+     * Defines the number of listeners within each context.
+     */
+    @Param({"10", "100", "500"})
+    public int listeners;
+
+    private ConcurrentContext context;
+
+    @Setup
+    public void setup() {
+        ConcurrentContext parent = new ConcurrentContext();
+        this.context = new ConcurrentContext(parent);
+
+        for (int i = 0; i < this.listeners; ++i) {
+            parent.setInstance(Listener.class, "parent-" + i, new Listener());
+            this.context.setInstance(Listener.class, "child-" + i, new Listener());
+            this.context.setInstance(Unrelated.class, "unrelated-" + i, new Unrelated());
+        }
+    }
+
+    @Benchmark
+    public List<Listener> getAll() {
+        return this.context.getAll(Listener.class);
+    }
+
+    @Benchmark
+    public long streamAll() {
+        return this.context.streamAll(Listener.class).count();
+    }
+
+    /**
+     * Represents a listener component.
+     */
+    public static final class Listener {
+    }
+
+    /**
+     * Represents a component of an unrelated type.
+     */
+    public static final class Unrelated {
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.basinmc.washer.benchmark;
+
+import org.basinmc.washer.ConcurrentContext;
+import org.basinmc.washer.Context;
+import org.basinmc.washer.Key;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of resolving instances and providers which are stored within the root of
+ * a context hierarchy (hits) or cannot be resolved at all (misses) from contexts at varying
+ * depths. Additionally measures misses which follow a modification of the root and thus cannot be
+ * answered by the resolution cache.
+ *
+ * @author <a href="mailto:johannesd@torchmind.com">Johannes Donath</a>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ResolutionBenchmark {
+    private static final Key<Service> HIT = Key.of(Service.class, "service");
+    private static final Key<Runnable> MISS = Key.of(Runnable.class, "missing");
+
+    /**
+     * Defines the number of parents above the context which performs the lookups.
+     */
+    @Param({"1", "2", "4", "8"})
+    public int depth;
+
+    private ConcurrentContext root;
+    private Context context;
+    private final Service replacement = new Service();
+
+    @Setup
+    public void setup() {
+        this.root = new ConcurrentContext();
+        this.root.setInstance(HIT, new Service());
+
+        for (int i = 0; i < 1024; ++i) {
+            this.root.setInstance(Service.class, "service-" + i, new Service());
+        }
+
+        Context current = this.root;
+
+        for (int i = 0; i < this.depth; ++i) {
+            current = new ConcurrentContext(current);
+        }
+
+        this.context = current;
+    }
+
+    @Benchmark
+    public Object getHit() {
+        return this.context.getOrNull(HIT);
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        return this.context.getOrNull(MISS);
+    }
+
+    @Benchmark
+    public boolean canProduceMissAfterModification() {
+        this.root.setInstance(HIT, this.replacement);
+        return this.context.canProduceInstance(MISS);
+    }
+
+    @Benchmark
+    public Object getProviderHit() {
+        return this.context.getProvider(HIT).orElse(null);
+    }
+
+    @Benchmark
+    public Object getProviderMiss() {
+        return this.context.getProvider(MISS).orElse(null);
+    }
+
+    /**
+     * Represents the component which is resolved by lookups which hit.
+     */
+    public static final class Service {
+    }
+}